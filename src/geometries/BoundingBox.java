@@ -143,6 +143,21 @@ public class BoundingBox {
      * @return boolean result, true if intersects, false otherwise
      */
     public boolean intersectBV(Ray ray, double maxDistance) {
+        return entryDistance(ray, maxDistance) != Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * Function which finds the distance at which a ray enters the bounding region.
+     * it lets a traversal visit the nearer boxes first, and skip the boxes that the ray enters
+     * beyond the closest intersection found so far
+     *
+     * @param ray         the ray to check for intersection
+     * @param maxDistance the max distance that the ray allowed to go
+     * @return the distance from the head of the ray to the entry point (negative when the head is inside the box),
+     * or positive infinity if the ray misses the box before the max distance
+     */
+    public double entryDistance(Ray ray, double maxDistance) {
+        IntersectionStatistics.countBoxTest();
         Point p0 = ray.getHead();
         Point dirHead = ray.getDirection(); //will cast the Vector to Point
 
@@ -181,12 +196,12 @@ public class BoundingBox {
             txMin = alignZero((getMaxX() - rayStartPointX) / dirHeadX);
         } else { // preventing parallel to the x-axis
             if (rayStartPointX >= getMaxX() || rayStartPointX <= getMinX())
-                return false;
+                return Double.POSITIVE_INFINITY;
             txMax = Double.POSITIVE_INFINITY;
             txMin = Double.NEGATIVE_INFINITY;
         }
         if (txMax <= 0) {
-            return false; // if value for t_Max is negative, the box is behind the ray.
+            return Double.POSITIVE_INFINITY; // if value for t_Max is negative, the box is behind the ray.
         }
 
         if (dirHeadY > 0) {
@@ -197,17 +212,17 @@ public class BoundingBox {
             tyMin = alignZero((getMaxY() - rayStartPointY) / dirHeadY);
         } else { // preventing parallel to the y-axis
             if (rayStartPointY >= getMaxY() || rayStartPointY <= getMinY())
-                return false;
+                return Double.POSITIVE_INFINITY;
             tyMax = Double.POSITIVE_INFINITY;
             tyMin = Double.NEGATIVE_INFINITY;
         }
         if (tyMax <= 0) {
-            return false; // if value for tyMax is negative, the box is behind the ray.
+            return Double.POSITIVE_INFINITY; // if value for tyMax is negative, the box is behind the ray.
         }
         // cases where the ray misses the cube
         // the ray misses the box when t0x is greater than t1y and when t0y is greater than  t1x
         if ((txMin > tyMax) || (tyMin > txMax)) {
-            return false;
+            return Double.POSITIVE_INFINITY;
         }
 
         // we find which one of these two points lie on the cube by comparing their values:
@@ -227,21 +242,22 @@ public class BoundingBox {
             tzMin = (getMaxZ() - rayStartPointZ) / dirHeadZ;
         } else { // preventing parallel to the z axis
             if (rayStartPointZ >= getMaxZ() || rayStartPointZ <= getMinZ())
-                return false;
+                return Double.POSITIVE_INFINITY;
             tzMax = Double.POSITIVE_INFINITY;
             tzMin = Double.NEGATIVE_INFINITY;
         }
         if (tzMax <= 0) {
-            return false; // if value for tzMax is negative, the box is behind the ray.
+            return Double.POSITIVE_INFINITY; // if value for tzMax is negative, the box is behind the ray.
         }
 
         //txs here represent the tighter bound of x and y
         // cases where the ray misses the cube
         // the ray misses the box when t0 is greater than t1z and when t0z is greater than  t1
         if (txMin > tzMax || tzMin > txMax)
-            return false;
+            return Double.POSITIVE_INFINITY;
 
-        return maxDistance > max(txMin, tzMin);
+        double entry = max(txMin, tzMin);
+        return maxDistance > entry ? entry : Double.POSITIVE_INFINITY;
     }
 
     //region distance metric
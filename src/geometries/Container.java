@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 
@@ -50,11 +51,75 @@ public abstract class Container extends Intersectable {
     }
 
 
+    /**
+     * Checks whether an intersection test of the container is a single primitive test,
+     * to be counted by {@link IntersectionStatistics}
+     *
+     * @return true for a geometry, false for a container of geometries
+     */
+    boolean isPrimitive() {
+        return this instanceof Geometry;
+    }
+
     @Override
     public List<GeoPoint> findGeoIntersections(Ray ray, double maxDistance) {
         if(isBvh()&& getBoundingBox()!=null&& !getBoundingBox().intersectBV(ray,maxDistance)){
             return null;
         }
+        if (isPrimitive())
+            IntersectionStatistics.countPrimitiveTest();
         return super.findGeoIntersections(ray,maxDistance);
     }
+
+    @Override
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        if (isBvh() && getBoundingBox() != null && !getBoundingBox().intersectBV(ray, maxDistance))
+            return null;
+        if (isPrimitive())
+            IntersectionStatistics.countPrimitiveTest();
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    @Override
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        if (isBvh() && getBoundingBox() != null && !getBoundingBox().intersectBV(ray, hit.getDistance()))
+            return false;
+        return findClosestHitInside(ray, hit);
+    }
+
+    /**
+     * finds the closest intersection with the contents of the container and writes it into the hit record,
+     * when its bounding box is already tested
+     *
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the closest intersection so far
+     * @return true if a closer intersection was found and recorded
+     */
+    boolean findClosestHitInside(Ray ray, HitRecord hit) {
+        if (isPrimitive())
+            IntersectionStatistics.countPrimitiveTest();
+        return findClosestHitHelper(ray, hit);
+    }
+
+    @Override
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr) {
+        if (isBvh() && getBoundingBox() != null && !getBoundingBox().intersectBV(ray, maxDistance))
+            return ktr;
+        return findTransparencyInside(ray, maxDistance, ktr);
+    }
+
+    /**
+     * multiplies a transmittance by the transparency coefficients of the contents of the container along the ray,
+     * when its bounding box is already tested
+     *
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the distance to the light
+     * @param ktr         the transmittance of the geometries that were already passed
+     * @return the transmittance along the ray, {@link Double3#ZERO} if the ray is blocked
+     */
+    Double3 findTransparencyInside(Ray ray, double maxDistance, Double3 ktr) {
+        if (isPrimitive())
+            IntersectionStatistics.countPrimitiveTest();
+        return findTransparencyHelper(ray, maxDistance, ktr);
+    }
 }
@@ -33,6 +33,15 @@ public class Cylinder extends Tube {
         this.height = height;
     }
 
+    /**
+     * get the height of the cylinder
+     *
+     * @return the height
+     */
+    public double getHeight() {
+        return height;
+    }
+
     @Override
     public Vector getNormal(Point point) {
         // Define a point representing the head of the axis plus height direction
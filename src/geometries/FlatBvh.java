@@ -0,0 +1,415 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static primitives.Util.alignZero;
+
+/**
+ * FlatBvh is a compiled, read-only bounding volume hierarchy, built from any tree of {@link Geometries}.
+ * <p>
+ * Instead of a tree of objects, the nodes are kept in flat arrays: the bounds of all the nodes are kept as a
+ * structure of arrays ({@link NodeBounds} - an array for every bound, indexed by the node), and the links of all
+ * the nodes in a single {@code int[]} (2 values per node). The nodes are laid out breadth first, so the children of
+ * a node are next to each other and a node needs only the index of its first child and the amount of its children.
+ * A leaf holds the index of its first geometry in the array of geometries and the (negated) amount of its geometries.
+ * </p>
+ * <p>
+ * The traversal is a loop over an explicit stack of node indexes with the ray - box test inlined,
+ * so there are no recursive virtual calls and no pointer chasing through lists and box objects.
+ * The stack is a {@link TraversalStack} of the thread, so a query allocates nothing.
+ * The geometries without a bounding box (like planes) are kept aside and tested against every ray.
+ * The hierarchy is a snapshot: changes of the original tree after the compilation are not seen by it.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class FlatBvh extends Container {
+    /**
+     * The bounds of the nodes
+     */
+    private final NodeBounds bounds;
+    /**
+     * The links of the nodes, 2 values per node: for an inner node the index of its first child and the amount
+     * of its children, for a leaf the index of its first geometry and the negated amount of its geometries
+     */
+    private final int[] links;
+    /**
+     * The geometries of the leaves, grouped by their leaves
+     */
+    private final Container[] geometries;
+    /**
+     * The geometries that have no bounding box, they are tested against every ray
+     */
+    private final Container[] unbounded;
+
+    /**
+     * Compiles a tree of geometries. The bounds of the nodes are calculated from the geometries,
+     * so the boxes of the inner {@link Geometries} of the tree don't have to be set.
+     * A node that holds both sub-trees and geometries gets an additional leaf for its geometries.
+     *
+     * @param root the root of the tree (a single geometry is compiled to a single leaf)
+     */
+    public FlatBvh(Container root) {
+        List<Container> unboundedList = new LinkedList<>();
+        Node rootNode = compile(root, unboundedList);
+        unbounded = unboundedList.toArray(new Container[0]);
+
+        // breadth first, so the children of every node are next to each other
+        List<Node> nodes = new ArrayList<>();
+        List<Container> leafGeometries = new ArrayList<>();
+        if (rootNode != null)
+            nodes.add(rootNode);
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            if (node.children.isEmpty()) {
+                node.first = leafGeometries.size();
+                leafGeometries.addAll(node.geometries);
+            } else {
+                node.first = nodes.size();
+                nodes.addAll(node.children);
+            }
+        }
+
+        bounds = new NodeBounds(nodes.size());
+        links = new int[2 * nodes.size()];
+        for (int i = 0; i < nodes.size(); i++) {
+            Node node = nodes.get(i);
+            bounds.set(i, node.box[0], node.box[1], node.box[2], node.box[3], node.box[4], node.box[5]);
+            links[2 * i] = node.first;
+            links[2 * i + 1] = node.children.isEmpty() ? -node.geometries.size() : node.children.size();
+        }
+        geometries = leafGeometries.toArray(new Container[0]);
+        setBoundingBox();
+    }
+
+    /**
+     * Get the amount of nodes in the hierarchy
+     *
+     * @return the amount of nodes
+     */
+    public int getNodesCount() {
+        return links.length / 2;
+    }
+
+    /**
+     * Get the geometries of the hierarchy - the geometries of the leaves and the unbounded ones
+     *
+     * @return the geometries
+     */
+    public List<Container> getGeometries() {
+        List<Container> all = new ArrayList<>(geometries.length + unbounded.length);
+        all.addAll(List.of(unbounded));
+        all.addAll(List.of(geometries));
+        return all;
+    }
+
+    /**
+     * Converts a sub-tree into a temporary node with its calculated bounds
+     *
+     * @param container the root of the sub-tree
+     * @param unbounded gets the geometries of the sub-tree that have no bounding box
+     * @return the node, null if the sub-tree has no bounded geometries
+     */
+    private static Node compile(Container container, List<Container> unbounded) {
+        Node node = new Node();
+        if (container instanceof Geometries inner) {
+            for (Container child : inner.getContainerList()) {
+                if (child instanceof Geometries) {
+                    Node childNode = compile(child, unbounded);
+                    if (childNode != null)
+                        node.children.add(childNode);
+                } else if (bounded(child, unbounded))
+                    node.geometries.add(child);
+            }
+        } else if (bounded(container, unbounded))
+            node.geometries.add(container);
+
+        if (!node.children.isEmpty() && !node.geometries.isEmpty()) {
+            // a mixed node - its geometries move into a leaf of their own
+            Node leaf = new Node();
+            leaf.geometries.addAll(node.geometries);
+            node.geometries.clear();
+            node.children.add(leaf.fit());
+        }
+        if (node.children.isEmpty() && node.geometries.isEmpty())
+            return null;
+        // a node with a single sub-tree adds nothing but another box test
+        return node.children.size() == 1 ? node.children.getFirst() : node.fit();
+    }
+
+    /**
+     * Checks whether a geometry has a bounding box, and calculates it if needed
+     *
+     * @param geometry  the geometry
+     * @param unbounded gets the geometry if it has no bounding box
+     * @return true if the geometry has a bounding box
+     */
+    private static boolean bounded(Container geometry, List<Container> unbounded) {
+        if (geometry.getBoundingBox() == null)
+            geometry.setBoundingBox();
+        if (geometry.getBoundingBox() != null)
+            return true;
+        unbounded.add(geometry);
+        return false;
+    }
+
+    @Override
+    final void setBoundingBox() {
+        boundingBox = bounds.size() == 0 || unbounded.length > 0 ? null : bounds.box(0);
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        List<GeoPoint> res = null;
+        for (Container geometry : unbounded)
+            res = addAll(res, geometry.findGeoIntersections(ray, maxDistance));
+        if (bounds.size() == 0)
+            return res;
+
+        Point head = ray.getHead();
+        Point direction = ray.getDirection();
+        double x = alignZero(head.getX()), y = alignZero(head.getY()), z = alignZero(head.getZ());
+        double dx = alignZero(direction.getX()), dy = alignZero(direction.getY()), dz = alignZero(direction.getZ());
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        TraversalStack traversal = TraversalStack.open();
+        try {
+            int[] stack = traversal.nodes;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (bounds.entry(node, x, y, z, dx, dy, dz, invX, invY, invZ, maxDistance)
+                        == Double.POSITIVE_INFINITY)
+                    continue;
+
+                int first = links[2 * node], count = links[2 * node + 1];
+                if (count < 0) {
+                    for (int i = first; i < first - count; i++) {
+                        Container geometry = geometries[i];
+                        if (geometry.isPrimitive())
+                            IntersectionStatistics.countPrimitiveTest();
+                        // the box of the leaf is already tested, the box of the geometry is not needed
+                        res = addAll(res, geometry.findGeoIntersectionsHelper(ray, maxDistance));
+                    }
+                } else {
+                    traversal.ensureCapacity(top + count);
+                    stack = traversal.nodes;
+                    for (int i = first; i < first + count; i++)
+                        stack[top++] = i;
+                }
+            }
+            return res;
+        } finally {
+            traversal.close();
+        }
+    }
+
+    /**
+     * Finds the closest intersection by visiting the nodes front to back. The children of an inner node are
+     * tested when it is visited, and pushed so that the nearest one is popped first. Every intersection found
+     * shortens the distance in the hit record, and a popped node that the ray enters beyond it is skipped.
+     *
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the closest intersection so far
+     * @return true if a closer intersection was found and recorded
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        boolean found = false;
+        for (Container geometry : unbounded)
+            found |= geometry.findClosestHit(ray, hit);
+        if (bounds.size() == 0)
+            return found;
+
+        Point head = ray.getHead();
+        Point direction = ray.getDirection();
+        double x = alignZero(head.getX()), y = alignZero(head.getY()), z = alignZero(head.getZ());
+        double dx = alignZero(direction.getX()), dy = alignZero(direction.getY()), dz = alignZero(direction.getZ());
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        double rootEntry = bounds.entry(0, x, y, z, dx, dy, dz, invX, invY, invZ, hit.getDistance());
+        if (rootEntry == Double.POSITIVE_INFINITY)
+            return found;
+        TraversalStack traversal = TraversalStack.open();
+        try {
+            int[] stack = traversal.nodes;
+            double[] entries = traversal.entries;
+            int top = 0;
+            stack[0] = 0;
+            entries[top++] = rootEntry;
+            while (top > 0) {
+                int node = stack[--top];
+                double maxDistance = hit.getDistance();
+                if (entries[top] >= maxDistance)
+                    continue;
+
+                int first = links[2 * node], count = links[2 * node + 1];
+                if (count < 0) {
+                    for (int i = first; i < first - count; i++)
+                        found |= geometries[i].findClosestHitInside(ray, hit);
+                    continue;
+                }
+
+                traversal.ensureCapacity(top + count);
+                stack = traversal.nodes;
+                entries = traversal.entries;
+                // insertion sort of the hit children, the farthest at the bottom so the nearest is popped first
+                int bottom = top;
+                for (int child = first; child < first + count; child++) {
+                    double entry = bounds.entry(child, x, y, z, dx, dy, dz, invX, invY, invZ, maxDistance);
+                    if (entry == Double.POSITIVE_INFINITY)
+                        continue;
+                    int i = top++;
+                    for (; i > bottom && entries[i - 1] < entry; i--) {
+                        entries[i] = entries[i - 1];
+                        stack[i] = stack[i - 1];
+                    }
+                    entries[i] = entry;
+                    stack[i] = child;
+                }
+            }
+            return found;
+        } finally {
+            traversal.close();
+        }
+    }
+
+    /**
+     * Multiplies a transmittance by the transparency coefficients of the geometries along the ray.
+     * The nodes are visited in any order, and the traversal stops at the first geometry that blocks the ray.
+     *
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the distance to the light
+     * @param ktr         the transmittance of the geometries that were already passed
+     * @return the transmittance along the ray, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        for (Container geometry : unbounded) {
+            ktr = geometry.findTransparency(ray, maxDistance, ktr);
+            if (ktr.equals(Double3.ZERO))
+                return Double3.ZERO;
+        }
+        if (bounds.size() == 0)
+            return ktr;
+
+        Point head = ray.getHead();
+        Point direction = ray.getDirection();
+        double x = alignZero(head.getX()), y = alignZero(head.getY()), z = alignZero(head.getZ());
+        double dx = alignZero(direction.getX()), dy = alignZero(direction.getY()), dz = alignZero(direction.getZ());
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        TraversalStack traversal = TraversalStack.open();
+        try {
+            int[] stack = traversal.nodes;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (bounds.entry(node, x, y, z, dx, dy, dz, invX, invY, invZ, maxDistance)
+                        == Double.POSITIVE_INFINITY)
+                    continue;
+
+                int first = links[2 * node], count = links[2 * node + 1];
+                if (count < 0) {
+                    for (int i = first; i < first - count; i++) {
+                        ktr = geometries[i].findTransparencyInside(ray, maxDistance, ktr);
+                        if (ktr.equals(Double3.ZERO))
+                            return Double3.ZERO;
+                    }
+                } else {
+                    traversal.ensureCapacity(top + count);
+                    stack = traversal.nodes;
+                    for (int i = first; i < first + count; i++)
+                        stack[top++] = i;
+                }
+            }
+            return ktr;
+        } finally {
+            traversal.close();
+        }
+    }
+
+    /**
+     * Adds intersections to a result list
+     *
+     * @param res           the result list, may be null
+     * @param intersections the intersections to add, may be null
+     * @return the result list, null if there are no intersections at all
+     */
+    private static List<GeoPoint> addAll(List<GeoPoint> res, List<GeoPoint> intersections) {
+        if (intersections == null)
+            return res;
+        if (res == null)
+            res = new LinkedList<>();
+        res.addAll(intersections);
+        return res;
+    }
+
+    /**
+     * A temporary node of the hierarchy, used while compiling it
+     */
+    private static class Node {
+        /**
+         * The sub-trees of an inner node
+         */
+        final List<Node> children = new ArrayList<>(2);
+        /**
+         * The geometries of a leaf
+         */
+        final List<Container> geometries = new ArrayList<>(2);
+        /**
+         * The bounds of the node: min x, y, z and max x, y, z
+         */
+        final double[] box = {
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        /**
+         * The index of the first child or the first geometry in the compiled arrays
+         */
+        int first;
+
+        /**
+         * Calculates the bounds of the node from its children and geometries
+         *
+         * @return this node
+         */
+        Node fit() {
+            for (Node child : children)
+                include(child.box[0], child.box[1], child.box[2], child.box[3], child.box[4], child.box[5]);
+            for (Container geometry : geometries) {
+                BoundingBox b = geometry.getBoundingBox();
+                include(b.getMinX(), b.getMinY(), b.getMinZ(), b.getMaxX(), b.getMaxY(), b.getMaxZ());
+            }
+            return this;
+        }
+
+        /**
+         * Grows the bounds of the node to include a box
+         *
+         * @param minX min x of the box
+         * @param minY min y of the box
+         * @param minZ min z of the box
+         * @param maxX max x of the box
+         * @param maxY max y of the box
+         * @param maxZ max z of the box
+         */
+        private void include(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            box[0] = min(box[0], minX);
+            box[1] = min(box[1], minY);
+            box[2] = min(box[2], minZ);
+            box[3] = max(box[3], maxX);
+            box[4] = max(box[4], maxY);
+            box[5] = max(box[5], maxZ);
+        }
+    }
+}
@@ -1,10 +1,15 @@
 package geometries;
 
 import org.jetbrains.annotations.NotNull;
+import primitives.Double3;
 import primitives.Ray;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.function.Function;
 
 /**
  * The Geometries class represents a collection of geometric shapes that can be intersected by rays.
@@ -15,12 +20,36 @@ import java.util.List;
  */
 public class Geometries extends Container {
 
+    /**
+     * The max amount of shapes that a closest-hit query visits in the order of their distances
+     */
+    private static final int ORDERED_SHAPES = 8;
 
     /**
      * A list to hold all the geometric shapes that can be intersected.
      */
     private final List<Container> containerList = new LinkedList<>();
 
+    /**
+     * A read-only view of the list of the shapes - the shapes are changed only through this container,
+     * so the split of the shapes (below) is kept up to date
+     */
+    private final List<Container> containerView = Collections.unmodifiableList(containerList);
+
+    /**
+     * The shapes of the list that have a bounding box and the shapes that don't (like planes).
+     * the split is updated whenever the bounding box of this container is calculated,
+     * and is used only when there are both kinds of shapes
+     */
+    private final List<Container> boundedList = new ArrayList<>(), unboundedList = new ArrayList<>();
+
+    /**
+     * The bounding box of the bounded shapes only. one unbounded shape leaves this container without a bounding box,
+     * but the bounded shapes are still culled by this box while the unbounded ones are tested directly.
+     * null when the split is not needed or not up to date
+     */
+    private BoundingBox boundedBox = null;
+
     /**
      * Default constructor for creating an empty collection of geometries.
      */
@@ -30,10 +59,11 @@ public class Geometries extends Container {
     /**
      * get the containerList
      *
-     * @return the containerList
+     * @return a read-only view of the containerList, the shapes are added and removed by {@link #add} and
+     * {@link #remove}
      */
     public List<Container> getContainerList() {
-        return containerList;
+        return containerView;
     }
 
     /**
@@ -54,6 +84,7 @@ public class Geometries extends Container {
      */
     public void add(Container... geometries) {
         containerList.addAll(List.of(geometries));
+        boundedBox = null;
     }
 
     /**
@@ -63,6 +94,7 @@ public class Geometries extends Container {
      */
     public void add(List<Container> geometries) {
         containerList.addAll(geometries);
+        boundedBox = null;
     }
 
     /**
@@ -73,6 +105,7 @@ public class Geometries extends Container {
      */
     public Geometries remove(Container... geometries) {
         containerList.removeAll(List.of(geometries));
+        boundedBox = null;
         return this;
     }
 //endregion
@@ -87,6 +120,7 @@ public class Geometries extends Container {
         Geometries new_geometries = new Geometries(containerList.toArray(new Container[0]));
         // clear the original list of containers
         containerList.clear();
+        boundedBox = null;
         // call the second function which will make sure we only
         // have containers with simple instances of geometry
         flatten(new_geometries);
@@ -158,6 +192,7 @@ public class Geometries extends Container {
             return;
         buildBvhTree(getBoundingBox()); // Recursively build the BVH tree starting from the bounding box
         checkForUnBoundability(); // Check if any geometries couldn't be bound by a bounding box
+        splitUnbounded(); // Keep the unbounded geometries aside, so they don't disable the box of the rest
     }
 
     /**
@@ -332,13 +367,150 @@ public void buildBinaryBvhTree(boolean edges) {
         turnOnOffBvh(false);
 }
 
+/**
+ * builds a bounding volume hierarchy top-down by the Surface Area Heuristic, in O(n log n) time.
+ * the big sub-hierarchies are built in parallel in the common ForkJoin pool.
+ * the unbound-able geometries (like planes) stay directly in this container, next to the root of the hierarchy
+ *
+ * @see SahBvhBuilder
+ */
+public void buildSahBvhTree() {
+    buildHierarchy(bounded -> new SahBvhBuilder(bounded).build());
+}
+
+/**
+ * builds a linear bounding volume hierarchy (LBVH) by sorting the geometries along a Morton curve, in near-linear
+ * time and in parallel. the hierarchy is built much faster than by {@link #buildSahBvhTree()}
+ * but is usually a bit slower to traverse, so it suits scenes that are rebuilt often.
+ * the unbound-able geometries (like planes) stay directly in this container, next to the root of the hierarchy
+ *
+ * @see LinearBvhBuilder
+ */
+public void buildLinearBvhTree() {
+    buildHierarchy(bounded -> new LinearBvhBuilder(bounded).build());
+}
+
+/**
+ * compiles the current tree of geometries (usually after one of the build methods) into a single read-only
+ * {@link FlatBvh}, which is traversed by a loop instead of recursive calls.
+ * the geometries can't be changed through the tree after the compilation
+ */
+public void compileFlatBvh() {
+    FlatBvh compiled = new FlatBvh(this);
+    containerList.clear();
+    containerList.add(compiled);
+    // the compiled hierarchy keeps its unbounded geometries aside by itself
+    boundingBox = compiled.getBoundingBox();
+    boundedBox = null;
+}
+
+/**
+ * flattens the geometries and builds a hierarchy over all the bound-able ones.
+ * the unbound-able geometries stay directly in this container, next to the root of the hierarchy
+ *
+ * @param builder builds the hierarchy of the bounded geometries and returns its root
+ */
+private void buildHierarchy(Function<List<Container>, Container> builder) {
+    boolean on = this.isBvh();
+    flatten();
+
+    List<Container> bounded = new ArrayList<>(containerList.size()), unbounded = new LinkedList<>();
+    for (var container : containerList) {
+        if (container.getBoundingBox() == null)
+            container.setBoundingBox();
+        (container.getBoundingBox() == null ? unbounded : bounded).add(container);
+    }
+
+    containerList.clear();
+    containerList.addAll(unbounded);
+    Container root = bounded.isEmpty() ? null : builder.apply(bounded);
+    if (root != null)
+        containerList.add(root);
+    // every node of the hierarchy already has its box, so there is no need to recalculate them
+    boundingBox = root == null || !unbounded.isEmpty() ? null : root.getBoundingBox();
+    splitUnbounded();
+
+    //if the setting was for false we want to keep it that way,
+    if (!on)
+        turnOnOffBvh(false);
+}
+
+/**
+ * splits the shapes into the bounded and the unbounded ones, and bounds the bounded ones, by the current boxes
+ * of the shapes. the split is kept only when this container has no bounding box because of unbounded shapes,
+ * and there are at least two bounded shapes
+ */
+private void splitUnbounded() {
+    boundedList.clear();
+    unboundedList.clear();
+    boundedBox = null;
+    if (boundingBox != null)
+        return;
+
+    double xMin, xMax, yMin, yMax, zMin, zMax;
+    xMin = yMin = zMin = Double.POSITIVE_INFINITY;
+    xMax = yMax = zMax = Double.NEGATIVE_INFINITY;
+    for (var container : containerList) {
+        BoundingBox box = container.getBoundingBox();
+        if (box == null) {
+            unboundedList.add(container);
+            continue;
+        }
+        boundedList.add(container);
+        xMin = Math.min(xMin, box.getMinX());
+        yMin = Math.min(yMin, box.getMinY());
+        zMin = Math.min(zMin, box.getMinZ());
+        xMax = Math.max(xMax, box.getMaxX());
+        yMax = Math.max(yMax, box.getMaxY());
+        zMax = Math.max(zMax, box.getMaxZ());
+    }
+
+    // a single bounded shape is culled by its own box anyway
+    if (boundedList.size() < 2 || unboundedList.isEmpty()) {
+        boundedList.clear();
+        unboundedList.clear();
+    } else
+        boundedBox = new BoundingBox(xMin, xMax, yMin, yMax, zMin, zMax);
+}
+
+/**
+ * get the bounding box of the bounded shapes of this container, when it has unbounded shapes as well
+ *
+ * @return the box of the bounded shapes, null if the shapes are not split
+ */
+BoundingBox getBoundedBox() {
+    return boundedBox;
+}
 
 @Override
 public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+    if (!isBvh() || boundedBox == null)
+        return findGeoIntersections(containerList, ray, maxDistance);
+
+    List<GeoPoint> res = findGeoIntersections(unboundedList, ray, maxDistance);
+    if (!boundedBox.intersectBV(ray, maxDistance))
+        return res;
+    List<GeoPoint> bounded = findGeoIntersections(boundedList, ray, maxDistance);
+    if (res == null)
+        return bounded;
+    if (bounded != null)
+        res.addAll(bounded);
+    return res;
+}
 
+/**
+ * finds the intersections of the ray with some of the shapes
+ *
+ * @param shapes      the shapes
+ * @param ray         the ray to find intersections with
+ * @param maxDistance the maximum distance to consider for intersections
+ * @return a list of geometric points representing intersections, or null if no intersections are found
+ */
+private static List<GeoPoint> findGeoIntersections(List<Container> shapes, Ray ray, double maxDistance) {
     List<GeoPoint> res = null, shapeGeoPoints;
-    for (var shape : containerList) {
-        shapeGeoPoints = shape.findGeoIntersectionsHelper(ray, maxDistance);
+    for (var shape : shapes) {
+        // through findGeoIntersections, so the bounding box of every sub-hierarchy is tested before its contents
+        shapeGeoPoints = shape.findGeoIntersections(ray, maxDistance);
         if (shapeGeoPoints != null) {
             if (res == null)
                 res = new LinkedList<>();
@@ -348,6 +520,112 @@ public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
     return res;
 }
 
+/**
+ * finds the closest intersection by visiting the shapes front to back - in the order of the distances at which
+ * the ray enters their bounding boxes. every intersection found shortens the distance in the hit record,
+ * and the shapes that the ray enters beyond it are skipped together with their whole sub-hierarchies.
+ * a wide list (usually a flat one) is not ordered, since sorting it for every ray costs more than it saves
+ *
+ * @param ray the ray to find the intersection with
+ * @param hit the record of the closest intersection so far
+ * @return true if a closer intersection was found and recorded
+ */
+@Override
+protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+    if (!isBvh() || boundedBox == null)
+        return findClosestHit(containerList, ray, hit);
+
+    boolean found = findClosestHit(unboundedList, ray, hit);
+    if (!boundedBox.intersectBV(ray, hit.getDistance()))
+        return found;
+    return findClosestHit(boundedList, ray, hit) || found;
+}
+
+/**
+ * finds the closest intersection of the ray with some of the shapes, front to back
+ *
+ * @param shapes the shapes
+ * @param ray    the ray to find the intersection with
+ * @param hit    the record of the closest intersection so far
+ * @return true if a closer intersection was found and recorded
+ */
+private static boolean findClosestHit(List<Container> shapes, Ray ray, HitRecord hit) {
+    boolean found = false;
+    int size = shapes.size();
+    if (size > ORDERED_SHAPES) {
+        for (var shape : shapes)
+            found |= shape.findClosestHit(ray, hit);
+        return found;
+    }
+
+    // insertion sort of the hit shapes by their entry distances, the unbounded shapes first
+    TraversalStack stack = TraversalStack.open();
+    stack.ensureCapacity(size);
+    Container[] ordered = stack.shapes;
+    double[] entries = stack.entries;
+    int count = 0;
+    try {
+        for (var shape : shapes) {
+            double entry = shape.isBvh() && shape.getBoundingBox() != null
+                    ? shape.getBoundingBox().entryDistance(ray, hit.getDistance()) : Double.NEGATIVE_INFINITY;
+            if (entry == Double.POSITIVE_INFINITY)
+                continue;
+            int i = count++;
+            for (; i > 0 && entries[i - 1] > entry; i--) {
+                entries[i] = entries[i - 1];
+                ordered[i] = ordered[i - 1];
+            }
+            entries[i] = entry;
+            ordered[i] = shape;
+        }
+
+        for (int i = 0; i < count && entries[i] < hit.getDistance(); i++)
+            found |= ordered[i].findClosestHitInside(ray, hit);
+        return found;
+    } finally {
+        Arrays.fill(ordered, 0, count, null);
+        stack.close();
+    }
+}
+
+
+/**
+ * multiplies a transmittance by the transparency coefficients of the shapes along the ray,
+ * and stops at the first shape that blocks the ray completely
+ *
+ * @param ray         the ray from the lit point towards the light
+ * @param maxDistance the distance to the light
+ * @param ktr         the transmittance of the geometries that were already passed
+ * @return the transmittance along the ray, {@link Double3#ZERO} if the ray is blocked
+ */
+@Override
+protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+    if (!isBvh() || boundedBox == null)
+        return findTransparency(containerList, ray, maxDistance, ktr);
+
+    ktr = findTransparency(unboundedList, ray, maxDistance, ktr);
+    return ktr.equals(Double3.ZERO) || !boundedBox.intersectBV(ray, maxDistance) ? ktr
+            : findTransparency(boundedList, ray, maxDistance, ktr);
+}
+
+/**
+ * multiplies a transmittance by the transparency coefficients of some of the shapes along the ray
+ *
+ * @param shapes      the shapes
+ * @param ray         the ray from the lit point towards the light
+ * @param maxDistance the distance to the light
+ * @param ktr         the transmittance of the geometries that were already passed
+ * @return the transmittance along the ray, {@link Double3#ZERO} if the ray is blocked
+ */
+private static Double3 findTransparency(List<Container> shapes, Ray ray, double maxDistance, Double3 ktr) {
+    for (var shape : shapes) {
+        ktr = shape.findTransparency(ray, maxDistance, ktr);
+        if (ktr.equals(Double3.ZERO))
+            return Double3.ZERO;
+    }
+    return ktr;
+}
+
 
 @Override
 public void setBoundingBox() {
@@ -357,6 +635,7 @@ public void setBoundingBox() {
     if (!setImperfectBoundingBox())
         boundingBox = null;
     //else the bounding box will already contain the right boundingBox
+    splitUnbounded();
 }
 
 /**
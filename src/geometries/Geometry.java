@@ -82,4 +82,16 @@ public abstract class Geometry extends Container {
     @Override
     abstract protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * Creates the geometric point of an intersection that was written into a {@link HitRecord}
+     *
+     * @param point the point of intersection
+     * @param t     the distance of the point from the head of the ray
+     * @param part  the part of the geometry that was hit, -1 if the geometry has no parts
+     * @return the geometric point
+     */
+    GeoPoint createGeoPoint(Point point, double t, int part) {
+        return new GeoPoint(this, point, t);
+    }
+
 }
@@ -0,0 +1,141 @@
+package geometries;
+
+import geometries.Intersectable.GeoPoint;
+import primitives.Point;
+import primitives.Ray;
+
+/**
+ * HitRecord is a mutable record of the closest intersection found so far along a ray.
+ * <p>
+ * A closest-hit query through {@link Intersectable#findClosestHit(Ray, HitRecord)} writes the distance and the
+ * geometry of every closer intersection into the record, instead of allocating a list of {@link GeoPoint}s for
+ * every geometry it tests. The distance in the record is also the max distance for the rest of the search.
+ * The point of intersection is calculated only when it is asked for, and a record can be reset and reused
+ * for many rays.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class HitRecord {
+    /**
+     * The distance from the head of the ray to the closest intersection, or the max distance if there is none yet
+     */
+    private double distance;
+    /**
+     * The geometry of the closest intersection, null if there is none yet
+     */
+    private Geometry geometry;
+    /**
+     * A number that identifies the part of the geometry that was hit (like the face of a {@link Mesh}),
+     * -1 if the geometry has no parts
+     */
+    private int part;
+
+    /**
+     * Constructs an empty record for a search without a max distance
+     */
+    public HitRecord() {
+        this(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Constructs an empty record for a search up to a max distance
+     *
+     * @param maxDistance the max distance of the intersections
+     */
+    public HitRecord(double maxDistance) {
+        reset(maxDistance);
+    }
+
+    /**
+     * Empties the record for a new search
+     *
+     * @param maxDistance the max distance of the intersections
+     * @return the record itself
+     */
+    public final HitRecord reset(double maxDistance) {
+        distance = maxDistance;
+        geometry = null;
+        part = -1;
+        return this;
+    }
+
+    /**
+     * Records an intersection, which must be closer than the current distance
+     *
+     * @param geometry the intersected geometry
+     * @param distance the distance of the intersection from the head of the ray
+     */
+    public void set(Geometry geometry, double distance) {
+        set(geometry, distance, -1);
+    }
+
+    /**
+     * Records an intersection with a part of a geometry, which must be closer than the current distance
+     *
+     * @param geometry the intersected geometry
+     * @param distance the distance of the intersection from the head of the ray
+     * @param part     the part of the geometry that was hit
+     */
+    public void set(Geometry geometry, double distance, int part) {
+        this.geometry = geometry;
+        this.distance = distance;
+        this.part = part;
+    }
+
+    /**
+     * Checks whether an intersection was recorded
+     *
+     * @return true if there is an intersection
+     */
+    public boolean isHit() {
+        return geometry != null;
+    }
+
+    /**
+     * Get the distance of the closest intersection, or the max distance if there is none
+     *
+     * @return the distance
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    /**
+     * Get the geometry of the closest intersection
+     *
+     * @return the geometry, null if there is no intersection
+     */
+    public Geometry getGeometry() {
+        return geometry;
+    }
+
+    /**
+     * Get the part of the geometry that was hit
+     *
+     * @return the part, -1 if the geometry has no parts
+     */
+    public int getPart() {
+        return part;
+    }
+
+    /**
+     * Calculates the point of the closest intersection
+     *
+     * @param ray the ray that the record belongs to
+     * @return the point, null if there is no intersection
+     */
+    public Point getPoint(Ray ray) {
+        return geometry == null ? null : ray.getPoint(distance);
+    }
+
+    /**
+     * Creates the geometric point of the closest intersection
+     *
+     * @param ray the ray that the record belongs to
+     * @return the geometric point, null if there is no intersection
+     */
+    public GeoPoint toGeoPoint(Ray ray) {
+        return geometry == null ? null : geometry.createGeoPoint(ray.getPoint(distance), distance, part);
+    }
+}
@@ -1,5 +1,6 @@
 package geometries;
 
+import primitives.Double3;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -27,6 +28,15 @@ public abstract class Intersectable {
          * The point of intersection.
          */
         public Point point;
+        /**
+         * The distance of the point from the head of the intersecting ray, as calculated by the geometry,
+         * or NaN if it is not known.
+         */
+        public final double t;
+        /**
+         * The normal at the point, calculated on the first request. The point should not be changed after that.
+         */
+        private Vector normal;
 
         /**
          * Constructs a GeoPoint with the given geometry and point.
@@ -35,16 +45,40 @@ public abstract class Intersectable {
          * @param point    the point of intersection
          */
         public GeoPoint(Geometry geometry, Point point) {
+            this(geometry, point, Double.NaN);
+        }
+
+        /**
+         * Constructs a GeoPoint with the given geometry, point and distance along the intersecting ray.
+         *
+         * @param geometry the geometry to which the point of intersection belongs
+         * @param point    the point of intersection
+         * @param t        the distance of the point from the head of the ray
+         */
+        public GeoPoint(Geometry geometry, Point point, double t) {
             this.geometry = geometry;
             this.point = point;
+            this.t = t;
         }
 
         /**
          * Retrieves the normal vector at the current point on the geometry.
+         * It is calculated once, and the same vector is returned for the next requests.
          *
          * @return the normal vector at the current point.
          */
         public Vector getNormal() {
+            if (normal == null)
+                normal = calcNormal();
+            return normal;
+        }
+
+        /**
+         * Calculates the normal vector at the current point on the geometry.
+         *
+         * @return the normal vector at the current point.
+         */
+        protected Vector calcNormal() {
             return geometry.getNormal(point);
         }
 
@@ -120,4 +154,118 @@ public abstract class Intersectable {
 
     protected abstract List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance);
 
+    /**
+     * Finds the closest intersection of the ray with geometries within an infinite distance.
+     *
+     * @param ray the ray to find the intersection with
+     * @return the closest geometric point of intersection, or null if there is none
+     */
+    public final GeoPoint findClosestGeoIntersection(Ray ray) {
+        return findClosestGeoIntersection(ray, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Finds the closest intersection of the ray with geometries up to a specified maximum distance.
+     * unlike {@link #findGeoIntersections(Ray, double)}, composites may use every intersection they find
+     * to shorten the search for the rest
+     *
+     * @param ray         the ray to find the intersection with
+     * @param maxDistance the maximum distance to consider for intersections
+     * @return the closest geometric point of intersection, or null if there is none
+     */
+    public GeoPoint findClosestGeoIntersection(Ray ray, double maxDistance) {
+        return findClosestGeoIntersectionHelper(ray, maxDistance);
+    }
+
+    /**
+     * Finds the closest intersection of the ray with geometries up to a specified maximum distance.
+     * the default implementation runs the search on a new {@link HitRecord}, so the point of intersection
+     * is created only once for the whole search
+     *
+     * @param ray         the ray to find the intersection with
+     * @param maxDistance the maximum distance to consider for intersections
+     * @return the closest geometric point of intersection, or null if there is none
+     */
+    protected GeoPoint findClosestGeoIntersectionHelper(Ray ray, double maxDistance) {
+        HitRecord hit = new HitRecord(maxDistance);
+        return findClosestHitHelper(ray, hit) ? hit.toGeoPoint(ray) : null;
+    }
+
+    /**
+     * Finds the closest intersection of the ray that is closer than the distance in the hit record,
+     * and writes it into the record. nothing is allocated for the geometries that are tested on the way,
+     * so one record can serve a whole search, or many rays one after the other
+     *
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the closest intersection so far, its distance is the max distance of the search
+     * @return true if a closer intersection was found and recorded
+     */
+    public boolean findClosestHit(Ray ray, HitRecord hit) {
+        return findClosestHitHelper(ray, hit);
+    }
+
+    /**
+     * Finds the closest intersection of the ray that is closer than the distance in the hit record,
+     * and writes it into the record.
+     * the default implementation picks the closest of all the intersections, geometries that can calculate
+     * the distance directly should override it
+     *
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the closest intersection so far, its distance is the max distance of the search
+     * @return true if a closer intersection was found and recorded
+     */
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        GeoPoint closest = ray.findClosestGeoPoint(findGeoIntersectionsHelper(ray, hit.getDistance()));
+        if (closest == null)
+            return false;
+        hit.set(closest.geometry, Double.isNaN(closest.t) ? ray.getHead().distance(closest.point) : closest.t);
+        return true;
+    }
+
+    /**
+     * Finds how much light passes along the ray up to a specified maximum distance - the product of the
+     * transparency coefficients (kT) of all the intersected geometries. it is meant for shadow rays,
+     * so no intersection list is built and the search stops at the first fully opaque geometry.
+     *
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the distance to the light
+     * @return the transmittance along the ray, {@link Double3#ZERO} if the ray is blocked
+     */
+    public final Double3 findTransparency(Ray ray, double maxDistance) {
+        return findTransparency(ray, maxDistance, Double3.ONE);
+    }
+
+    /**
+     * Multiplies a transmittance by the transparency coefficients of the geometries along the ray
+     *
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the distance to the light
+     * @param ktr         the transmittance of the geometries that were already passed
+     * @return the transmittance along the ray, {@link Double3#ZERO} if the ray is blocked
+     */
+    public Double3 findTransparency(Ray ray, double maxDistance, Double3 ktr) {
+        return findTransparencyHelper(ray, maxDistance, ktr);
+    }
+
+    /**
+     * Multiplies a transmittance by the transparency coefficients of the geometries along the ray.
+     * the default implementation goes over all the intersections
+     *
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the distance to the light
+     * @param ktr         the transmittance of the geometries that were already passed
+     * @return the transmittance along the ray, {@link Double3#ZERO} if the ray is blocked
+     */
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        List<GeoPoint> intersections = findGeoIntersectionsHelper(ray, maxDistance);
+        if (intersections == null)
+            return ktr;
+        for (GeoPoint intersection : intersections) {
+            ktr = ktr.product(intersection.geometry.getMaterial().kT);
+            if (ktr.equals(Double3.ZERO))
+                return Double3.ZERO;
+        }
+        return ktr;
+    }
+
 }
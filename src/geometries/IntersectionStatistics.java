@@ -0,0 +1,112 @@
+package geometries;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * IntersectionStatistics counts the bounding box tests and the primitive intersection tests
+ * of all the geometries.
+ * <p>
+ * The tests are counted only while counting is enabled (by at least one user), so when nobody needs
+ * the counts the only cost of a test is a single check of the flag.
+ * The counters are cumulative - a user takes their values before and after the work it measures.
+ * Besides the global counters, every thread has its own counters of the tests it made, for measuring
+ * the work of a single ray.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public final class IntersectionStatistics {
+    /**
+     * The amount of users that enabled the counting
+     */
+    private static final AtomicInteger users = new AtomicInteger();
+    /**
+     * The amount of ray - bounding box tests
+     */
+    private static final LongAdder boxTests = new LongAdder();
+    /**
+     * The amount of ray - primitive geometry tests
+     */
+    private static final LongAdder primitiveTests = new LongAdder();
+    /**
+     * The amount of box tests and primitive tests made by every thread
+     */
+    private static final ThreadLocal<long[]> threadTests = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private IntersectionStatistics() {
+    }
+
+    /**
+     * Enables the counting of tests. Every call must be followed by a call to {@link #disable()}.
+     */
+    public static void enable() {
+        users.incrementAndGet();
+    }
+
+    /**
+     * Disables the counting of tests, unless another user still needs it.
+     */
+    public static void disable() {
+        users.decrementAndGet();
+    }
+
+    /**
+     * Get the amount of ray - bounding box tests counted so far
+     *
+     * @return the amount of tests
+     */
+    public static long getBoxTests() {
+        return boxTests.sum();
+    }
+
+    /**
+     * Get the amount of ray - primitive geometry tests counted so far
+     *
+     * @return the amount of tests
+     */
+    public static long getPrimitiveTests() {
+        return primitiveTests.sum();
+    }
+
+    /**
+     * Get the amount of ray - bounding box tests counted so far in the current thread
+     *
+     * @return the amount of tests
+     */
+    public static long getThreadBoxTests() {
+        return threadTests.get()[0];
+    }
+
+    /**
+     * Get the amount of ray - primitive geometry tests counted so far in the current thread
+     *
+     * @return the amount of tests
+     */
+    public static long getThreadPrimitiveTests() {
+        return threadTests.get()[1];
+    }
+
+    /**
+     * Counts a ray - bounding box test
+     */
+    static void countBoxTest() {
+        if (users.get() > 0) {
+            boxTests.increment();
+            threadTests.get()[0]++;
+        }
+    }
+
+    /**
+     * Counts a ray - primitive geometry test
+     */
+    static void countPrimitiveTest() {
+        if (users.get() > 0) {
+            primitiveTests.increment();
+            threadTests.get()[1]++;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package geometries;
+
+import primitives.Point;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+/**
+ * LinearBvhBuilder builds a linear bounding volume hierarchy (LBVH) in near-linear time, for scenes that
+ * are rebuilt often and can pay some traversal quality for a much faster build.
+ * <ol>
+ * <li>The center of every container ({@link BoundingBox#getBoundingBoxCenter()}) is quantized to 21 bits per axis
+ * and interleaved into a 63-bit Morton code, so containers that are close in space get close codes.</li>
+ * <li>The containers are sorted by their codes with a parallel radix sort.</li>
+ * <li>The binary radix tree of the sorted codes is built - every inner node finds its range and its split
+ * independently of the other nodes (the algorithm of Karras, 2012), so all the nodes are found in parallel.
+ * Equal codes are told apart by their index in the sorted order.</li>
+ * <li>The hierarchy is emitted bottom-up: a task climbs from every leaf, and the second task that arrives
+ * at an inner node creates it from its two children, so every node is created exactly once
+ * and only after both of its children.</li>
+ * </ol>
+ *
+ * @author Shneor and Emanuel
+ */
+final class LinearBvhBuilder {
+    /**
+     * The amount of bits of every axis in a Morton code
+     */
+    private static final int BITS_PER_AXIS = 21;
+    /**
+     * The amount of bits sorted by every pass of the radix sort
+     */
+    private static final int RADIX_BITS = 8;
+    /**
+     * The amount of buckets in every pass of the radix sort
+     */
+    private static final int RADIX = 1 << RADIX_BITS;
+    /**
+     * The minimal amount of keys handled by a single task of the radix sort
+     */
+    private static final int MIN_SORT_CHUNK = 1 << 14;
+
+    /**
+     * The containers of the hierarchy
+     */
+    private final Container[] containers;
+
+    /**
+     * Prepares a build over bounded containers
+     *
+     * @param containers the containers, all of them must have a bounding box
+     * @throws IllegalArgumentException if a container has no bounding box
+     */
+    LinearBvhBuilder(List<Container> containers) {
+        this.containers = containers.toArray(new Container[0]);
+        for (Container container : this.containers)
+            if (container.getBoundingBox() == null)
+                throw new IllegalArgumentException("every container of a hierarchy must be bounded");
+    }
+
+    /**
+     * Builds the hierarchy in the common ForkJoin pool
+     *
+     * @return the root of the hierarchy (the container itself if there is a single container)
+     * @throws IllegalArgumentException if there are no containers
+     */
+    Container build() {
+        return build(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the hierarchy
+     *
+     * @param pool the pool that runs the parallel stages of the build
+     * @return the root of the hierarchy (the container itself if there is a single container)
+     * @throws IllegalArgumentException if there are no containers
+     */
+    Container build(ForkJoinPool pool) {
+        int n = containers.length;
+        if (n == 0)
+            throw new IllegalArgumentException("there are no containers to build a hierarchy of");
+        if (n == 1)
+            return containers[0];
+        return pool.submit(() -> buildHierarchy(n)).join();
+    }
+
+    /**
+     * Runs the stages of the build (inside the pool)
+     *
+     * @param n the amount of containers
+     * @return the root of the hierarchy
+     */
+    private Container buildHierarchy(int n) {
+        long[] codes = mortonCodes();
+        int[] sorted = IntStream.range(0, n).toArray();
+        radixSort(codes, sorted);
+
+        // nodes 0..n-2 are the inner nodes (0 is the root), nodes n-1..2n-2 are the leaves in the sorted order
+        int[] left = new int[n - 1], right = new int[n - 1], parent = new int[2 * n - 1];
+        parent[0] = -1;
+        IntStream.range(0, n - 1).parallel().forEach(i -> findChildren(codes, i, left, right, parent));
+
+        Container[] nodes = new Container[2 * n - 1];
+        double[] boxes = new double[6 * (2 * n - 1)];
+        AtomicIntegerArray arrivals = new AtomicIntegerArray(n - 1);
+        IntStream.range(0, n).parallel().forEach(leaf -> {
+            int node = n - 1 + leaf;
+            nodes[node] = containers[sorted[leaf]];
+            BoundingBox box = nodes[node].getBoundingBox();
+            boxes[6 * node] = box.getMinX();
+            boxes[6 * node + 1] = box.getMinY();
+            boxes[6 * node + 2] = box.getMinZ();
+            boxes[6 * node + 3] = box.getMaxX();
+            boxes[6 * node + 4] = box.getMaxY();
+            boxes[6 * node + 5] = box.getMaxZ();
+
+            // climb while this task is the second to arrive - then both children are ready
+            for (node = parent[node]; node >= 0 && arrivals.getAndIncrement(node) == 1; node = parent[node]) {
+                int l = left[node], r = right[node];
+                for (int axis = 0; axis < 3; axis++) {
+                    boxes[6 * node + axis] = Math.min(boxes[6 * l + axis], boxes[6 * r + axis]);
+                    boxes[6 * node + 3 + axis] = Math.max(boxes[6 * l + 3 + axis], boxes[6 * r + 3 + axis]);
+                }
+                Geometries geometries = new Geometries(nodes[l], nodes[r]);
+                geometries.boundingBox = new BoundingBox(boxes[6 * node], boxes[6 * node + 3],
+                        boxes[6 * node + 1], boxes[6 * node + 4], boxes[6 * node + 2], boxes[6 * node + 5]);
+                nodes[node] = geometries;
+            }
+        });
+        return nodes[0];
+    }
+
+    /**
+     * Calculates the Morton codes of the centers of the containers, relative to the box of all the centers
+     *
+     * @return the codes
+     */
+    private long[] mortonCodes() {
+        int n = containers.length;
+        double[] centers = new double[3 * n];
+        double[] min = {Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        double[] max = {Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        for (int i = 0; i < n; i++) {
+            Point center = containers[i].getBoundingBox().getBoundingBoxCenter();
+            centers[3 * i] = center.getX();
+            centers[3 * i + 1] = center.getY();
+            centers[3 * i + 2] = center.getZ();
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], centers[3 * i + axis]);
+                max[axis] = Math.max(max[axis], centers[3 * i + axis]);
+            }
+        }
+
+        double cells = (1 << BITS_PER_AXIS) - 1;
+        double[] scale = new double[3];
+        for (int axis = 0; axis < 3; axis++)
+            scale[axis] = max[axis] > min[axis] ? cells / (max[axis] - min[axis]) : 0;
+
+        long[] codes = new long[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            long code = 0;
+            for (int axis = 0; axis < 3; axis++)
+                code = code << 1 | expandBits((long) ((centers[3 * i + axis] - min[axis]) * scale[axis]));
+            codes[i] = code;
+        });
+        return codes;
+    }
+
+    /**
+     * Spreads the lower 21 bits of a number so there are two zero bits between every two bits
+     *
+     * @param v the number
+     * @return the spread bits
+     */
+    private static long expandBits(long v) {
+        v &= 0x1fffffL;
+        v = (v | v << 32) & 0x1f00000000ffffL;
+        v = (v | v << 16) & 0x1f0000ff0000ffL;
+        v = (v | v << 8) & 0x100f00f00f00f00fL;
+        v = (v | v << 4) & 0x10c30c30c30c30c3L;
+        v = (v | v << 2) & 0x1249249249249249L;
+        return v;
+    }
+
+    /**
+     * Sorts the codes (and the indexes of their containers with them) by a parallel LSD radix sort.
+     * Every pass splits the keys into chunks, counts the digits of every chunk in parallel, and then scatters
+     * every chunk in parallel to its own offsets, so the sort stays stable. A pass in which all the keys
+     * have the same digit is skipped.
+     *
+     * @param keys   the codes
+     * @param values the indexes of the containers
+     */
+    private static void radixSort(long[] keys, int[] values) {
+        int n = keys.length;
+        int chunks = Math.max(1, Math.min(n / MIN_SORT_CHUNK, 4 * ForkJoinPool.getCommonPoolParallelism()));
+        int chunkSize = (n + chunks - 1) / chunks;
+        long[] sourceKeys = keys, targetKeys = new long[n];
+        int[] sourceValues = values, targetValues = new int[n];
+
+        for (int shift = 0; shift < 3 * BITS_PER_AXIS; shift += RADIX_BITS) {
+            final int currentShift = shift;
+            final long[] fromKeys = sourceKeys, toKeys = targetKeys;
+            final int[] fromValues = sourceValues, toValues = targetValues;
+            int[][] counts = new int[chunks][RADIX];
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                for (int i = chunk * chunkSize; i < Math.min(n, (chunk + 1) * chunkSize); i++)
+                    counts[chunk][(int) (fromKeys[i] >>> currentShift) & (RADIX - 1)]++;
+            });
+
+            // turn the counts into the offsets of every chunk, digit by digit
+            boolean singleDigit = false;
+            for (int digit = 0, offset = 0; digit < RADIX; digit++) {
+                int digitStart = offset;
+                for (int chunk = 0; chunk < chunks; chunk++) {
+                    int count = counts[chunk][digit];
+                    counts[chunk][digit] = offset;
+                    offset += count;
+                }
+                if (offset - digitStart == n)
+                    singleDigit = true;
+            }
+            if (singleDigit)
+                continue;
+
+            IntStream.range(0, chunks).parallel().forEach(chunk -> {
+                int[] offsets = counts[chunk];
+                for (int i = chunk * chunkSize; i < Math.min(n, (chunk + 1) * chunkSize); i++) {
+                    int target = offsets[(int) (fromKeys[i] >>> currentShift) & (RADIX - 1)]++;
+                    toKeys[target] = fromKeys[i];
+                    toValues[target] = fromValues[i];
+                }
+            });
+            sourceKeys = toKeys;
+            targetKeys = fromKeys;
+            sourceValues = toValues;
+            targetValues = fromValues;
+        }
+
+        if (sourceKeys != keys) {
+            System.arraycopy(sourceKeys, 0, keys, 0, n);
+            System.arraycopy(sourceValues, 0, values, 0, n);
+        }
+    }
+
+    /**
+     * Finds the children of an inner node of the radix tree of the sorted codes
+     *
+     * @param codes  the sorted codes
+     * @param i      the inner node
+     * @param left   the left children of the inner nodes
+     * @param right  the right children of the inner nodes
+     * @param parent the parents of all the nodes
+     */
+    private static void findChildren(long[] codes, int i, int[] left, int[] right, int[] parent) {
+        int n = codes.length;
+        // the direction of the range of the node
+        int d = commonPrefix(codes, i, i + 1) > commonPrefix(codes, i, i - 1) ? 1 : -1;
+
+        // find the other end of the range by an exponential and then a binary search
+        int minPrefix = commonPrefix(codes, i, i - d);
+        int maxLength = 2;
+        while (commonPrefix(codes, i, i + maxLength * d) > minPrefix)
+            maxLength *= 2;
+        int length = 0;
+        for (int step = maxLength / 2; step >= 1; step /= 2)
+            if (commonPrefix(codes, i, i + (length + step) * d) > minPrefix)
+                length += step;
+        int j = i + length * d;
+
+        // find the split - the last position that shares more than the prefix of the whole range
+        int nodePrefix = commonPrefix(codes, i, j);
+        int split = 0, step = length;
+        do {
+            step = (step + 1) >> 1;
+            if (commonPrefix(codes, i, i + (split + step) * d) > nodePrefix)
+                split += step;
+        } while (step > 1);
+        int gamma = i + split * d + Math.min(d, 0);
+
+        left[i] = Math.min(i, j) == gamma ? n - 1 + gamma : gamma;
+        right[i] = Math.max(i, j) == gamma + 1 ? n - 1 + gamma + 1 : gamma + 1;
+        parent[left[i]] = i;
+        parent[right[i]] = i;
+    }
+
+    /**
+     * Calculates the length of the common prefix of two sorted codes. Equal codes are told apart by their positions.
+     *
+     * @param codes the sorted codes
+     * @param i     the position of the first code
+     * @param j     the position of the second code
+     * @return the length of the common prefix, -1 if the second position is outside the codes
+     */
+    private static int commonPrefix(long[] codes, int i, int j) {
+        if (j < 0 || j >= codes.length)
+            return -1;
+        return codes[i] == codes[j]
+                ? Long.SIZE + Integer.numberOfLeadingZeros(i ^ j)
+                : Long.numberOfLeadingZeros(codes[i] ^ codes[j]);
+    }
+}
@@ -0,0 +1,547 @@
+package geometries;
+
+import primitives.Double3;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static primitives.Util.alignZero;
+import static primitives.Util.isZero;
+
+/**
+ * Class Mesh represents a triangle mesh - many triangles that share their vertices, their material and their emission.
+ * <p>
+ * The vertices are kept in a single packed {@code double[]} (x, y, z of vertex i at 3i..3i+2) and the faces in an
+ * {@code int[]} index buffer (the vertices of face j at 3j..3j+2), instead of a {@link Triangle} object with its own
+ * list of points and plane for every face. The normals of the faces are calculated only when they are needed.
+ * The mesh has its own bounding volume hierarchy over the faces, kept in flat arrays like in {@link FlatBvh},
+ * so a model of millions of triangles takes a few tens of bytes per triangle.
+ * </p>
+ * <p>
+ * Unlike {@link Triangle}, the edges and the vertices of the faces belong to the faces. A point on an edge
+ * or a vertex that several faces share belongs to exactly one of them (by a half-open rule, like the top-left
+ * rule of rasterization), so a ray through it neither passes through the mesh nor hits it twice.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class Mesh extends Geometry {
+    /**
+     * The max amount of faces in a leaf of the hierarchy
+     */
+    private static final int MAX_LEAF_SIZE = 4;
+
+    /**
+     * The coordinates of the vertices, 3 values per vertex
+     */
+    private final double[] vertices;
+    /**
+     * The indexes of the vertices of the faces, 3 values per face, ordered by the leaves of the hierarchy
+     */
+    private final int[] faces;
+    /**
+     * The original index of every face in the ordered faces
+     */
+    private final int[] faceIds;
+    /**
+     * The bounds of the nodes of the hierarchy
+     */
+    private final NodeBounds bounds;
+    /**
+     * The links of the nodes, 2 values per node: for an inner node the index of its right child (the left one is
+     * right after the node) and zero, for a leaf the index of its first face and the amount of its faces
+     */
+    private final int[] links;
+
+    /**
+     * Constructs a mesh and builds its hierarchy
+     *
+     * @param vertices the coordinates of the vertices, x, y and z of every vertex
+     * @param indexes  the indexes of the vertices of the faces, 3 indexes for every face
+     * @throws IllegalArgumentException if the arrays are not made of whole vertices and faces,
+     *                                  or a face refers to a vertex that doesn't exist
+     */
+    public Mesh(double[] vertices, int[] indexes) {
+        if (vertices.length % 3 != 0)
+            throw new IllegalArgumentException("every vertex must have 3 coordinates");
+        if (indexes.length == 0 || indexes.length % 3 != 0)
+            throw new IllegalArgumentException("the mesh must have at least one face, and every face 3 vertices");
+        int verticesCount = vertices.length / 3;
+        for (int index : indexes)
+            if (index < 0 || index >= verticesCount)
+                throw new IllegalArgumentException("a face refers to a vertex that doesn't exist: " + index);
+
+        this.vertices = vertices.clone();
+        int facesCount = indexes.length / 3;
+        double[] centers = new double[3 * facesCount];
+        for (int face = 0; face < facesCount; face++)
+            for (int axis = 0; axis < 3; axis++)
+                centers[3 * face + axis] = (vertices[3 * indexes[3 * face] + axis]
+                        + vertices[3 * indexes[3 * face + 1] + axis]
+                        + vertices[3 * indexes[3 * face + 2] + axis]) / 3;
+
+        faceIds = new int[facesCount];
+        for (int face = 0; face < facesCount; face++)
+            faceIds[face] = face;
+        // a binary tree with up to MAX_LEAF_SIZE faces in a leaf has less than 2 * facesCount nodes
+        int maxNodes = 2 * facesCount;
+        NodeBounds allBounds = new NodeBounds(maxNodes);
+        int[] allLinks = new int[2 * maxNodes];
+        int nodesCount = build(0, facesCount, 0, indexes, centers, allBounds, allLinks);
+        bounds = allBounds.copyOf(nodesCount);
+        links = Arrays.copyOf(allLinks, 2 * nodesCount);
+
+        faces = new int[indexes.length];
+        for (int i = 0; i < facesCount; i++)
+            System.arraycopy(indexes, 3 * faceIds[i], faces, 3 * i, 3);
+        setBoundingBox();
+    }
+
+    /**
+     * Get the amount of faces in the mesh
+     *
+     * @return the amount of faces
+     */
+    public int getFacesCount() {
+        return faceIds.length;
+    }
+
+    /**
+     * Get the coordinates of the vertices of the mesh
+     *
+     * @return a copy of the coordinates, x, y and z of every vertex
+     */
+    public double[] getVertices() {
+        return vertices.clone();
+    }
+
+    /**
+     * Get the indexes of the vertices of the faces, in the order of the faces the mesh was constructed with
+     *
+     * @return the indexes, 3 indexes for every face
+     */
+    public int[] getIndexes() {
+        int[] indexes = new int[faces.length];
+        for (int i = 0; i < faceIds.length; i++)
+            System.arraycopy(faces, 3 * i, indexes, 3 * faceIds[i], 3);
+        return indexes;
+    }
+
+    /**
+     * Builds a sub-hierarchy by splitting the faces at the median of their centers along the longest axis,
+     * the nodes are laid out depth first
+     *
+     * @param first   the position of the first face of the sub-hierarchy in the faces order
+     * @param count   the amount of faces of the sub-hierarchy
+     * @param node    the index of the root node of the sub-hierarchy
+     * @param indexes the indexes of the vertices of the faces
+     * @param centers the centers of the faces
+     * @param bounds  gets the bounds of the nodes
+     * @param links   gets the links of the nodes
+     * @return the index after the last node of the sub-hierarchy
+     */
+    private int build(int first, int count, int node, int[] indexes, double[] centers, NodeBounds bounds,
+                      int[] links) {
+        double[] box = {
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double[] centersBox = box.clone();
+        for (int i = first; i < first + count; i++) {
+            int face = faceIds[i];
+            for (int axis = 0; axis < 3; axis++) {
+                for (int k = 0; k < 3; k++) {
+                    double coordinate = vertices[3 * indexes[3 * face + k] + axis];
+                    box[axis] = min(box[axis], coordinate);
+                    box[3 + axis] = max(box[3 + axis], coordinate);
+                }
+                centersBox[axis] = min(centersBox[axis], centers[3 * face + axis]);
+                centersBox[3 + axis] = max(centersBox[3 + axis], centers[3 * face + axis]);
+            }
+        }
+        bounds.set(node, box[0], box[1], box[2], box[3], box[4], box[5]);
+
+        if (count <= MAX_LEAF_SIZE) {
+            links[2 * node] = first;
+            links[2 * node + 1] = count;
+            return node + 1;
+        }
+
+        int axis = 0;
+        for (int i = 1; i < 3; i++)
+            if (centersBox[3 + i] - centersBox[i] > centersBox[3 + axis] - centersBox[axis])
+                axis = i;
+        int half = count / 2;
+        select(first, first + count - 1, first + half, axis, centers);
+
+        int right = build(first, half, node + 1, indexes, centers, bounds, links);
+        links[2 * node] = right;
+        links[2 * node + 1] = 0;
+        return build(first + half, count - half, right, indexes, centers, bounds, links);
+    }
+
+    /**
+     * Reorders a range of the faces so the face at a given position is the one that would be there if the range
+     * was sorted by the centers along an axis, the faces before it are not greater and the faces after it
+     * are not smaller (quickselect)
+     *
+     * @param low     the first position of the range
+     * @param high    the last position of the range (inclusive)
+     * @param nth     the position to select
+     * @param axis    the axis of the centers to compare
+     * @param centers the centers of the faces
+     */
+    private void select(int low, int high, int nth, int axis, double[] centers) {
+        while (low < high) {
+            double pivot = centers[3 * faceIds[(low + high) >>> 1] + axis];
+            int i = low, j = high;
+            while (i <= j) {
+                while (centers[3 * faceIds[i] + axis] < pivot) i++;
+                while (centers[3 * faceIds[j] + axis] > pivot) j--;
+                if (i <= j) {
+                    int swap = faceIds[i];
+                    faceIds[i++] = faceIds[j];
+                    faceIds[j--] = swap;
+                }
+            }
+            if (nth <= j) high = j;
+            else if (nth >= i) low = i;
+            else return;
+        }
+    }
+
+    @Override
+    final void setBoundingBox() {
+        boundingBox = bounds.box(0);
+    }
+
+    /**
+     * A mesh counts the test of every face it tests, not a single test for the whole mesh
+     *
+     * @return false
+     */
+    @Override
+    boolean isPrimitive() {
+        return false;
+    }
+
+    /**
+     * Calculates the normal of a face, by the order of its vertices like in {@link Plane#Plane(Point, Point, Point)}
+     *
+     * @param position the position of the face in the ordered faces
+     * @return the normal of the face
+     */
+    private Vector faceNormal(int position) {
+        int a = 3 * faces[3 * position], b = 3 * faces[3 * position + 1], c = 3 * faces[3 * position + 2];
+        double e1x = vertices[b] - vertices[a], e1y = vertices[b + 1] - vertices[a + 1];
+        double e1z = vertices[b + 2] - vertices[a + 2];
+        double e2x = vertices[c] - vertices[a], e2y = vertices[c + 1] - vertices[a + 1];
+        double e2z = vertices[c + 2] - vertices[a + 2];
+        // (a - c) x (a - b), the same as e2 x e1
+        return new Vector(e2y * e1z - e2z * e1y, e2z * e1x - e2x * e1z, e2x * e1y - e2y * e1x).normalize();
+    }
+
+    /**
+     * Calculates the normal at a point of the mesh. The face of the point is searched among all the faces,
+     * so the normal of an intersection should rather be taken from its {@link FacePoint}.
+     *
+     * @param point the point on the surface of the mesh
+     * @return the normal of the face of the point
+     * @throws IllegalArgumentException if the point is not on the mesh
+     */
+    @Override
+    public Vector getNormal(Point point) {
+        for (int position = 0; position < faceIds.length; position++) {
+            int a = 3 * faces[3 * position];
+            Vector normal = faceNormal(position);
+            double distance = normal.getX() * (point.getX() - vertices[a])
+                    + normal.getY() * (point.getY() - vertices[a + 1])
+                    + normal.getZ() * (point.getZ() - vertices[a + 2]);
+            // a point on the plane of the face is on the face if a ray towards it from above hits the face
+            if (isZero(distance) && intersect(position, point.add(normal), normal.scale(-1), 2, true)
+                    != Double.POSITIVE_INFINITY)
+                return normal;
+        }
+        throw new IllegalArgumentException("the point is not on the mesh");
+    }
+
+    /**
+     * Intersects a ray with a face by the Möller–Trumbore algorithm.
+     * A point on an edge of the face is on the face only if the face owns the edge (see {@link #ownsEdge}),
+     * unless the edges are closed.
+     *
+     * @param position    the position of the face in the ordered faces
+     * @param head        the head of the ray
+     * @param direction   the direction of the ray
+     * @param maxDistance the max distance of the intersection
+     * @param closed      true if all the edges of the face belong to it
+     * @return the distance of the intersection, or positive infinity if there is none
+     */
+    private double intersect(int position, Point head, Vector direction, double maxDistance, boolean closed) {
+        IntersectionStatistics.countPrimitiveTest();
+        int ia = faces[3 * position], ib = faces[3 * position + 1], ic = faces[3 * position + 2];
+        int a = 3 * ia, b = 3 * ib, c = 3 * ic;
+        double ax = vertices[a], ay = vertices[a + 1], az = vertices[a + 2];
+        double e1x = vertices[b] - ax, e1y = vertices[b + 1] - ay, e1z = vertices[b + 2] - az;
+        double e2x = vertices[c] - ax, e2y = vertices[c + 1] - ay, e2z = vertices[c + 2] - az;
+        double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+
+        // p = d x e2
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double det = e1x * px + e1y * py + e1z * pz;
+        if (isZero(det))
+            return Double.POSITIVE_INFINITY; // the ray is parallel to the face
+        double inverse = 1 / det;
+
+        // the barycentric coordinates of the point are u (of b), v (of c) and 1 - u - v (of a),
+        // a coordinate that is almost zero puts the point on the edge in front of its vertex
+        double sx = head.getX() - ax, sy = head.getY() - ay, sz = head.getZ() - az;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inverse);
+        if (u < 0 || alignZero(u - 1) > 0)
+            return Double.POSITIVE_INFINITY;
+
+        // q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inverse);
+        double w = alignZero(1 - u - v);
+        if (v < 0 || w < 0)
+            return Double.POSITIVE_INFINITY;
+        if (!closed && (u == 0 && !ownsEdge(ia, ic, ib, direction) || v == 0 && !ownsEdge(ia, ib, ic, direction)
+                || w == 0 && !ownsEdge(ib, ic, ia, direction)))
+            return Double.POSITIVE_INFINITY;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        return t <= 0 || alignZero(t - maxDistance) >= 0 ? Double.POSITIVE_INFINITY : t;
+    }
+
+    /**
+     * Checks whether a face owns one of its edges, for a ray through the edge.
+     * As seen along the ray, the faces that share an edge lie on its two sides. The vector (edge x direction),
+     * with the edge directed from the vertex with the lower index, is turned so its first non-zero coordinate
+     * is positive, and the edge belongs to the face on the side it points to. The vector is calculated from the same
+     * vertices by all these faces, so exactly one of them owns the edge, and at a vertex shared by a fan of faces
+     * exactly one face owns both the edges that meet there.
+     *
+     * @param from      the index of a vertex of the edge
+     * @param to        the index of the other vertex of the edge
+     * @param opposite  the index of the vertex of the face that is not on the edge
+     * @param direction the direction of the ray
+     * @return true if the face owns the edge
+     */
+    private boolean ownsEdge(int from, int to, int opposite, Vector direction) {
+        int p = 3 * min(from, to), q = 3 * max(from, to), o = 3 * opposite;
+        double ex = vertices[q] - vertices[p], ey = vertices[q + 1] - vertices[p + 1];
+        double ez = vertices[q + 2] - vertices[p + 2];
+        double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+        // n = e x d, it is perpendicular to the edge as seen along the ray
+        double nx = ey * dz - ez * dy, ny = ez * dx - ex * dz, nz = ex * dy - ey * dx;
+        double side = nx * (vertices[o] - vertices[p]) + ny * (vertices[o + 1] - vertices[p + 1])
+                + nz * (vertices[o + 2] - vertices[p + 2]);
+        double sign = nx != 0 ? nx : ny != 0 ? ny : nz;
+        return side * sign > 0;
+    }
+
+    @Override
+    protected List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double x = alignZero(head.getX()), y = alignZero(head.getY()), z = alignZero(head.getZ());
+        double dx = alignZero(direction.getX()), dy = alignZero(direction.getY()), dz = alignZero(direction.getZ());
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        List<GeoPoint> res = null;
+        TraversalStack traversal = TraversalStack.open();
+        try {
+            int[] stack = traversal.nodes;
+            int top = 0;
+            stack[top++] = 0;
+            while (top > 0) {
+                int node = stack[--top];
+                if (bounds.entry(node, x, y, z, dx, dy, dz, invX, invY, invZ, maxDistance)
+                        == Double.POSITIVE_INFINITY)
+                    continue;
+
+                int first = links[2 * node], count = links[2 * node + 1];
+                if (count == 0) {
+                    traversal.ensureCapacity(top + 2);
+                    stack = traversal.nodes;
+                    stack[top++] = first;
+                    stack[top++] = node + 1;
+                    continue;
+                }
+                for (int position = first; position < first + count; position++) {
+                    double t = intersect(position, head, direction, maxDistance, false);
+                    if (t != Double.POSITIVE_INFINITY) {
+                        if (res == null)
+                            res = new LinkedList<>();
+                        res.add(new FacePoint(this, ray.getPoint(t), t, faceIds[position], position));
+                    }
+                }
+            }
+            return res;
+        } finally {
+            traversal.close();
+        }
+    }
+
+    /**
+     * Finds the closest intersection by visiting the nodes front to back, like in {@link FlatBvh}.
+     * The position of the face is recorded as the part of the mesh that was hit.
+     *
+     * @param ray the ray to find the intersection with
+     * @param hit the record of the closest intersection so far
+     * @return true if a closer intersection was found and recorded
+     */
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        return closestFace(ray, hit.getDistance(), hit);
+    }
+
+    @Override
+    GeoPoint createGeoPoint(Point point, double t, int part) {
+        return new FacePoint(this, point, t, faceIds[part], part);
+    }
+
+    /**
+     * A mesh blocks a ray completely when its material is opaque, so then the search stops at the first face hit.
+     * Otherwise every face hit multiplies the transmittance by the transparency of the material.
+     *
+     * @param ray         the ray from the lit point towards the light
+     * @param maxDistance the distance to the light
+     * @param ktr         the transmittance of the geometries that were already passed
+     * @return the transmittance along the ray, {@link Double3#ZERO} if the ray is blocked
+     */
+    @Override
+    protected Double3 findTransparencyHelper(Ray ray, double maxDistance, Double3 ktr) {
+        Double3 kT = getMaterial().kT;
+        if (kT.equals(Double3.ZERO))
+            return closestFace(ray, maxDistance, null) ? Double3.ZERO : ktr;
+        return super.findTransparencyHelper(ray, maxDistance, ktr);
+    }
+
+    /**
+     * Traverses the hierarchy front to back and records the closest face hit by a ray
+     *
+     * @param ray         the ray
+     * @param maxDistance the max distance of the intersection
+     * @param hit         the record of the closest intersection so far, gets the position of the face as the part,
+     *                    null to stop at the first face hit, even if it is not the closest
+     * @return true if a face was hit closer than the max distance
+     */
+    private boolean closestFace(Ray ray, double maxDistance, HitRecord hit) {
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double x = alignZero(head.getX()), y = alignZero(head.getY()), z = alignZero(head.getZ());
+        double dx = alignZero(direction.getX()), dy = alignZero(direction.getY()), dz = alignZero(direction.getZ());
+        double invX = 1 / dx, invY = 1 / dy, invZ = 1 / dz;
+
+        double rootEntry = bounds.entry(0, x, y, z, dx, dy, dz, invX, invY, invZ, maxDistance);
+        if (rootEntry == Double.POSITIVE_INFINITY)
+            return false;
+        boolean found = false;
+        TraversalStack traversal = TraversalStack.open();
+        try {
+            int[] stack = traversal.nodes;
+            double[] entries = traversal.entries;
+            int top = 0;
+            stack[0] = 0;
+            entries[top++] = rootEntry;
+            while (top > 0) {
+                int node = stack[--top];
+                if (entries[top] >= maxDistance)
+                    continue;
+
+                int first = links[2 * node], count = links[2 * node + 1];
+                if (count > 0) {
+                    for (int position = first; position < first + count; position++) {
+                        double t = intersect(position, head, direction, maxDistance, false);
+                        if (t != Double.POSITIVE_INFINITY) {
+                            if (hit == null)
+                                return true;
+                            hit.set(this, t, position);
+                            maxDistance = t;
+                            found = true;
+                        }
+                    }
+                    continue;
+                }
+
+                int left = node + 1;
+                double leftEntry = bounds.entry(left, x, y, z, dx, dy, dz, invX, invY, invZ, maxDistance);
+                double rightEntry = bounds.entry(first, x, y, z, dx, dy, dz, invX, invY, invZ, maxDistance);
+                traversal.ensureCapacity(top + 2);
+                stack = traversal.nodes;
+                entries = traversal.entries;
+                // the nearer child is pushed last, so it is popped first
+                boolean leftFirst = leftEntry <= rightEntry;
+                top = push(stack, entries, top, leftFirst ? first : left, leftFirst ? rightEntry : leftEntry);
+                top = push(stack, entries, top, leftFirst ? left : first, leftFirst ? leftEntry : rightEntry);
+            }
+            return found;
+        } finally {
+            traversal.close();
+        }
+    }
+
+    /**
+     * Pushes a node into the traversal stack, if the ray hits its box
+     *
+     * @param stack   the stack of nodes
+     * @param entries the entry distances of the nodes in the stack
+     * @param top     the size of the stack
+     * @param node    the node
+     * @param entry   the entry distance of the node
+     * @return the new size of the stack
+     */
+    private static int push(int[] stack, double[] entries, int top, int node, double entry) {
+        if (entry == Double.POSITIVE_INFINITY)
+            return top;
+        stack[top] = node;
+        entries[top] = entry;
+        return top + 1;
+    }
+
+    /**
+     * FacePoint is an intersection with a mesh, that knows the face it is on
+     */
+    public static class FacePoint extends GeoPoint {
+        /**
+         * The index of the face in the index buffer that the mesh was constructed with
+         */
+        public final int face;
+        /**
+         * The position of the face in the ordered faces of the mesh
+         */
+        private final int position;
+
+        /**
+         * Constructs an intersection with a face of a mesh
+         *
+         * @param mesh     the mesh
+         * @param point    the point of intersection
+         * @param t        the distance of the point from the head of the ray
+         * @param face     the index of the face
+         * @param position the position of the face in the ordered faces of the mesh
+         */
+        private FacePoint(Mesh mesh, Point point, double t, int face, int position) {
+            super(mesh, point, t);
+            this.face = face;
+            this.position = position;
+        }
+
+        /**
+         * Calculates the normal of the face of the point, without searching for the face
+         *
+         * @return the normal of the face
+         */
+        @Override
+        protected Vector calcNormal() {
+            return ((Mesh) geometry).faceNormal(position);
+        }
+    }
+}
@@ -55,6 +55,15 @@ public class Plane extends Geometry {
         return normal;
     }
 
+    /**
+     * get the point of the plane
+     *
+     * @return the point
+     */
+    public Point getQ() {
+        return q;
+    }
+
     /**
      * get the normal of the plane
      *
@@ -66,18 +75,43 @@ public class Plane extends Geometry {
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+        double t = intersect(ray, maxDistance);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
+
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double t = intersect(ray, hit.getDistance());
+        if (t == Double.POSITIVE_INFINITY)
+            return false;
+        hit.set(this, t);
+        return true;
+    }
+
+    /**
+     * Calculates the distance of the intersection of a ray with the plane, without allocating vectors
+     *
+     * @param ray         the ray to find the intersection with
+     * @param maxDistance the maximum distance to consider for the intersection
+     * @return the distance of the intersection from the head of the ray, or infinity if there is none
+     */
+    double intersect(Ray ray, double maxDistance) {
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
         //Check if the Q-P0 is the ZERO Vector
-        if (q.equals(ray.getHead()))
-            return null;
+        if (q.equals(head))
+            return Double.POSITIVE_INFINITY;
+        double nx = normal.getX(), ny = normal.getY(), nz = normal.getZ();
+        double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
         //Check if the ray is parallel to the plane
-        if (isZero(normal.dotProduct(ray.getDirection())))
-            return null;
+        double nd = nx * dx + ny * dy + nz * dz;
+        if (isZero(nd))
+            return Double.POSITIVE_INFINITY;
         //Calculate the Scalar t that will give us the point of Intersection with the plane
-        double t = normal.dotProduct(q.subtract(ray.getHead())) / normal.dotProduct(ray.getDirection());
-        if (t <= 0 || isZero(ray,t)||alignZero(t-maxDistance)>=0)
-            return null;
-
-        return List.of(new GeoPoint(this,ray.getPoint(t)));
+        double t = ((q.getX() - head.getX()) * nx + (q.getY() - head.getY()) * ny + (q.getZ() - head.getZ()) * nz) / nd;
+        if (t <= 0 || isZero(dx * t) && isZero(dy * t) && isZero(dz * t) || alignZero(t - maxDistance) >= 0)
+            return Double.POSITIVE_INFINITY;
+        return t;
     }
 
     @Override
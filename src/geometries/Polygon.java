@@ -1,6 +1,5 @@
 package geometries;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import static primitives.Util.isZero;
@@ -100,6 +99,16 @@ public class Polygon extends Geometry {
     public Polygon(List<Point> vertices) {
         this(vertices.toArray(new Point[0]));
     }
+
+    /**
+     * get the vertices of the polygon
+     *
+     * @return the vertices, in their order by the edge path
+     */
+    public List<Point> getVertices() {
+        return vertices;
+    }
+
     @Override
     public Vector getNormal(Point point) {
         return plane.getNormal();
@@ -108,48 +117,58 @@ public class Polygon extends Geometry {
 
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        // Finds intersections between the ray and the plane containing this polygon.
-        var list = plane.findIntersections(ray,maxDistance);
-        if (list==null)
-            return null;
-        // Calculates the vectors from the ray's head to each vertex of the polygon.
-        List<Vector> vs = new ArrayList<>(size);
-        for (Point vertex : vertices) {
-            vs.add(vertex.subtract(ray.getHead()));
-        }
-        // Initializes a list to store the calculated 't' values for each edge.
-        List<Double> ts = new ArrayList<>(size);
-
-        // Calculates the cross products of consecutive edges to get the normal vectors of each polygon edge.
-        List<Vector> ns = new ArrayList<>(size);
-        for (int i = 0; i < size; ++i) {
-            ns.add(vs.get(i).crossProduct(vs.get((i + 1) % size)));
-        }
+        double t = intersect(ray, maxDistance);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
+    }
 
-        // Calculates the 't' values by taking the dot product of each normal vector and the ray direction.
-        for (Vector n : ns) {
-            ts.add(n.dotProduct(ray.getDirection()));
-        }
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double t = intersect(ray, hit.getDistance());
+        if (t == Double.POSITIVE_INFINITY)
+            return false;
+        hit.set(this, t);
+        return true;
+    }
 
-        // Determines the direction of the first 't' value and assigns a flag accordingly.
-        int flag;
-        if (isZero(ts.getFirst()))
-            return null;
-        else if (ts.getFirst() > 0)
-            flag = 1;
-        else
-            flag = -1;
-
-        // Checks if there are any invalid 't' values that violate the direction determined by the first 't' value.
-        for (Double t : ts) {
-            if (isZero(t))
-                return null;
-            if ((t > 0 && flag == -1) || (t < 0 && flag == 1))
-                return null;
+    /**
+     * Calculates the distance of the intersection of a ray with the polygon, without allocating vectors.
+     * The ray hits the polygon if it hits its plane, and the products of the ray direction with the normals of
+     * the sides of the pyramid from the head of the ray to the polygon all have the same sign.
+     *
+     * @param ray         the ray to find the intersection with
+     * @param maxDistance the maximum distance to consider for the intersection
+     * @return the distance of the intersection from the head of the ray, or infinity if there is none
+     */
+    private double intersect(Ray ray, double maxDistance) {
+        // Finds the intersection between the ray and the plane containing this polygon.
+        double t = plane.intersect(ray, maxDistance);
+        if (t == Double.POSITIVE_INFINITY)
+            return t;
+
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double hx = head.getX(), hy = head.getY(), hz = head.getZ();
+        double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+        Point last = vertices.get(size - 1);
+        // the vector from the ray's head to the previous vertex
+        double px = last.getX() - hx, py = last.getY() - hy, pz = last.getZ() - hz;
+        boolean positive = false;
+        for (int i = 0; i < size; ++i) {
+            Point vertex = vertices.get(i);
+            double vx = vertex.getX() - hx, vy = vertex.getY() - hy, vz = vertex.getZ() - hz;
+            // the product of the ray direction with the normal of the side (previous vertex x vertex)
+            double side = (py * vz - vy * pz) * dx + (pz * vx - vz * px) * dy + (px * vy - vx * py) * dz;
+            if (isZero(side))
+                return Double.POSITIVE_INFINITY;
+            if (i == 0)
+                positive = side > 0;
+            else if (positive != side > 0)
+                return Double.POSITIVE_INFINITY;
+            px = vx;
+            py = vy;
+            pz = vz;
         }
-
-        // Returns the list of intersection points.
-        return List.of(new GeoPoint(this, list.getFirst()));
+        return t;
     }
 
     @Override
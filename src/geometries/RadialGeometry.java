@@ -16,7 +16,7 @@ abstract public class RadialGeometry extends Geometry {
      *
      * @return the radius
      */
-    double getRadius(){return radius;}
+    public double getRadius(){return radius;}
 
     /**
      * construct a Radial Geometry with a certain radius
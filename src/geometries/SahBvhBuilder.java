@@ -0,0 +1,371 @@
+package geometries;
+
+import java.io.Serial;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * SahBvhBuilder builds a binary bounding volume hierarchy top-down, using the binned Surface Area Heuristic (SAH).
+ * <p>
+ * Every node is split along the axis in which the centers of its containers are spread the most.
+ * The centers are sorted into {@value #BINS} equal bins along that axis, and of the {@value #BINS}-1 possible
+ * splits between bins the one with the lowest SAH cost is chosen - the cost of a split is the sum of
+ * the surface area of each side multiplied by the amount of containers in it.
+ * A node with a few containers becomes a leaf when splitting it isn't cheaper than testing all of them.
+ * </p>
+ * <p>
+ * Every level of the tree is handled in linear time, so the whole build takes O(n log n),
+ * unlike the agglomerative build of {@link Geometries#buildBinaryBvhTree(boolean)} that compares all the pairs.
+ * The boxes and the centers are kept in flat arrays, and the containers are partitioned in place.
+ * </p>
+ * <p>
+ * The two sides of a split are disjoint ranges of the containers, so they are built in parallel:
+ * every node with at least {@value #PARALLEL_THRESHOLD} containers builds one of its children
+ * in a separate ForkJoin task.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+final class SahBvhBuilder {
+    /**
+     * The amount of bins along the split axis
+     */
+    static final int BINS = 16;
+    /**
+     * The maximal amount of containers in a leaf
+     */
+    static final int MAX_LEAF_SIZE = 4;
+    /**
+     * The cost of visiting a node, relative to the cost of intersecting a container
+     */
+    private static final double TRAVERSAL_COST = 1;
+    /**
+     * The minimal amount of containers in a node for building its children in parallel
+     */
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    /**
+     * The containers of the hierarchy
+     */
+    private final Container[] containers;
+    /**
+     * The bounding boxes of the containers, 6 values per container: min x, y, z and max x, y, z
+     */
+    private final double[] bounds;
+    /**
+     * The centers of the bounding boxes of the containers, 3 values per container
+     */
+    private final double[] centers;
+    /**
+     * The indexes of the containers, partitioned by the build so every node has a contiguous range
+     */
+    private final int[] order;
+
+    /**
+     * Prepares a build over bounded containers
+     *
+     * @param containers the containers, all of them must have a bounding box
+     * @throws IllegalArgumentException if a container has no bounding box
+     */
+    SahBvhBuilder(List<Container> containers) {
+        int n = containers.size();
+        this.containers = containers.toArray(new Container[0]);
+        bounds = new double[6 * n];
+        centers = new double[3 * n];
+        order = new int[n];
+        for (int i = 0; i < n; i++) {
+            BoundingBox box = this.containers[i].getBoundingBox();
+            if (box == null)
+                throw new IllegalArgumentException("every container of a hierarchy must be bounded");
+            bounds[6 * i] = box.getMinX();
+            bounds[6 * i + 1] = box.getMinY();
+            bounds[6 * i + 2] = box.getMinZ();
+            bounds[6 * i + 3] = box.getMaxX();
+            bounds[6 * i + 4] = box.getMaxY();
+            bounds[6 * i + 5] = box.getMaxZ();
+            for (int axis = 0; axis < 3; axis++)
+                centers[3 * i + axis] = (bounds[6 * i + axis] + bounds[6 * i + 3 + axis]) / 2;
+            order[i] = i;
+        }
+    }
+
+    /**
+     * Builds the hierarchy in the common ForkJoin pool
+     *
+     * @return the root of the hierarchy (the container itself if there is a single container)
+     * @throws IllegalArgumentException if there are no containers
+     */
+    Container build() {
+        return build(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Builds the hierarchy
+     *
+     * @param pool the pool that builds the big nodes in parallel
+     * @return the root of the hierarchy (the container itself if there is a single container)
+     * @throws IllegalArgumentException if there are no containers
+     */
+    Container build(ForkJoinPool pool) {
+        if (containers.length == 0)
+            throw new IllegalArgumentException("there are no containers to build a hierarchy of");
+        return containers.length < PARALLEL_THRESHOLD
+                ? build(0, containers.length)
+                : pool.invoke(new BuildTask(0, containers.length));
+    }
+
+    /**
+     * Builds the node of a range of containers
+     *
+     * @param from the first index of the range in {@link #order} (inclusive)
+     * @param to   the last index of the range in {@link #order} (exclusive)
+     * @return the node
+     */
+    private Container build(int from, int to) {
+        int count = to - from;
+        if (count == 1)
+            return containers[order[from]];
+
+        // the box of the node and the box of the centers of its containers
+        double[] box = emptyBox(), centerBox = emptyBox();
+        for (int i = from; i < to; i++) {
+            int index = order[i];
+            for (int axis = 0; axis < 3; axis++) {
+                box[axis] = Math.min(box[axis], bounds[6 * index + axis]);
+                box[axis + 3] = Math.max(box[axis + 3], bounds[6 * index + 3 + axis]);
+                centerBox[axis] = Math.min(centerBox[axis], centers[3 * index + axis]);
+                centerBox[axis + 3] = Math.max(centerBox[axis + 3], centers[3 * index + axis]);
+            }
+        }
+
+        int axis = 0;
+        for (int i = 1; i < 3; i++)
+            if (centerBox[i + 3] - centerBox[i] > centerBox[axis + 3] - centerBox[axis])
+                axis = i;
+        double min = centerBox[axis], extent = centerBox[axis + 3] - min;
+
+        int middle = -1;
+        if (extent > 0) {
+            int split = bestSplit(from, to, axis, min, extent, area(box));
+            if (split > 0)
+                middle = partition(from, to, axis, min, extent, split);
+            else if (count <= MAX_LEAF_SIZE)
+                return leaf(from, to, box);
+        } else if (count <= MAX_LEAF_SIZE)
+            return leaf(from, to, box);
+
+        // all the centers are in one place (or in one bin) - split the range in the middle
+        if (middle <= from || middle >= to)
+            middle = from + count / 2;
+        if (count < PARALLEL_THRESHOLD)
+            return node(box, build(from, middle), build(middle, to));
+
+        BuildTask left = new BuildTask(from, middle);
+        left.fork();
+        Container right = build(middle, to);
+        return node(box, left.join(), right);
+    }
+
+    /**
+     * A ForkJoin task that builds the node of a range of containers
+     */
+    private class BuildTask extends RecursiveTask<Container> {
+        @Serial
+        private static final long serialVersionUID = 1L;
+        private final int from, to;
+
+        /**
+         * Constructs a task for building the node of a range of containers
+         *
+         * @param from the first index of the range in {@link #order} (inclusive)
+         * @param to   the last index of the range in {@link #order} (exclusive)
+         */
+        BuildTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Container compute() {
+            return build(from, to);
+        }
+    }
+
+    /**
+     * Finds the cheapest split of a range of containers between the bins along an axis
+     *
+     * @param from   the first index of the range (inclusive)
+     * @param to     the last index of the range (exclusive)
+     * @param axis   the split axis
+     * @param min    the minimal center along the axis
+     * @param extent the extent of the centers along the axis
+     * @param area   the surface area of the box of the range
+     * @return the first bin of the right side of the best split,
+     * 0 if no split is cheaper than a leaf (or there are too many containers for a leaf and no valid split)
+     */
+    private int bestSplit(int from, int to, int axis, double min, double extent, double area) {
+        int[] counts = new int[BINS];
+        double[][] binBoxes = new double[BINS][];
+        for (int i = 0; i < BINS; i++)
+            binBoxes[i] = emptyBox();
+        for (int i = from; i < to; i++) {
+            int index = order[i], bin = bin(index, axis, min, extent);
+            counts[bin]++;
+            grow(binBoxes[bin], index);
+        }
+
+        // sweep from the right to know the area and the count of every right side
+        double[] rightAreas = new double[BINS];
+        int[] rightCounts = new int[BINS];
+        double[] sweep = emptyBox();
+        for (int bin = BINS - 1, total = 0; bin > 0; bin--) {
+            merge(sweep, binBoxes[bin]);
+            total += counts[bin];
+            rightCounts[bin] = total;
+            rightAreas[bin] = total == 0 ? 0 : area(sweep);
+        }
+
+        int best = 0;
+        double bestCost = to - from <= MAX_LEAF_SIZE ? to - from : Double.POSITIVE_INFINITY;
+        sweep = emptyBox();
+        for (int bin = 1, leftCount = 0; bin < BINS; bin++) {
+            merge(sweep, binBoxes[bin - 1]);
+            leftCount += counts[bin - 1];
+            if (leftCount == 0 || rightCounts[bin] == 0)
+                continue;
+            double cost = TRAVERSAL_COST + (area(sweep) * leftCount + rightAreas[bin] * rightCounts[bin]) / area;
+            if (cost < bestCost) {
+                bestCost = cost;
+                best = bin;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Partitions a range of containers in place - the containers in the bins before the split come first
+     *
+     * @param from   the first index of the range (inclusive)
+     * @param to     the last index of the range (exclusive)
+     * @param axis   the split axis
+     * @param min    the minimal center along the axis
+     * @param extent the extent of the centers along the axis
+     * @param split  the first bin of the right side
+     * @return the first index of the right side
+     */
+    private int partition(int from, int to, int axis, double min, double extent, int split) {
+        int left = from, right = to - 1;
+        while (left <= right) {
+            if (bin(order[left], axis, min, extent) < split)
+                left++;
+            else {
+                int temp = order[left];
+                order[left] = order[right];
+                order[right--] = temp;
+            }
+        }
+        return left;
+    }
+
+    /**
+     * Calculates the bin of a container
+     *
+     * @param index  the index of the container
+     * @param axis   the split axis
+     * @param min    the minimal center along the axis
+     * @param extent the extent of the centers along the axis
+     * @return the bin
+     */
+    private int bin(int index, int axis, double min, double extent) {
+        return Math.min(BINS - 1, (int) (BINS * (centers[3 * index + axis] - min) / extent));
+    }
+
+    /**
+     * Creates a leaf of a range of containers
+     *
+     * @param from the first index of the range (inclusive)
+     * @param to   the last index of the range (exclusive)
+     * @param box  the box of the range
+     * @return the leaf
+     */
+    private Container leaf(int from, int to, double[] box) {
+        Geometries leaf = new Geometries();
+        for (int i = from; i < to; i++)
+            leaf.add(containers[order[i]]);
+        leaf.boundingBox = toBoundingBox(box);
+        return leaf;
+    }
+
+    /**
+     * Creates an inner node of the hierarchy
+     *
+     * @param box   the box of the node
+     * @param left  the left child
+     * @param right the right child
+     * @return the node
+     */
+    private static Container node(double[] box, Container left, Container right) {
+        Geometries node = new Geometries(left, right);
+        node.boundingBox = toBoundingBox(box);
+        return node;
+    }
+
+    /**
+     * Creates an empty box, that grows by any box merged into it
+     *
+     * @return the box (min x, y, z and max x, y, z)
+     */
+    private static double[] emptyBox() {
+        return new double[]{
+                Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY,
+                Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+    }
+
+    /**
+     * Grows a box to contain the box of a container
+     *
+     * @param box   the box
+     * @param index the index of the container
+     */
+    private void grow(double[] box, int index) {
+        for (int axis = 0; axis < 3; axis++) {
+            box[axis] = Math.min(box[axis], bounds[6 * index + axis]);
+            box[axis + 3] = Math.max(box[axis + 3], bounds[6 * index + 3 + axis]);
+        }
+    }
+
+    /**
+     * Grows a box to contain another box
+     *
+     * @param box   the box
+     * @param other the other box
+     */
+    private static void merge(double[] box, double[] other) {
+        for (int axis = 0; axis < 3; axis++) {
+            box[axis] = Math.min(box[axis], other[axis]);
+            box[axis + 3] = Math.max(box[axis + 3], other[axis + 3]);
+        }
+    }
+
+    /**
+     * Calculates the half of the surface area of a box (the SAH needs only the ratios of the areas)
+     *
+     * @param box the box
+     * @return the half surface area, 0 for an empty box
+     */
+    private static double area(double[] box) {
+        double dx = box[3] - box[0], dy = box[4] - box[1], dz = box[5] - box[2];
+        return dx < 0 ? 0 : dx * dy + dy * dz + dz * dx;
+    }
+
+    /**
+     * Converts a box to a bounding box
+     *
+     * @param box the box (min x, y, z and max x, y, z)
+     * @return the bounding box
+     */
+    private static BoundingBox toBoundingBox(double[] box) {
+        return new BoundingBox(box[0], box[3], box[1], box[4], box[2], box[5]);
+    }
+}
@@ -58,7 +58,7 @@ public class Sphere extends RadialGeometry {
         // If the ray's head coincides with the center of the sphere,
         // then the intersection point is at a distance of the radius.
         if ( getCenter().equals(ray.getHead())) {
-            return List.of(new GeoPoint(this, ray.getPoint(getRadius())));
+            return List.of(new GeoPoint(this, ray.getPoint(getRadius()), getRadius()));
         }
 
         Vector u =  getCenter().subtract(ray.getHead());
@@ -79,21 +79,51 @@ public class Sphere extends RadialGeometry {
             return null;
         }
         if ((tm - th < 0 || isZero(ray, tm - th)) && alignZero(tm + th - maxDistance) < 0) {
-            return List.of(new GeoPoint(this, ray.getPoint(tm + th)));
+            return List.of(new GeoPoint(this, ray.getPoint(tm + th), tm + th));
         }
         if ((tm - th < 0 || isZero(ray, tm - th))) {//tm+th-maxDistance>=0
             return null;
         }
         //from here tm-th>0
         if (alignZero(tm + th - maxDistance) < 0) {
-            return List.of(new GeoPoint(this, ray.getPoint(tm - th)), new GeoPoint(this, ray.getPoint(tm + th)));
+            return List.of(new GeoPoint(this, ray.getPoint(tm - th), tm - th), new GeoPoint(this, ray.getPoint(tm + th), tm + th));
         }
         if (alignZero(tm - th - maxDistance) < 0) {//tm+th>=maxDistance
-            return List.of(new GeoPoint(this, ray.getPoint(tm - th)));
+            return List.of(new GeoPoint(this, ray.getPoint(tm - th), tm - th));
         }
         //tm+th>=maxDistance,tm-th>=maxDistance
         return null;
     }
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double radius = getRadius();
+        double t;
+        if (getCenter().equals(head))
+            t = radius;
+        else {
+            double ux = getCenter().getX() - head.getX(), uy = getCenter().getY() - head.getY(),
+                    uz = getCenter().getZ() - head.getZ();
+            double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+            double tm = dx * ux + dy * uy + dz * uz;
+            double d = Math.sqrt(ux * ux + uy * uy + uz * uz - tm * tm);
+            if (d >= radius || isZero(d - radius))
+                return false;
+            double th = Math.sqrt(radius * radius - d * d);
+            // the nearer intersection, or the farther one if the nearer is not in front of the head
+            t = tm - th;
+            if (t < 0 || isZero(dx * t) && isZero(dy * t) && isZero(dz * t))
+                t = tm + th;
+            if (t < 0 || isZero(dx * t) && isZero(dy * t) && isZero(dz * t))
+                return false;
+        }
+        if (alignZero(t - hit.getDistance()) >= 0)
+            return false;
+        hit.set(this, t);
+        return true;
+    }
+
     @Override
     public void setBoundingBox() {
         // set the minimum and maximum values in 3 axes for this bounding region of the component
@@ -0,0 +1,110 @@
+package geometries;
+
+import java.util.Arrays;
+
+/**
+ * TraversalStack holds the scratch arrays of a traversal of a hierarchy - the indexes of the nodes that are waiting
+ * to be visited and their entry distances.
+ * <p>
+ * Every thread keeps its own stacks and reuses them for all its rays, so a query allocates nothing.
+ * A traversal may reach a geometry with a hierarchy of its own (like a {@link Mesh} in a leaf of a {@link FlatBvh}),
+ * so every level of nesting gets its own stack: a traversal opens a stack when it starts,
+ * and closes it when it ends, which makes it free for the next traversal at the same level.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+final class TraversalStack {
+    /**
+     * The initial size of a stack, it grows when a deep or wide hierarchy needs more
+     */
+    static final int SIZE = 64;
+
+    /**
+     * The outermost stack of every thread
+     */
+    private static final ThreadLocal<TraversalStack> stacks = ThreadLocal.withInitial(() -> new TraversalStack(null));
+
+    /**
+     * The indexes of the nodes in the stack
+     */
+    int[] nodes = new int[SIZE];
+    /**
+     * The entry distances of the nodes in the stack
+     */
+    double[] entries = new double[SIZE];
+    /**
+     * The shapes in the stack, for the traversals that order shapes rather than nodes
+     */
+    Container[] shapes = new Container[SIZE];
+
+    /**
+     * The stack of the traversal that this one is nested in, null for the outermost stack
+     */
+    private final TraversalStack outer;
+    /**
+     * The outermost stack of the thread
+     */
+    private final TraversalStack root;
+    /**
+     * The stack of the traversals nested in this one, null until it is needed
+     */
+    private TraversalStack inner;
+    /**
+     * The innermost open stack of the thread - kept only in the outermost stack, null if no stack is open
+     */
+    private TraversalStack open;
+
+    /**
+     * Constructs an empty stack
+     *
+     * @param outer the stack of the traversal that this one is nested in, null for the outermost stack
+     */
+    private TraversalStack(TraversalStack outer) {
+        this.outer = outer;
+        this.root = outer == null ? this : outer.root;
+    }
+
+    /**
+     * Opens a stack for a new traversal of the current thread. Every call must be followed by a call to
+     * {@link #close()} when the traversal ends.
+     *
+     * @return the stack of the traversal
+     */
+    static TraversalStack open() {
+        TraversalStack root = stacks.get();
+        TraversalStack current = root.open;
+        TraversalStack stack;
+        if (current == null)
+            stack = root;
+        else {
+            if (current.inner == null)
+                current.inner = new TraversalStack(current);
+            stack = current.inner;
+        }
+        root.open = stack;
+        return stack;
+    }
+
+    /**
+     * Closes the stack at the end of its traversal
+     */
+    void close() {
+        root.open = outer;
+    }
+
+    /**
+     * Grows the stack, if needed, so it can hold a given amount of nodes or shapes.
+     * The arrays of the stack may be replaced.
+     *
+     * @param size the amount of nodes or shapes
+     */
+    void ensureCapacity(int size) {
+        if (size <= nodes.length)
+            return;
+        int length = Math.max(2 * nodes.length, size);
+        nodes = Arrays.copyOf(nodes, length);
+        entries = Arrays.copyOf(entries, length);
+        shapes = Arrays.copyOf(shapes, length);
+    }
+}
@@ -6,6 +6,7 @@ import primitives.Vector;
 
 import java.util.List;
 
+import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
 
 /**
@@ -15,6 +16,23 @@ import static primitives.Util.isZero;
  * @author Shneor and Emanuel
  */
 public class Triangle extends Polygon {
+    /**
+     * The coordinates of the first vertex
+     */
+    private final double ax, ay, az;
+    /**
+     * The edge from the first vertex to the second one
+     */
+    private final double e1x, e1y, e1z;
+    /**
+     * The edge from the first vertex to the third one
+     */
+    private final double e2x, e2y, e2z;
+    /**
+     * The normal of the plane of the triangle
+     */
+    private final double nx, ny, nz;
+
     /**
      * Constructs a triangle with the specified points.
      *
@@ -24,50 +42,71 @@ public class Triangle extends Polygon {
      */
     public Triangle(Point p1, Point p2, Point p3) {
         super(p1, p2, p3);
+        ax = p1.getX();
+        ay = p1.getY();
+        az = p1.getZ();
+        e1x = p2.getX() - ax;
+        e1y = p2.getY() - ay;
+        e1z = p2.getZ() - az;
+        e2x = p3.getX() - ax;
+        e2y = p3.getY() - ay;
+        e2z = p3.getZ() - az;
+        Vector normal = plane.getNormal();
+        nx = normal.getX();
+        ny = normal.getY();
+        nz = normal.getZ();
     }
 
-
     @Override
     public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
-        // Step 1: Find intersection with the plane
-        List<Point> planeIntersections = plane.findIntersections(ray,maxDistance);
-        if (planeIntersections == null) {
-            return null;
-        }
-
-        // Step 2: Check if the intersection point is inside the triangle using barycentric coordinates
-        Point P = planeIntersections.getFirst();
-
-
-        // Handle case where P coincides with one of the vertices
-        if (P.equals(vertices.get(0)) || P.equals(vertices.get(1)) || P.equals(vertices.get(2))) {
-            return null;
-        }
-
-        // Vectors from triangle vertices to the point
-        Vector v0v1 = vertices.get(1).subtract(vertices.get(0)); //AB
-        Vector v0v2 = vertices.get(2).subtract(vertices.get(0)); //AC
-        Vector v0P = P.subtract(vertices.get(0)); //AP
-
-        // Dot products
-        double dot00 = v0v2.dotProduct(v0v2);
-        double dot01 = v0v2.dotProduct(v0v1);
-        double dot02 = v0v2.dotProduct(v0P);
-        double dot11 = v0v1.dotProduct(v0v1);
-        double dot12 = v0v1.dotProduct(v0P);
-
-        // Barycentric coordinates
-        double invDenom = 1 / (dot00 * dot11 - dot01 * dot01);
-        double u = (dot11 * dot02 - dot01 * dot12) * invDenom;
-        double v = (dot00 * dot12 - dot01 * dot02) * invDenom;
-
-        // Check if point is in triangle (excluding the boundaries)
-        if (!isZero(u) && u > 0 && !isZero(v) && v > 0 && !isZero(u + v - 1) && u + v < 1) {
-            return List.of(new GeoPoint(this,P));
-        }
-        return null;
+        double t = intersect(ray, maxDistance);
+        return t == Double.POSITIVE_INFINITY ? null : List.of(new GeoPoint(this, ray.getPoint(t), t));
     }
 
+    @Override
+    protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+        double t = intersect(ray, hit.getDistance());
+        if (t == Double.POSITIVE_INFINITY)
+            return false;
+        hit.set(this, t);
+        return true;
+    }
 
+    /**
+     * Finds the intersection by the Möller–Trumbore algorithm, on the edges that were calculated in the constructor.
+     * The ray is rejected as soon as one of the barycentric coordinates is out of the triangle, and nothing is
+     * allocated. The edges and the vertices are not part of the triangle.
+     *
+     * @param ray         the ray to find the intersection with
+     * @param maxDistance the maximum distance to consider for the intersection
+     * @return the distance of the intersection from the head of the ray, or infinity if there is none
+     */
+    private double intersect(Ray ray, double maxDistance) {
+        Vector direction = ray.getDirection();
+        double dx = direction.getX(), dy = direction.getY(), dz = direction.getZ();
+        // the ray is parallel to the plane of the triangle
+        if (isZero(nx * dx + ny * dy + nz * dz))
+            return Double.POSITIVE_INFINITY;
+
+        // p = d x e2, its product with e1 is the determinant of the system
+        double px = dy * e2z - dz * e2y, py = dz * e2x - dx * e2z, pz = dx * e2y - dy * e2x;
+        double inverse = 1 / (e1x * px + e1y * py + e1z * pz);
+
+        // the barycentric coordinate of the second vertex
+        Point head = ray.getHead();
+        double sx = head.getX() - ax, sy = head.getY() - ay, sz = head.getZ() - az;
+        double u = alignZero((sx * px + sy * py + sz * pz) * inverse);
+        if (u <= 0 || u >= 1)
+            return Double.POSITIVE_INFINITY;
+
+        // the barycentric coordinate of the third vertex, q = s x e1
+        double qx = sy * e1z - sz * e1y, qy = sz * e1x - sx * e1z, qz = sx * e1y - sy * e1x;
+        double v = alignZero((dx * qx + dy * qy + dz * qz) * inverse);
+        if (v <= 0 || alignZero(u + v - 1) >= 0)
+            return Double.POSITIVE_INFINITY;
+
+        double t = alignZero((e2x * qx + e2y * qy + e2z * qz) * inverse);
+        return t <= 0 || alignZero(t - maxDistance) >= 0 ? Double.POSITIVE_INFINITY : t;
+    }
 
 }
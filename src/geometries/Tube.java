@@ -30,6 +30,15 @@ public class Tube extends RadialGeometry {
         this.axis = axis;
     }
 
+    /**
+     * get the axis of the tube
+     *
+     * @return the axis
+     */
+    public Ray getAxis() {
+        return axis;
+    }
+
 
     @Override
     public Vector getNormal(Point point) throws IllegalArgumentException{
@@ -34,6 +34,15 @@ public class DirectionalLight extends Light implements LightSource {
         super(intensity);
         this.direction = direction.normalize();
     }
+    /**
+     * Gets the normalized direction of the light.
+     *
+     * @return the direction of the light
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
     @Override
     public double getRadius() {
         return 0;
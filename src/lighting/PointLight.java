@@ -80,6 +80,33 @@ public class PointLight extends Light implements LightSource {
         return this;
     }
 
+    /**
+     * Gets the constant attenuation factor.
+     *
+     * @return the constant attenuation factor
+     */
+    public double getKC() {
+        return kC;
+    }
+
+    /**
+     * Gets the linear attenuation factor.
+     *
+     * @return the linear attenuation factor
+     */
+    public double getKL() {
+        return kL;
+    }
+
+    /**
+     * Gets the quadratic attenuation factor.
+     *
+     * @return the quadratic attenuation factor
+     */
+    public double getKQ() {
+        return kQ;
+    }
+
     @Override
     public double getRadius() {
         return radius;
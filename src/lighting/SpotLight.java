@@ -46,6 +46,24 @@ public class SpotLight extends PointLight {
         return this;
     }
 
+    /**
+     * Gets the normalized direction of the spotlight.
+     *
+     * @return the direction of the spotlight
+     */
+    public Vector getDirection() {
+        return direction;
+    }
+
+    /**
+     * Gets the narrowness of the spotlight beam.
+     *
+     * @return the level of narrowness
+     */
+    public int getNarrowBeam() {
+        return beamWidth;
+    }
+
 
     @Override
     public Color getIntensity(Point p) {
@@ -63,6 +63,12 @@ public class Color {
       return new java.awt.Color(ir > 255 ? 255 : ir, ig > 255 ? 255 : ig, ib > 255 ? 255 : ib);
    }
 
+   /**
+    * Getter of the RGB components, without the limit of 255 of {@link #getColor()}
+    * @return triad of Red/Green/Blue components
+    */
+   public Double3 getRgb() { return rgb; }
+
    /**
     * Operation of adding this and one or more other colors (by component)
     * @param  colors one or more other colors to add
@@ -111,6 +117,18 @@ public class Color {
       return new Color(rgb.reduce(k));
    }
 
+   /**
+    * Checks whether this color is similar to another color - no component differs by more than a threshold
+    * @param  other     the other color
+    * @param  threshold the maximal allowed difference of a component
+    * @return           true if the colors are similar, false otherwise
+    */
+   public boolean isSimilar(Color other, double threshold) {
+      return Math.abs(rgb.d1 - other.rgb.d1) <= threshold
+            && Math.abs(rgb.d2 - other.rgb.d2) <= threshold
+            && Math.abs(rgb.d3 - other.rgb.d3) <= threshold;
+   }
+
    @Override
    public String toString() { return "rgb:" + rgb; }
 }
@@ -60,6 +60,24 @@ public class Double3 {
    @Override
    public String toString() { return "(" + d1 + "," + d2 + "," + d3 + ")"; }
 
+   /**
+    * Getter of the first number
+    * @return the first number
+    */
+   public double getD1() { return d1; }
+
+   /**
+    * Getter of the second number
+    * @return the second number
+    */
+   public double getD2() { return d2; }
+
+   /**
+    * Getter of the third number
+    * @return the third number
+    */
+   public double getD3() { return d3; }
+
    /**
     * Sum two floating point triads into a new triad where each couple of numbers
     * is summarized
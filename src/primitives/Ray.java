@@ -115,17 +115,29 @@ public class Ray {
         if ( geoPoints==null || geoPoints.isEmpty()) {
             return null;
         }
-        GeoPoint closest = geoPoints.getFirst();
-        double minDistanceSquared = closest.point.distanceSquared(getHead());
+        GeoPoint closest = null;
+        double minDistanceSquared = Double.POSITIVE_INFINITY;
         for (var geoPoint : geoPoints) {
-            if (geoPoint.point.distanceSquared(getHead()) < minDistanceSquared) {
+            double distanceSquared = distanceSquared(geoPoint);
+            if (closest == null || distanceSquared < minDistanceSquared) {
                 closest = geoPoint;
-                minDistanceSquared=geoPoint.point.distanceSquared(getHead());
+                minDistanceSquared = distanceSquared;
             }
         }
         return closest;
     }
 
+    /**
+     * Calculates the squared distance of a geometric point from the head of the ray,
+     * by the distance that the intersecting geometry gave it if it is known
+     *
+     * @param geoPoint the geometric point
+     * @return the squared distance from the head
+     */
+    private double distanceSquared(GeoPoint geoPoint) {
+        return Double.isNaN(geoPoint.t) ? geoPoint.point.distanceSquared(getHead()) : geoPoint.t * geoPoint.t;
+    }
+
     /**
      * Finds the closest point to the head of the ray from a list of points.
      *
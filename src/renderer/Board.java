@@ -5,6 +5,7 @@ import primitives.Vector;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.SplittableRandom;
 
 import static primitives.Util.isZero;
 
@@ -14,6 +15,30 @@ import static primitives.Util.isZero;
  */
 public class Board {
 
+    /**
+     * The random generators of the threads are split from this generator, in the order that the threads need them
+     */
+    private static SplittableRandom seeds = new SplittableRandom();
+
+    /**
+     * The amount of times that the seed was set - a thread splits a new generator when the seed changes
+     */
+    private static volatile int seedCount = 0;
+
+    /**
+     * The random generator of every thread, with the seed count it was split at
+     */
+    private static final ThreadLocal<ThreadRandom> randoms = new ThreadLocal<>();
+
+    /**
+     * The random generator of a thread
+     *
+     * @param random    the generator
+     * @param seedCount the seed count that the generator was split at
+     */
+    private record ThreadRandom(SplittableRandom random, int seedCount) {
+    }
+
     /**
      * The center point of the board.
      */
@@ -30,15 +55,25 @@ public class Board {
     private Vector VRight;
 
     /**
-     * The size of the board.
+     * The width of the board (along the right vector).
      */
-    private double size;
+    private double width;
+
+    /**
+     * The height of the board (along the up vector).
+     */
+    private double height;
 
     /**
      * Indicates whether the board should be treated as a circle.
      */
     private boolean circle = false;
 
+    /**
+     * The pattern of the sample points of the board.
+     */
+    private SamplePattern pattern = SamplePattern.JITTERED_GRID;
+
     /**
      * Constructs a Board with the specified center point, up vector, right vector, and size.
      *
@@ -48,10 +83,62 @@ public class Board {
      * @param size the size of the board
      */
     public Board(Point center, Vector VUp, Vector VRight, double size) {
+        this(center, VUp, VRight, size, size);
+    }
+
+    /**
+     * Constructs a rectangular Board with the specified center point, up vector, right vector, width and height.
+     *
+     * @param center the center point of the board
+     * @param VUp the up vector defining the orientation of the board
+     * @param VRight the right vector defining the orientation of the board
+     * @param width the width of the board (along the right vector)
+     * @param height the height of the board (along the up vector)
+     */
+    public Board(Point center, Vector VUp, Vector VRight, double width, double height) {
         this.center = center;
         this.VUp = VUp;
         this.VRight = VRight;
-        this.size = size;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Sets the seed of the random sample points of all the boards. Every thread gets its own generator,
+     * split from the seed in the order that the threads need one, so the points of a single render thread
+     * are reproducible.
+     *
+     * @param seed the seed
+     */
+    public static synchronized void setSeed(long seed) {
+        seeds = new SplittableRandom(seed);
+        seedCount++;
+    }
+
+    /**
+     * Gets the random generator of the current thread, a new one is split from the seed if it was set since the
+     * thread got its generator
+     *
+     * @return the generator
+     */
+    private static SplittableRandom random() {
+        ThreadRandom random = randoms.get();
+        if (random == null || random.seedCount() != seedCount) {
+            synchronized (Board.class) {
+                random = new ThreadRandom(seeds.split(), seedCount);
+            }
+            randoms.set(random);
+        }
+        return random.random();
+    }
+
+    /**
+     * Gets the center point of the board.
+     *
+     * @return the center point of the board
+     */
+    public Point getCenter() {
+        return center;
     }
 
     /**
@@ -65,6 +152,17 @@ public class Board {
         return this;
     }
 
+    /**
+     * Sets the pattern of the sample points of the board and returns the updated Board object.
+     *
+     * @param pattern the pattern of the sample points
+     * @return the updated Board object with the pattern set
+     */
+    public Board setPattern(SamplePattern pattern) {
+        this.pattern = pattern;
+        return this;
+    }
+
     /**
      * Generates a list of points evenly distributed in a square pattern on the board.
      *
@@ -72,14 +170,16 @@ public class Board {
      * @return a list of points in a square pattern
      */
     private List<Point> getPointsSquare(int numberOfSamplesInRow) {
-        double subPixelSize = size / numberOfSamplesInRow;
+        double subPixelWidth = width / numberOfSamplesInRow;
+        double subPixelHeight = height / numberOfSamplesInRow;
         List<Point> points = new ArrayList<>(numberOfSamplesInRow * numberOfSamplesInRow);
+        SplittableRandom random = random();
         Point point;
         double x, y;
         for (int i = 0; i < numberOfSamplesInRow; i++) {
             for (int j = 0; j < numberOfSamplesInRow; j++) {
-                y = (-(i - (numberOfSamplesInRow - 1.0) / 2.0) * subPixelSize) + (Math.random() - 0.5) * subPixelSize;
-                x = ((j - (numberOfSamplesInRow - 1.0) / 2.0) * subPixelSize) + (Math.random() - 0.5) * subPixelSize;
+                y = (-(i - (numberOfSamplesInRow - 1.0) / 2.0) * subPixelHeight) + (random.nextDouble() - 0.5) * subPixelHeight;
+                x = ((j - (numberOfSamplesInRow - 1.0) / 2.0) * subPixelWidth) + (random.nextDouble() - 0.5) * subPixelWidth;
                 point = center;
 
                 if (!isZero(x)) {
@@ -103,7 +203,7 @@ public class Board {
     private List<Point> getPointsCircle(int numberOfSamplesPerRow) {
         List<Point> pointsSquare = getPointsSquare(numberOfSamplesPerRow);
         List<Point> pointsCircled = new ArrayList<>((int) Math.ceil(numberOfSamplesPerRow * numberOfSamplesPerRow * Math.PI));
-        double radiusSquared = (size / 2) * (size / 2);
+        double radiusSquared = (width / 2) * (width / 2);
         for (Point point : pointsSquare)
             if (point.distanceSquared(center) < radiusSquared)
                 pointsCircled.add(point);
@@ -111,14 +211,194 @@ public class Board {
         return pointsCircled;
     }
 
+    /**
+     * Generates the points of a pattern in the unit square, by rows from the top-left corner
+     * for the stratified pattern
+     *
+     * @param count the number of points
+     * @param u     gets the horizontal coordinates, from 0 (left) to 1 (right)
+     * @param v     gets the vertical coordinates, from 0 (top) to 1 (bottom)
+     */
+    private void getUnitPoints(int count, double[] u, double[] v) {
+        SplittableRandom random = random();
+        switch (pattern) {
+            case HALTON -> {
+                // Cranley-Patterson rotation, every board gets a different part of the sequence
+                double shiftU = random.nextDouble(), shiftV = random.nextDouble();
+                for (int i = 0; i < count; i++) {
+                    u[i] = (radicalInverse(i, 2) + shiftU) % 1;
+                    v[i] = (radicalInverse(i, 3) + shiftV) % 1;
+                }
+            }
+            case SOBOL -> {
+                // a random digital shift keeps the strata of the sequence
+                int scrambleU = random.nextInt(), scrambleV = random.nextInt();
+                for (int i = 0; i < count; i++) {
+                    u[i] = toUnit(Integer.reverse(i) ^ scrambleU);
+                    v[i] = toUnit(sobol(i) ^ scrambleV);
+                }
+            }
+            default -> {
+                int row = (int) Math.round(Math.sqrt(count));
+                for (int i = 0; i < count; i++) {
+                    u[i] = (i % row + random.nextDouble()) / row;
+                    v[i] = (i / row + random.nextDouble()) / row;
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the radical inverse of an index - the digits of the index in a base, mirrored around the point
+     *
+     * @param index the index
+     * @param base  the base
+     * @return the radical inverse, between 0 and 1
+     */
+    private static double radicalInverse(int index, int base) {
+        double inverse = 1.0 / base, factor = inverse, result = 0;
+        for (; index > 0; index /= base, factor *= inverse)
+            result += factor * (index % base);
+        return result;
+    }
+
+    /**
+     * Calculates the bits of the second dimension of the Sobol sequence, by the direction numbers of the
+     * primitive polynomial x + 1
+     *
+     * @param index the index of the point
+     * @return the bits of the coordinate, as a fraction of 2^32
+     */
+    private static int sobol(int index) {
+        int result = 0;
+        for (int direction = 1 << 31; index != 0; index >>>= 1, direction ^= direction >>> 1)
+            if ((index & 1) != 0)
+                result ^= direction;
+        return result;
+    }
+
+    /**
+     * Converts the bits of a fraction of 2^32 to a number between 0 and 1
+     *
+     * @param bits the bits of the fraction
+     * @return the number
+     */
+    private static double toUnit(int bits) {
+        return (bits & 0xffffffffL) / 4294967296.0;
+    }
+
+    /**
+     * Generates a list of points by the pattern of the board. A circular board gets the points of the unit square
+     * by the concentric mapping onto the disk.
+     *
+     * @param numberOfSamplesPerRow the square root of the number of points
+     * @return a list of the points
+     */
+    private List<Point> getPointsOfPattern(int numberOfSamplesPerRow) {
+        int count = numberOfSamplesPerRow * numberOfSamplesPerRow;
+        double[] u = new double[count], v = new double[count];
+        getUnitPoints(count, u, v);
+        List<Point> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double a = 2 * u[i] - 1, b = 1 - 2 * v[i];
+            if (circle && (a != 0 || b != 0)) {
+                // the square ring at distance r from the center goes to the circle of radius r
+                double r, angle;
+                if (Math.abs(a) > Math.abs(b)) {
+                    r = a;
+                    angle = Math.PI / 4 * (b / a);
+                } else {
+                    r = b;
+                    angle = Math.PI / 2 - Math.PI / 4 * (a / b);
+                }
+                a = r * Math.cos(angle);
+                b = r * Math.sin(angle);
+            }
+            points.add(getPoint(a * width / 2, b * height / 2));
+        }
+        return points;
+    }
+
+    /**
+     * Calculates a point on the board
+     *
+     * @param x the distance from the center along the right vector
+     * @param y the distance from the center along the up vector
+     * @return the point
+     */
+    private Point getPoint(double x, double y) {
+        Point point = center;
+        if (!isZero(x)) {
+            point = point.add(VRight.scale(x));
+        }
+        if (!isZero(y)) {
+            point = point.add(VUp.scale(y));
+        }
+        return point;
+    }
+
+    /**
+     * Generates points evenly distributed on the boundary of the circle of the board, the first one at the top.
+     * The points are not jittered, so the same board always gives the same ring.
+     *
+     * @param count the number of points
+     * @return a list of points on the boundary of the circle
+     * @throws IllegalArgumentException if the number of points is not positive
+     */
+    public List<Point> getPointsRing(int count) {
+        if (count <= 0)
+            throw new IllegalArgumentException("the number of points must be positive");
+        double radius = width / 2;
+        List<Point> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double angle = 2 * Math.PI * i / count;
+            points.add(getPoint(radius * Math.sin(angle), radius * Math.cos(angle)));
+        }
+        return points;
+    }
+
+    /**
+     * Divides the board into its four quadrants.
+     * The quadrants are ordered the same way as the points of {@link #getPoints(int)} with 2 samples per row:
+     * upper-left, upper-right, lower-left and lower-right.
+     *
+     * @return a list of the four quadrants of the board
+     */
+    public List<Board> divide() {
+        double quarterWidth = width / 4, quarterHeight = height / 4;
+        Vector right = VRight.scale(quarterWidth), up = VUp.scale(quarterHeight);
+        Point upper = center.add(up), lower = center.add(up.scale(-1));
+        return List.of(
+                new Board(upper.add(right.scale(-1)), VUp, VRight, width / 2, height / 2),
+                new Board(upper.add(right), VUp, VRight, width / 2, height / 2),
+                new Board(lower.add(right.scale(-1)), VUp, VRight, width / 2, height / 2),
+                new Board(lower.add(right), VUp, VRight, width / 2, height / 2));
+    }
+
+    /**
+     * Finds the quadrant of the board that a point falls in, in the order of {@link #divide()}.
+     *
+     * @param point a point on the board
+     * @return the index of the quadrant: 0 upper-left, 1 upper-right, 2 lower-left or 3 lower-right
+     */
+    public int quadrantOf(Point point) {
+        if (point.equals(center))
+            return 0;
+        Vector vector = point.subtract(center);
+        return (vector.dotProduct(VUp) > 0 ? 0 : 2) + (vector.dotProduct(VRight) < 0 ? 0 : 1);
+    }
+
     /**
      * Generates a list of points based on the number of samples per row.
      * The pattern can be either square or circular depending on the circle property.
+     * Every pattern but the jittered grid gives all the numberOfSamplesPerRow^2 points on a circular board too.
      *
      * @param numberOfSamplesPerRow the number of samples per row
      * @return a list of points in either a square or circular pattern
      */
     public List<Point> getPoints(int numberOfSamplesPerRow) {
+        if (pattern != SamplePattern.JITTERED_GRID)
+            return getPointsOfPattern(numberOfSamplesPerRow);
         if (!circle)
             return getPointsSquare(numberOfSamplesPerRow);
         else
@@ -6,10 +6,14 @@ import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
 
+import java.io.Serial;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.MissingResourceException;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static primitives.Util.isZero;
 
@@ -33,6 +37,17 @@ import static primitives.Util.isZero;
  * @see renderer.RayTracerBase
  */
 public class Camera implements Cloneable {
+    /**
+     * The distance (in pixels) between the traced pixels in the first pass of a progressive render.
+     */
+    private static final int PROGRESSIVE_FIRST_STEP = 8;
+
+    /**
+     * The default maximal difference of a color component between the samples of a pixel (or a part of it)
+     * that doesn't require further subdivision in adaptive supersampling.
+     */
+    private static final double DEFAULT_ANTI_ALIASING_THRESHOLD = 10;
+
     private Point location;
     private Vector vUp, vRight, vTo;
     private double height = 0.0, width = 0.0, distance = 0.0;
@@ -40,8 +55,14 @@ public class Camera implements Cloneable {
     private ImageWriter imageWriter;
     private RayTracerBase rayTracer;
 
-    private PixelManager pixelManager;
     private int threadsCount;
+    private int tileSize = TileManager.DEFAULT_TILE_SIZE;
+    private ExecutionBackend executionBackend = ExecutionBackend.THREAD_POOL;
+
+    private int antiAliasingLevels = 0;
+    private double antiAliasingThreshold = DEFAULT_ANTI_ALIASING_THRESHOLD;
+    private ExecutorService executor;
+    private RenderStatistics statistics;
 
     /**
      * Gets the location of the camera.
@@ -106,6 +127,42 @@ public class Camera implements Cloneable {
         return distance;
     }
 
+    /**
+     * Gets the image writer of the camera.
+     *
+     * @return the image writer of the camera.
+     */
+    ImageWriter getImageWriter() {
+        return imageWriter;
+    }
+
+    /**
+     * Gets the ray tracer of the camera.
+     *
+     * @return the ray tracer of the camera.
+     */
+    RayTracerBase getRayTracer() {
+        return rayTracer;
+    }
+
+    /**
+     * Gets the maximal amount of subdivision levels of adaptive supersampling.
+     *
+     * @return the amount of levels, 0 when the anti-aliasing is off.
+     */
+    int getAntiAliasingLevels() {
+        return antiAliasingLevels;
+    }
+
+    /**
+     * Gets the threshold of adaptive supersampling.
+     *
+     * @return the maximal difference of a color component between samples that is considered flat.
+     */
+    double getAntiAliasingThreshold() {
+        return antiAliasingThreshold;
+    }
+
     /**
      * Private constructor to prevent direct instantiation.
      * Use the Builder to create an instance.
@@ -132,6 +189,23 @@ public class Camera implements Cloneable {
      * @return the constructed ray.
      */
     public Ray constructRay(int nX, int nY, int j, int i) {
+        // Calculation of the vector from the point to the screen according to i j
+        Vector viewIJ = pixelCenter(nX, nY, j, i).subtract(location);
+
+        // Returns the ray from the point by i j
+        return new Ray(location, viewIJ);
+    }
+
+    /**
+     * Calculates the center point of a given pixel on the view plane.
+     *
+     * @param nX the number of horizontal pixels.
+     * @param nY the number of vertical pixels.
+     * @param j  the pixel column.
+     * @param i  the pixel row.
+     * @return the center point of the pixel.
+     */
+    private Point pixelCenter(int nX, int nY, int j, int i) {
         // Image center
         Point pointCenter = location.add(vTo.scale(distance));
 
@@ -151,12 +225,7 @@ public class Camera implements Cloneable {
         if (!isZero(Yi)) {
             Pij = Pij.add(vUp.scale(Yi));
         }
-
-        // Calculation of the vector from the point to the screen according to i j
-        Vector viewIJ = Pij.subtract(location);
-
-        // Returns the ray from the point by i j
-        return new Ray(location, viewIJ);
+        return Pij;
     }
 
     /**
@@ -185,12 +254,86 @@ public class Camera implements Cloneable {
          * @return the Builder instance.
          */
         public Builder setMultithreading(int threadsCount) {
-            if (camera.threadsCount < 0)
+            if (threadsCount < 0)
                 throw new MissingResourceException("threads count can't be smaller than 0", "Camera", "");
             camera.threadsCount = threadsCount;
             return this;
         }
 
+        /**
+         * Sets the execution backend that spreads the rendering work between the threads.
+         * The backend is used only when multithreading is turned on.
+         *
+         * @param executionBackend the execution backend to use.
+         * @return the Builder instance.
+         */
+        public Builder setExecutionBackend(@NotNull ExecutionBackend executionBackend) {
+            camera.executionBackend = executionBackend;
+            return this;
+        }
+
+        /**
+         * Turns on adaptive supersampling (anti-aliasing) of the primary rays.
+         * <p>
+         * Every pixel is sampled by four jittered rays, one in each quadrant of the pixel.
+         * If the colors of the samples differ by more than the threshold, each quadrant is sampled again
+         * the same way, recursively, until the given amount of levels is reached.
+         * So flat regions get 4 samples per pixel, while edges get up to 4^levels samples.
+         * </p>
+         *
+         * @param levels    the maximal amount of subdivision levels, 0 turns the anti-aliasing off.
+         * @param threshold the maximal difference of a color component (0-255) between samples
+         *                  that is considered flat.
+         * @return the Builder instance.
+         * @throws IllegalArgumentException if the levels or the threshold are negative.
+         */
+        public Builder setAdaptiveSupersampling(int levels, double threshold) {
+            if (levels < 0)
+                throw new IllegalArgumentException("anti-aliasing levels can't be negative");
+            if (threshold < 0)
+                throw new IllegalArgumentException("anti-aliasing threshold can't be negative");
+            camera.antiAliasingLevels = levels;
+            camera.antiAliasingThreshold = threshold;
+            return this;
+        }
+
+        /**
+         * Turns on adaptive supersampling (anti-aliasing) of the primary rays with the default threshold.
+         *
+         * @param levels the maximal amount of subdivision levels, 0 turns the anti-aliasing off.
+         * @return the Builder instance.
+         * @see #setAdaptiveSupersampling(int, double)
+         */
+        public Builder setAdaptiveSupersampling(int levels) {
+            return setAdaptiveSupersampling(levels, DEFAULT_ANTI_ALIASING_THRESHOLD);
+        }
+
+        /**
+         * Sets the statistics that the camera and its ray tracer fill during the renders.
+         *
+         * @param statistics the statistics, null for not collecting statistics.
+         * @return the Builder instance.
+         */
+        public Builder setStatistics(RenderStatistics statistics) {
+            camera.statistics = statistics;
+            return this;
+        }
+
+        /**
+         * Sets the size of the tiles that the render threads fetch.
+         * A tile is a square block of tileSize x tileSize pixels (smaller at the image edges).
+         *
+         * @param tileSize the size (in pixels) of the side of a tile.
+         * @return the Builder instance.
+         * @throws IllegalArgumentException if the tile size isn't positive.
+         */
+        public Builder setTileSize(int tileSize) {
+            if (tileSize <= 0)
+                throw new IllegalArgumentException("tile size must be positive");
+            camera.tileSize = tileSize;
+            return this;
+        }
+
         /**
          * Sets the "up" and "to" vectors for the camera.
          *
@@ -286,6 +429,9 @@ public class Camera implements Cloneable {
             if (camera.imageWriter == null)
                 throw new MissingResourceException("Missing data to render", "Camera", "imageWriter");
 
+            if (camera.statistics != null)
+                camera.rayTracer.setStatistics(camera.statistics);
+
             camera.vRight = camera.vTo.crossProduct(camera.vUp);    //since the to and up vectors are normalized, we don't need to normalize the right vector
             try {
                 return (Camera) camera.clone();
@@ -330,56 +476,545 @@ public class Camera implements Cloneable {
         return this;
     }
 
+    /**
+     * Writes a separately rendered tile (for example a tile rendered by another process) into the image.
+     *
+     * @param tile the tile.
+     * @return the {@link Camera} instance.
+     * @throws IllegalArgumentException if the tile is not inside the image.
+     */
+    public Camera writeTile(TileBuffer tile) {
+        imageWriter.writeTile(tile);
+        return this;
+    }
+
     /**
      * Renders the image by casting rays through each pixel of the view plane.
      *
      * The method operates in two modes:
      * 1. **Without Threads:** If `threadsCount` is 0, the method processes each pixel sequentially in the main thread.
-     * 2. **With Threads:** If `threadsCount` is greater than 0, the method creates and starts a specified number of threads.
-     *    Each thread processes pixels in parallel by fetching the next available pixel from the `PixelManager`.
+     * 2. **With Threads:** If `threadsCount` is greater than 0, the pixels are processed in parallel by the
+     *    {@link ExecutionBackend} of the camera. The threads of the backend are created on the first render
+     *    and reused by the following renders.
      *
-     * The method waits for all threads to complete before returning the `Camera` instance.
+     * The method waits for all the pixels to be rendered before returning the `Camera` instance.
+     * If the calling thread is interrupted while waiting, the render is stopped, the interrupt status
+     * of the thread is restored and the method returns with a partially rendered image.
      *
      * @return the {@link Camera} instance after the image has been rendered.
      */
     public Camera renderImage() {
         final int nx = imageWriter.getNx(), ny = imageWriter.getNy();
-        pixelManager = new PixelManager(ny, nx);
+        final RayGenerator rayGenerator = createRayGenerator(nx, ny);
+        renderPixels(nx, ny, (column, row) -> castRay(rayGenerator, column, row));
+        return this;
+    }
 
-        if (threadsCount == 0) //without threads
-            for (int i = 0; i < ny; i++) {
-                for (int j = 0; j < nx; j++) {
-                    castRay(nx, ny, j, i);
-                }
+    /**
+     * Renders again only a region of the image, for example after a change in a part of the scene.
+     * The rest of the image is left as it is.
+     *
+     * @param fromCol the column of the upper-left pixel of the region.
+     * @param fromRow the row of the upper-left pixel of the region.
+     * @param width   the amount of columns in the region.
+     * @param height  the amount of rows in the region.
+     * @return the {@link Camera} instance after the region has been rendered.
+     * @throws IllegalArgumentException if the region is not inside the image.
+     */
+    public Camera renderImage(int fromCol, int fromRow, int width, int height) {
+        checkRegion(fromCol, fromRow, width, height);
+        final RayGenerator rayGenerator = createRayGenerator(imageWriter.getNx(), imageWriter.getNy());
+        renderPixels(fromCol, fromRow, fromCol + width, fromRow + height,
+                (column, row) -> castRay(rayGenerator, column, row));
+        return this;
+    }
+
+    /**
+     * Renders a region of the image into a separate tile buffer, without touching the image writer.
+     * The rays are the same as in a render of the full image, so the tiles of several regions
+     * (possibly rendered by different processes) can be merged into the full image by
+     * {@link ImageWriter#mergeTiles(String, int, int, Iterable)}.
+     *
+     * @param fromCol the column of the upper-left pixel of the region.
+     * @param fromRow the row of the upper-left pixel of the region.
+     * @param width   the amount of columns in the region.
+     * @param height  the amount of rows in the region.
+     * @return the tile holding the rendered region.
+     * @throws IllegalArgumentException if the region is not inside the image.
+     */
+    public TileBuffer renderRegion(int fromCol, int fromRow, int width, int height) {
+        checkRegion(fromCol, fromRow, width, height);
+        final TileBuffer tile = new TileBuffer(fromCol, fromRow, width, height);
+        final RayGenerator rayGenerator = createRayGenerator(imageWriter.getNx(), imageWriter.getNy());
+        renderPixels(fromCol, fromRow, fromCol + width, fromRow + height,
+                (column, row) -> tile.writePixel(column, row, tracePixel(rayGenerator, column, row)));
+        return tile;
+    }
+
+    /**
+     * Checks that a region is inside the image.
+     *
+     * @param fromCol the column of the upper-left pixel of the region.
+     * @param fromRow the row of the upper-left pixel of the region.
+     * @param width   the amount of columns in the region.
+     * @param height  the amount of rows in the region.
+     * @throws IllegalArgumentException if the region is not inside the image.
+     */
+    private void checkRegion(int fromCol, int fromRow, int width, int height) {
+        if (fromCol < 0 || fromRow < 0 || width <= 0 || height <= 0
+                || fromCol + width > imageWriter.getNx() || fromRow + height > imageWriter.getNy())
+            throw new IllegalArgumentException("the region is not inside the image");
+    }
+
+    /**
+     * Creates the generator of the primary rays for a render in a given resolution.
+     *
+     * @param nx the number of horizontal pixels.
+     * @param ny the number of vertical pixels.
+     * @return the ray generator.
+     */
+    private RayGenerator createRayGenerator(int nx, int ny) {
+        return new RayGenerator(location, vTo, vUp, vRight, distance, width, height, nx, ny);
+    }
+
+    /**
+     * Renders the image progressively, so a coarse version of the image is available long before the render ends.
+     * <p>
+     * The first pass traces every {@value #PROGRESSIVE_FIRST_STEP}th pixel in each direction and fills the block
+     * around it with its color. Every following pass halves the distance between the traced pixels
+     * (skipping the pixels that were already traced), until every pixel is traced.
+     * These passes use a single ray per pixel and a single sample for soft shadows. If the image writer asks for
+     * more samples or anti-aliasing is turned on, a last pass refines the image by tracing every pixel again
+     * with the full amount of samples.
+     * </p>
+     * After every pass the listener gets a snapshot of the image.
+     *
+     * @param listener the listener that is notified after every pass.
+     * @return the {@link Camera} instance after the image has been rendered.
+     */
+    public Camera renderImageProgressive(@NotNull RenderListener listener) {
+        final int nx = imageWriter.getNx(), ny = imageWriter.getNy();
+        final boolean refine = imageWriter.getNumberOfSamples() > 1 || antiAliasingLevels > 0;
+        final int passesCount = Integer.numberOfTrailingZeros(PROGRESSIVE_FIRST_STEP) + 1 + (refine ? 1 : 0);
+        final RayGenerator rayGenerator = createRayGenerator(nx, ny);
+
+        int pass = 0;
+        for (int step = PROGRESSIVE_FIRST_STEP; step >= 1; step /= 2) {
+            renderPixels(nx, ny, coarsePass(rayGenerator, step, step == PROGRESSIVE_FIRST_STEP));
+            if (Thread.currentThread().isInterrupted())
+                return this;
+            listener.onPassCompleted(++pass, passesCount, imageWriter.getSnapshot());
+        }
+
+        if (refine) {
+            renderPixels(nx, ny, (column, row) -> castRay(rayGenerator, column, row));
+            if (!Thread.currentThread().isInterrupted())
+                listener.onPassCompleted(++pass, passesCount, imageWriter.getSnapshot());
+        }
+        return this;
+    }
+
+    /**
+     * Creates the task of a coarse pass over the image, that traces a single ray (with a single sample
+     * for soft shadows) through every pixel on a grid, and fills the block around the pixel with its color.
+     *
+     * @param rayGenerator the generator of the primary rays of the render.
+     * @param step         the distance (in pixels) between the traced pixels.
+     * @param firstPass    whether it is the first pass - otherwise the pixels on the grid of the previous pass
+     *                     (with a double step) are skipped, since they are already traced.
+     * @return the task of the pass.
+     */
+    private PixelTask coarsePass(RayGenerator rayGenerator, int step, boolean firstPass) {
+        final int nx = imageWriter.getNx(), ny = imageWriter.getNy();
+        return (column, row) -> {
+            if (column % step != 0 || row % step != 0)
+                return;
+            if (!firstPass && column % (step * 2) == 0 && row % (step * 2) == 0)
+                return;
+            Color color = rayTracer.traceRay(rayGenerator.constructRay(column, row), 1);
+            for (int i = row; i < Math.min(row + step, ny); i++)
+                for (int j = column; j < Math.min(column + step, nx); j++)
+                    imageWriter.writePixel(j, i, color);
+        };
+    }
+
+    /**
+     * Starts rendering the image in the background, and returns a handle that can cancel the render
+     * or wait for it to end.
+     *
+     * @return the handle of the render.
+     */
+    public RenderTask renderImageAsync() {
+        return renderImageAsync(null, false);
+    }
+
+    /**
+     * Starts rendering the image in the background with a time budget, and returns a handle that can cancel
+     * the render or wait for it to end.
+     * <p>
+     * When the deadline expires the render is cancelled, and the image keeps whatever was rendered until then.
+     * If the unfinished parts are filled, a coarse pass (the first pass of {@link #renderImageProgressive})
+     * is rendered before the full render, so the parts of the image that the full render doesn't reach
+     * keep a low resolution version instead of staying empty. The coarse pass traces a single ray for every
+     * {@value #PROGRESSIVE_FIRST_STEP}x{@value #PROGRESSIVE_FIRST_STEP} block of pixels, so it takes
+     * a small part of the render time.
+     * </p>
+     *
+     * @param deadline       the time budget of the render, null for no time budget.
+     * @param fillUnfinished whether to fill the parts of the image that are not rendered
+     *                       in time by a low resolution version.
+     * @return the handle of the render.
+     * @throws IllegalArgumentException if the deadline is not positive.
+     */
+    public RenderTask renderImageAsync(Duration deadline, boolean fillUnfinished) {
+        if (deadline != null && (deadline.isNegative() || deadline.isZero()))
+            throw new IllegalArgumentException("deadline must be positive");
+        final int nx = imageWriter.getNx(), ny = imageWriter.getNy();
+        final RenderTask task = new RenderTask((long) nx * ny);
+        final RayGenerator rayGenerator = createRayGenerator(nx, ny);
+
+        if (deadline != null)
+            task.setDeadline(CompletableFuture.runAsync(task::cancel,
+                    CompletableFuture.delayedExecutor(deadline.toMillis(), TimeUnit.MILLISECONDS)));
+        Thread.ofPlatform().daemon().name("camera-render").start(() -> {
+            try {
+                if (fillUnfinished)
+                    renderPixels(0, 0, nx, ny, coarsePass(rayGenerator, PROGRESSIVE_FIRST_STEP, true),
+                            task.getStopped(), new AtomicLong());
+                renderPixels(0, 0, nx, ny, (column, row) -> castRay(rayGenerator, column, row),
+                        task.getStopped(), task.getCompletedPixels());
+                task.finish(null);
+            } catch (RuntimeException ex) {
+                task.finish(ex);
+            }
+        });
+        return task;
+    }
+
+    /**
+     * Shuts down the threads of the execution backend of the camera.
+     * The camera can still render after this call - new threads will be created for the next render.
+     *
+     * @return the {@link Camera} instance.
+     */
+    public synchronized Camera shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+            executor = null;
+        }
+        return this;
+    }
+
+    /**
+     * Executes a task for every pixel of the image, sequentially or using the execution backend of the camera.
+     *
+     * @param nx   the number of horizontal pixels.
+     * @param ny   the number of vertical pixels.
+     * @param task the task to execute for every pixel.
+     */
+    private void renderPixels(int nx, int ny, PixelTask task) {
+        renderPixels(0, 0, nx, ny, task);
+    }
+
+    /**
+     * Executes a task for every pixel of a region of the image,
+     * sequentially or using the execution backend of the camera.
+     *
+     * @param fromCol the first column of the region (inclusive).
+     * @param fromRow the first row of the region (inclusive).
+     * @param toCol   the last column of the region (exclusive).
+     * @param toRow   the last row of the region (exclusive).
+     * @param task    the task to execute for every pixel.
+     */
+    private void renderPixels(int fromCol, int fromRow, int toCol, int toRow, PixelTask task) {
+        renderPixels(fromCol, fromRow, toCol, toRow, task, new AtomicBoolean(false), new AtomicLong());
+    }
+
+    /**
+     * Executes a task for every pixel of a region of the image, sequentially or using the execution backend
+     * of the camera, until the region is done or the render is stopped.
+     * The ray tracer is told when the render starts and ends, and the wall time and the intersection tests
+     * of the render are added to the statistics of the camera (if any).
+     *
+     * @param fromCol         the first column of the region (inclusive).
+     * @param fromRow         the first row of the region (inclusive).
+     * @param toCol           the last column of the region (exclusive).
+     * @param toRow           the last row of the region (exclusive).
+     * @param task            the task to execute for every pixel.
+     * @param stopped         the flag that tells the render to stop.
+     * @param completedPixels the counter of the pixels in completed tiles.
+     */
+    private void renderPixels(int fromCol, int fromRow, int toCol, int toRow, PixelTask task,
+                              AtomicBoolean stopped, AtomicLong completedPixels) {
+        rayTracer.renderStarted();
+        try {
+            if (statistics == null) {
+                executePixels(fromCol, fromRow, toCol, toRow, task, stopped, completedPixels);
+                return;
             }
-        else { //with threads
-            var threads = new LinkedList<Thread>();
-            while (threadsCount-- > 0)
-                threads.add(new Thread(() -> { // add threads
-                    PixelManager.Pixel pixel;
-                    while ((pixel = pixelManager.nextPixel()) != null)
-                        castRay(nx, ny, pixel.col(), pixel.row());
-                }));
-            for (var thread : threads) thread.start();
+            RenderStatistics.Measurement measurement = statistics.renderStarted();
             try {
-                for (var thread : threads) thread.join();
-            } catch (InterruptedException ignore) {
+                executePixels(fromCol, fromRow, toCol, toRow, task, stopped, completedPixels);
+            } finally {
+                statistics.renderEnded(measurement);
             }
+        } finally {
+            rayTracer.renderEnded();
         }
+    }
 
-        return this;
+    /**
+     * Executes a task for every pixel of a region of the image, sequentially or using the execution backend
+     * of the camera, until the region is done or the render is stopped.
+     *
+     * @param fromCol         the first column of the region (inclusive).
+     * @param fromRow         the first row of the region (inclusive).
+     * @param toCol           the last column of the region (exclusive).
+     * @param toRow           the last row of the region (exclusive).
+     * @param task            the task to execute for every pixel.
+     * @param stopped         the flag that tells the render to stop.
+     * @param completedPixels the counter of the pixels in completed tiles.
+     */
+    private void executePixels(int fromCol, int fromRow, int toCol, int toRow, PixelTask task,
+                               AtomicBoolean stopped, AtomicLong completedPixels) {
+        if (threadsCount == 0) { //without threads
+            renderTile(new TileManager.Tile(fromCol, fromRow, toCol, toRow), task, stopped, completedPixels);
+            return;
+        }
+
+        final ExecutorService pool = getExecutor();
+        final List<Future<?>> futures = new ArrayList<>();
+        switch (executionBackend) {
+            case THREAD_POOL -> {
+                // every thread of the pool fetches tiles until there are none left
+                final TileManager tileManager = new TileManager(fromCol, fromRow, toCol, toRow, tileSize, threadsCount);
+                for (int i = 0; i < threadsCount; i++) {
+                    final int worker = i;
+                    futures.add(pool.submit(() -> {
+                        // a thread that finds no tiles left is still a render thread, idle for the whole render
+                        if (statistics != null)
+                            statistics.addThread();
+                        TileManager.Tile tile;
+                        while (!stopped.get() && (tile = tileManager.nextTile(worker)) != null)
+                            renderTile(tile, task, stopped, completedPixels);
+                    }));
+                }
+            }
+            case FORK_JOIN -> futures.add(((ForkJoinPool) pool).submit(new TileAction(fromCol, fromRow, toCol, toRow, task, stopped, completedPixels)));
+            case VIRTUAL_THREADS -> {
+                // a virtual thread is cheap enough to have one for every tile
+                final TileManager tileManager = new TileManager(fromCol, fromRow, toCol, toRow, tileSize, 1);
+                TileManager.Tile tile;
+                while ((tile = tileManager.nextTile(0)) != null) {
+                    final TileManager.Tile virtualThreadTile = tile;
+                    futures.add(pool.submit(() -> {
+                        renderTile(virtualThreadTile, task, stopped, completedPixels);
+                    }));
+                }
+            }
+        }
+        awaitAll(futures, stopped);
+    }
+
+    /**
+     * Waits for all the parts of a render to complete.
+     * If the waiting thread is interrupted, the render is stopped and the interrupt status is restored.
+     *
+     * @param futures the futures of the parts of the render.
+     * @param stopped the flag that tells the render threads to stop.
+     * @throws IllegalStateException if one of the render threads failed.
+     */
+    private static void awaitAll(List<Future<?>> futures, AtomicBoolean stopped) {
+        try {
+            for (var future : futures)
+                future.get();
+        } catch (InterruptedException ex) {
+            stopped.set(true);
+            for (var future : futures)
+                future.cancel(false);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException ex) {
+            stopped.set(true);
+            if (ex.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw new IllegalStateException("rendering failed", ex.getCause());
+        }
+    }
+
+    /**
+     * Gets the executor of the execution backend, creating it on the first call.
+     *
+     * @return the executor of the camera.
+     */
+    private synchronized ExecutorService getExecutor() {
+        if (executor == null)
+            executor = switch (executionBackend) {
+                case THREAD_POOL -> Executors.newFixedThreadPool(threadsCount, runnable -> {
+                    Thread thread = new Thread(runnable);
+                    thread.setDaemon(true); // an idle pool must not keep the application alive
+                    return thread;
+                });
+                case FORK_JOIN -> new ForkJoinPool(threadsCount);
+                case VIRTUAL_THREADS -> Executors.newVirtualThreadPerTaskExecutor();
+            };
+        return executor;
+    }
+
+    /**
+     * Executes a task for all the pixels of a tile, row by row, until the tile is done or the render is stopped.
+     *
+     * @param tile            the tile to render.
+     * @param task            the task to execute for every pixel.
+     * @param stopped         the flag that tells the render to stop (checked before every row).
+     * @param completedPixels the counter of the pixels in completed tiles.
+     */
+    private void renderTile(TileManager.Tile tile, PixelTask task,
+                            AtomicBoolean stopped, AtomicLong completedPixels) {
+        final long start = statistics == null ? 0 : System.nanoTime();
+        int row = tile.fromRow();
+        for (; row < tile.toRow() && !stopped.get(); row++)
+            for (int column = tile.fromCol(); column < tile.toCol(); column++) {
+                rayTracer.pixelStarted();
+                task.render(column, row);
+            }
+        if (row == tile.toRow())
+            completedPixels.addAndGet((long) (tile.toCol() - tile.fromCol()) * (tile.toRow() - tile.fromRow()));
+        if (statistics != null)
+            statistics.addBusyTime(System.nanoTime() - start);
+    }
+
+    /**
+     * A task that is executed for a single pixel of the rendered image.
+     */
+    @FunctionalInterface
+    private interface PixelTask {
+        /**
+         * Executes the task for a pixel.
+         *
+         * @param column the column of the pixel.
+         * @param row    the row of the pixel.
+         */
+        void render(int column, int row);
+    }
+
+    /**
+     * A ForkJoin task that renders a rectangle of the image.
+     * The rectangle is divided in half along its longer side until it is no bigger than a single tile.
+     */
+    private class TileAction extends RecursiveAction {
+        @Serial
+        private static final long serialVersionUID = 1L;
+
+        private final int fromCol, fromRow, toCol, toRow;
+        // a task lives only inside the pool of a single render, it is never serialized
+        private final transient PixelTask task;
+        private final transient AtomicBoolean stopped;
+        private final transient AtomicLong completedPixels;
+
+        /**
+         * Constructs a task for rendering a rectangle of the image.
+         *
+         * @param fromCol the first column of the rectangle (inclusive).
+         * @param fromRow the first row of the rectangle (inclusive).
+         * @param toCol   the last column of the rectangle (exclusive).
+         * @param toRow   the last row of the rectangle (exclusive).
+         * @param task    the task to execute for every pixel.
+         * @param stopped the flag that tells the task to stop.
+         * @param completedPixels the counter of the pixels in completed tiles.
+         */
+        TileAction(int fromCol, int fromRow, int toCol, int toRow, PixelTask task,
+                   AtomicBoolean stopped, AtomicLong completedPixels) {
+            this.fromCol = fromCol;
+            this.fromRow = fromRow;
+            this.toCol = toCol;
+            this.toRow = toRow;
+            this.task = task;
+            this.stopped = stopped;
+            this.completedPixels = completedPixels;
+        }
+
+        @Override
+        protected void compute() {
+            if (stopped.get())
+                return;
+            int width = toCol - fromCol, height = toRow - fromRow;
+            if (width <= tileSize && height <= tileSize)
+                renderTile(new TileManager.Tile(fromCol, fromRow, toCol, toRow), task, stopped, completedPixels);
+            else if (width >= height) {
+                int middle = fromCol + width / 2;
+                invokeAll(new TileAction(fromCol, fromRow, middle, toRow, task, stopped, completedPixels),
+                        new TileAction(middle, fromRow, toCol, toRow, task, stopped, completedPixels));
+            } else {
+                int middle = fromRow + height / 2;
+                invokeAll(new TileAction(fromCol, fromRow, toCol, middle, task, stopped, completedPixels),
+                        new TileAction(fromCol, middle, toCol, toRow, task, stopped, completedPixels));
+            }
+        }
     }
 
     /**
      * Casts a ray through a specific pixel and writes the resulting color to the image.
      *
-     * @param Nx     the number of horizontal pixels.
-     * @param Ny     the number of vertical pixels.
-     * @param column the column of the pixel.
-     * @param row    the row of the pixel.
+     * @param rayGenerator the generator of the primary rays of the render.
+     * @param column       the column of the pixel.
+     * @param row          the row of the pixel.
      */
-    private void castRay(int Nx, int Ny, int column, int row) {
-        imageWriter.writePixel(column, row, rayTracer.traceRay(constructRay(Nx, Ny, column, row), imageWriter.getNumberOfSamples()));
+    private void castRay(RayGenerator rayGenerator, int column, int row) {
+        imageWriter.writePixel(column, row, tracePixel(rayGenerator, column, row));
+    }
+
+    /**
+     * Calculates the color of a specific pixel.
+     * When adaptive supersampling is on, the pixel is sampled by several rays.
+     *
+     * @param rayGenerator the generator of the primary rays of the render.
+     * @param column       the column of the pixel.
+     * @param row          the row of the pixel.
+     * @return the color of the pixel.
+     */
+    private Color tracePixel(RayGenerator rayGenerator, int column, int row) {
+        int numberOfSamples = imageWriter.getNumberOfSamples();
+        return antiAliasingLevels == 0
+                ? rayTracer.traceRay(rayGenerator.constructRay(column, row), numberOfSamples)
+                : adaptiveColor(new Board(rayGenerator.pixelCenter(column, row), vUp, vRight,
+                width / imageWriter.getNx(), height / imageWriter.getNy()), antiAliasingLevels, numberOfSamples,
+                null, null);
+    }
+
+    /**
+     * Calculates the color of a part of the view plane by adaptive supersampling.
+     * Traces a jittered ray through each quadrant of the board, and if the colors of the rays are not similar
+     * (and there are levels left) calculates the color of each quadrant recursively.
+     * A sample that is already traced inside the board (by the previous level) is a jittered sample of the
+     * quadrant that it falls in, so it is used for that quadrant instead of tracing a new ray.
+     *
+     * @param board           the part of the view plane.
+     * @param level           the amount of subdivision levels left.
+     * @param numberOfSamples the amount of samples for soft shadows.
+     * @param tracedPoint     a point of the board that is already traced, null if there is none.
+     * @param tracedColor     the color of the traced point.
+     * @return the average color of the part of the view plane.
+     */
+    private Color adaptiveColor(Board board, int level, int numberOfSamples, Point tracedPoint, Color tracedColor) {
+        List<Point> points = board.getPoints(2);
+        int traced = tracedPoint == null ? -1 : board.quadrantOf(tracedPoint);
+        Color[] colors = new Color[points.size()];
+        boolean similar = true;
+        for (int i = 0; i < colors.length; i++) {
+            if (i == traced) {
+                points.set(i, tracedPoint);
+                colors[i] = tracedColor;
+            } else
+                colors[i] = rayTracer.traceRay(new Ray(location, points.get(i).subtract(location)), numberOfSamples);
+            similar = similar && colors[i].isSimilar(colors[0], antiAliasingThreshold);
+        }
+
+        if (!similar && level > 1) {
+            List<Board> quadrants = board.divide();
+            for (int i = 0; i < colors.length; i++)
+                colors[i] = adaptiveColor(quadrants.get(i), level - 1, numberOfSamples, points.get(i), colors[i]);
+        }
+        return Color.BLACK.add(colors).reduce(colors.length);
     }
 
 
@@ -0,0 +1,142 @@
+package renderer;
+
+import geometries.IntersectionStatistics;
+import primitives.Color;
+import primitives.Ray;
+import scene.Scene;
+
+/**
+ * CostHeatmapRayTracer is a diagnostic ray tracer that shows how expensive every pixel is, instead of its color.
+ * <p>
+ * Every ray is traced by another ray tracer (including its reflected, refracted and shadow rays),
+ * while the bounding box tests and the primitive intersection tests it makes are counted.
+ * The tests are counted while the ray tracer renders with a camera - the counting is enabled once
+ * for the whole render, and the cost of a ray is taken from the counters of its thread.
+ * The amount of tests is mapped to a color ramp: blue - cyan - green - yellow - red.
+ * The ramp is logarithmic, so both cheap and expensive regions are visible, and every cost from the
+ * maximal cost and up is red. Large planes that defeat the BVH or deep reflection chains stand out as hot regions.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ * @see IntersectionStatistics
+ */
+public class CostHeatmapRayTracer extends RayTracerBase {
+    /**
+     * The default amount of tests that is mapped to the hottest color
+     */
+    private static final int DEFAULT_MAX_COST = 1000;
+
+    /**
+     * The colors of the ramp, from the cheapest to the most expensive
+     */
+    private static final Color[] RAMP = {
+            new Color(0, 0, 255), new Color(0, 255, 255), new Color(0, 255, 0),
+            new Color(255, 255, 0), new Color(255, 0, 0)
+    };
+
+    /**
+     * The ray tracer that traces the rays
+     */
+    private final RayTracerBase rayTracer;
+    /**
+     * The amount of tests that is mapped to the hottest color
+     */
+    private final int maxCost;
+
+    /**
+     * Constructs a heatmap ray tracer of a {@link SimpleRayTracer}, with the default maximal cost of
+     * {@value #DEFAULT_MAX_COST} tests.
+     *
+     * @param scene the scene to be rendered.
+     */
+    public CostHeatmapRayTracer(Scene scene) {
+        this(new SimpleRayTracer(scene));
+    }
+
+    /**
+     * Constructs a heatmap ray tracer of a {@link SimpleRayTracer}.
+     *
+     * @param scene   the scene to be rendered.
+     * @param maxCost the amount of tests that is mapped to the hottest color.
+     * @throws IllegalArgumentException if the maximal cost is not positive.
+     */
+    public CostHeatmapRayTracer(Scene scene, int maxCost) {
+        this(new SimpleRayTracer(scene), maxCost);
+    }
+
+    /**
+     * Constructs a heatmap ray tracer with the default maximal cost of {@value #DEFAULT_MAX_COST} tests.
+     *
+     * @param rayTracer the ray tracer that traces the rays, its scene is rendered.
+     */
+    public CostHeatmapRayTracer(RayTracerBase rayTracer) {
+        this(rayTracer, DEFAULT_MAX_COST);
+    }
+
+    /**
+     * Constructs a heatmap ray tracer.
+     *
+     * @param rayTracer the ray tracer that traces the rays, its scene is rendered.
+     * @param maxCost   the amount of tests that is mapped to the hottest color.
+     * @throws IllegalArgumentException if the maximal cost is not positive.
+     */
+    public CostHeatmapRayTracer(RayTracerBase rayTracer, int maxCost) {
+        super(rayTracer.scene);
+        if (maxCost <= 0)
+            throw new IllegalArgumentException("maximal cost must be positive");
+        this.maxCost = maxCost;
+        this.rayTracer = rayTracer;
+    }
+
+    @Override
+    public RayTracerBase setStatistics(RenderStatistics statistics) {
+        rayTracer.setStatistics(statistics);
+        return super.setStatistics(statistics);
+    }
+
+    @Override
+    void renderStarted() {
+        IntersectionStatistics.enable();
+        rayTracer.renderStarted();
+    }
+
+    @Override
+    void renderEnded() {
+        rayTracer.renderEnded();
+        IntersectionStatistics.disable();
+    }
+
+    @Override
+    void pixelStarted() {
+        rayTracer.pixelStarted();
+    }
+
+    /**
+     * Traces a ray and returns the color of its cost. The tests are counted only during a render,
+     * see {@link #renderStarted()}.
+     *
+     * @param ray             the ray to be traced.
+     * @param numberOfSamples the amount of samples for soft shadows.
+     * @return the color of the amount of tests needed for shading the ray.
+     */
+    @Override
+    public Color traceRay(Ray ray, int numberOfSamples) {
+        long before = IntersectionStatistics.getThreadBoxTests() + IntersectionStatistics.getThreadPrimitiveTests();
+        rayTracer.traceRay(ray, numberOfSamples);
+        return costColor(IntersectionStatistics.getThreadBoxTests()
+                + IntersectionStatistics.getThreadPrimitiveTests() - before);
+    }
+
+    /**
+     * Maps a cost to the color ramp.
+     *
+     * @param cost the amount of tests.
+     * @return the color of the cost.
+     */
+    Color costColor(long cost) {
+        double t = Math.min(1, Math.log1p(cost) / Math.log1p(maxCost)) * (RAMP.length - 1);
+        int segment = Math.min((int) t, RAMP.length - 2);
+        double fraction = t - segment;
+        return RAMP[segment].scale(1 - fraction).add(RAMP[segment + 1].scale(fraction));
+    }
+}
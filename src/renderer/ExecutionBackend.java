@@ -0,0 +1,29 @@
+package renderer;
+
+/**
+ * The ExecutionBackend enum lists the ways a {@link Camera} can spread the rendering work between threads
+ * when multithreading is turned on.
+ * <p>
+ * The thread pools are created once per camera and reused by every render of that camera,
+ * so a camera can render many times without creating new threads each time.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ * @see Camera.Builder#setExecutionBackend(ExecutionBackend)
+ */
+public enum ExecutionBackend {
+    /**
+     * A fixed pool of platform threads. Every thread fetches tiles from the {@link TileManager}
+     * and steals tiles from the other threads when its own tiles are done.
+     */
+    THREAD_POOL,
+    /**
+     * A {@link java.util.concurrent.ForkJoinPool} that recursively subdivides the image into halves
+     * until every part is no bigger than a single tile.
+     */
+    FORK_JOIN,
+    /**
+     * A virtual thread for every tile. The amount of threads the virtual threads run on is managed by the JVM.
+     */
+    VIRTUAL_THREADS
+}
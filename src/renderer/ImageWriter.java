@@ -114,6 +114,49 @@ public class ImageWriter {
         }
     }
 
+    /**
+     * Function mergeTiles assembles separately rendered tiles into a new image writer.
+     * Pixels that aren't covered by any tile stay black, and where tiles overlap the later tile wins.
+     *
+     * @param imageName the name of png file
+     * @param nX        amount of pixels by Width
+     * @param nY        amount of pixels by height
+     * @param tiles     the tiles of the image
+     * @return the image writer holding the merged image
+     */
+    public static ImageWriter mergeTiles(String imageName, int nX, int nY, Iterable<TileBuffer> tiles) {
+        ImageWriter imageWriter = new ImageWriter(imageName, nX, nY);
+        for (TileBuffer tile : tiles)
+            imageWriter.writeTile(tile);
+        return imageWriter;
+    }
+
+    /**
+     * The function writeTile writes all the pixels of a separately rendered tile into pixel color matrix
+     *
+     * @param tile the tile
+     * @throws IllegalArgumentException if the tile is not inside the image
+     */
+    public void writeTile(TileBuffer tile) {
+        int toCol = tile.getFromCol() + tile.getWidth(), toRow = tile.getFromRow() + tile.getHeight();
+        if (toCol > nX || toRow > nY)
+            throw new IllegalArgumentException("the tile is not inside the image");
+        for (int row = tile.getFromRow(); row < toRow; row++)
+            for (int column = tile.getFromCol(); column < toCol; column++)
+                image.setRGB(column, row, tile.getRGB(column, row));
+    }
+
+    /**
+     * Function getSnapshot produces a copy of the pixel color matrix as it is at the moment
+     *
+     * @return a copy of the image
+     */
+    public BufferedImage getSnapshot() {
+        BufferedImage snapshot = new BufferedImage(nX, nY, BufferedImage.TYPE_INT_RGB);
+        snapshot.setData(image.getRaster());
+        return snapshot;
+    }
+
     /**
      * The function writePixel writes a color of a specific pixel into pixel color
      * matrix
@@ -0,0 +1,323 @@
+package renderer;
+
+import geometries.Intersectable.GeoPoint;
+import lighting.LightSource;
+import primitives.*;
+import scene.Scene;
+
+import static primitives.Util.alignZero;
+
+/**
+ * IterativeRayTracer traces the same tree of reflected and refracted rays as {@link SimpleRayTracer},
+ * without recursion and without allocating colors and attenuation factors on the way.
+ * <p>
+ * Every intersection in the tree is a frame in an explicit stack of at most {@value #MAX_CALC_COLOR_LEVEL} frames,
+ * one per level. A frame keeps the RGB of its local effects, its attenuation factor and the colors that its
+ * refracted and reflected rays brought back, in arrays of doubles. The frames are visited in the same order as
+ * the recursion visits them and the colors are summed in the same order, so the images are identical to the images
+ * of {@link SimpleRayTracer}. The stack belongs to the rendering thread and is reused for all its rays.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ * @see SimpleRayTracer
+ */
+public class IterativeRayTracer extends SimpleRayTracer {
+    /**
+     * The state of a frame that has to trace its refracted ray
+     */
+    private static final int REFRACTION = 0;
+    /**
+     * The state of a frame that has to trace its reflected ray
+     */
+    private static final int REFLECTION = 1;
+    /**
+     * The state of a frame that has its color
+     */
+    private static final int DONE = 2;
+
+    /**
+     * The stack of frames of every rendering thread
+     */
+    private static final ThreadLocal<Frames> FRAMES = ThreadLocal.withInitial(Frames::new);
+
+    /**
+     * The explicit stack of the intersections along the path from the primary ray to the current ray
+     */
+    private static class Frames {
+        /**
+         * The intersection of every frame
+         */
+        final GeoPoint[] points = new GeoPoint[MAX_CALC_COLOR_LEVEL];
+        /**
+         * The ray that hit the intersection of every frame
+         */
+        final Ray[] rays = new Ray[MAX_CALC_COLOR_LEVEL];
+        /**
+         * The state of every frame
+         */
+        final int[] states = new int[MAX_CALC_COLOR_LEVEL];
+        /**
+         * The attenuation factor of every frame, 3 values per frame
+         */
+        final double[] k = new double[3 * MAX_CALC_COLOR_LEVEL];
+        /**
+         * The color of the local effects of every frame
+         */
+        final double[] local = new double[3 * MAX_CALC_COLOR_LEVEL];
+        /**
+         * The probability that the ray that is traced from every frame was traced with
+         */
+        final double[] probabilities = new double[MAX_CALC_COLOR_LEVEL];
+        /**
+         * The color of the refracted ray of every frame, scaled by the transparency of the material
+         */
+        final double[] refracted = new double[3 * MAX_CALC_COLOR_LEVEL];
+        /**
+         * The color of the reflected ray of every frame, scaled by the reflection of the material
+         */
+        final double[] reflected = new double[3 * MAX_CALC_COLOR_LEVEL];
+        /**
+         * The color of the whole tree
+         */
+        final double[] color = new double[3];
+    }
+
+    /**
+     * Constructs an IterativeRayTracer with the specified scene.
+     *
+     * @param scene the scene to be rendered.
+     */
+    public IterativeRayTracer(Scene scene) {
+        super(scene);
+    }
+
+    @Override
+    public Color traceRay(Ray ray, int numberOfSamples) {
+        if (statistics != null) statistics.countPrimaryRay();
+        GeoPoint closestGeoPoint = findClosestIntersection(ray);
+        if (closestGeoPoint == null)
+            return scene.background;
+
+        Frames frames = FRAMES.get();
+        calcColor(frames, closestGeoPoint, ray, numberOfSamples);
+        Double3 ambient = scene.ambientLight.getIntensity().getRgb();
+        return new Color(frames.color[0] + ambient.getD1(), frames.color[1] + ambient.getD2(),
+                frames.color[2] + ambient.getD3());
+    }
+
+    /**
+     * Calculates the color of the tree of rays under an intersection into the color of the frames
+     *
+     * @param frames          the stack of frames
+     * @param gp              the intersection of the primary ray
+     * @param ray             the primary ray
+     * @param numberOfSamples amount of samples for soft shadows
+     */
+    private void calcColor(Frames frames, GeoPoint gp, Ray ray, int numberOfSamples) {
+        int top = push(frames, 0, gp, ray, 1, 1, 1, numberOfSamples);
+        while (top > 0) {
+            int frame = top - 1;
+            int state = frames.states[frame];
+            if (state != DONE) {
+                boolean reflected = state == REFLECTION;
+                frames.states[frame] = reflected ? DONE : REFLECTION;
+                top = traceGlobalEffect(frames, top, reflected, numberOfSamples);
+                continue;
+            }
+
+            // the frame is complete, its color goes to the frame below it
+            int i = 3 * frame;
+            double r = frames.local[i], g = frames.local[i + 1], b = frames.local[i + 2];
+            if (frame < MAX_CALC_COLOR_LEVEL - 1) {
+                r += frames.refracted[i] + frames.reflected[i];
+                g += frames.refracted[i + 1] + frames.reflected[i + 1];
+                b += frames.refracted[i + 2] + frames.reflected[i + 2];
+            }
+            frames.points[frame] = null;
+            frames.rays[frame] = null;
+            top = frame;
+            if (top == 0) {
+                frames.color[0] = r;
+                frames.color[1] = g;
+                frames.color[2] = b;
+            } else {
+                // the frame below is in the reflection state while its refracted ray is traced
+                int below = top - 1;
+                boolean reflected = frames.states[below] == DONE;
+                store(frames, below, reflected, r, g, b);
+            }
+        }
+    }
+
+    /**
+     * Traces the refracted or the reflected ray of the top frame. The color of the ray is stored in the frame
+     * if the ray is not traced further, otherwise the frame of its intersection is pushed.
+     *
+     * @param frames          the stack of frames
+     * @param top             the size of the stack
+     * @param reflected       true for the reflected ray, false for the refracted ray
+     * @param numberOfSamples amount of samples for soft shadows
+     * @return the new size of the stack
+     */
+    private int traceGlobalEffect(Frames frames, int top, boolean reflected, int numberOfSamples) {
+        int frame = top - 1, i = 3 * frame;
+        GeoPoint gp = frames.points[frame];
+        Material material = gp.geometry.getMaterial();
+        Double3 kx = reflected ? material.kR : material.kT;
+        double k1 = kx.getD1() * frames.k[i], k2 = kx.getD2() * frames.k[i + 1], k3 = kx.getD3() * frames.k[i + 2];
+        double probability = traceProbability(k1, k2, k3);
+        frames.probabilities[frame] = probability == 0 ? 1 : probability;
+        if (probability == 0) {
+            store(frames, frame, reflected, 0, 0, 0);
+            return top;
+        }
+        if (probability != 1) {
+            k1 /= probability;
+            k2 /= probability;
+            k3 /= probability;
+        }
+
+        Ray ray = reflected ? constructReflectedRay(gp, frames.rays[frame]) : constructRefractedRay(gp, frames.rays[frame]);
+        if (statistics != null) {
+            if (reflected) statistics.countReflectedRay();
+            else statistics.countRefractedRay();
+        }
+        GeoPoint next = findClosestIntersection(ray);
+        if (next == null) {
+            store(frames, frame, reflected, scene.background.getRgb().getD1(), scene.background.getRgb().getD2(),
+                    scene.background.getRgb().getD3());
+            return top;
+        }
+        return push(frames, top, next, ray, k1, k2, k3, numberOfSamples);
+    }
+
+    /**
+     * Stores the color of a refracted or a reflected ray in its frame, scaled by the transparency or the reflection
+     * of the material of the frame, and divided by the probability that the ray was traced with
+     *
+     * @param frames    the stack of frames
+     * @param frame     the frame
+     * @param reflected true for the reflected ray, false for the refracted ray
+     * @param r         the red component of the color of the ray
+     * @param g         the green component of the color of the ray
+     * @param b         the blue component of the color of the ray
+     */
+    private static void store(Frames frames, int frame, boolean reflected, double r, double g, double b) {
+        Material material = frames.points[frame].geometry.getMaterial();
+        Double3 kx = reflected ? material.kR : material.kT;
+        double probability = frames.probabilities[frame];
+        double[] colors = reflected ? frames.reflected : frames.refracted;
+        int i = 3 * frame;
+        colors[i] = r * (kx.getD1() / probability);
+        colors[i + 1] = g * (kx.getD2() / probability);
+        colors[i + 2] = b * (kx.getD3() / probability);
+    }
+
+    /**
+     * Pushes the frame of an intersection and calculates its local effects
+     *
+     * @param frames          the stack of frames
+     * @param top             the size of the stack
+     * @param gp              the intersection
+     * @param ray             the ray that hit the intersection
+     * @param k1              the first component of the attenuation factor
+     * @param k2              the second component of the attenuation factor
+     * @param k3              the third component of the attenuation factor
+     * @param numberOfSamples amount of samples for soft shadows
+     * @return the new size of the stack
+     */
+    private int push(Frames frames, int top, GeoPoint gp, Ray ray, double k1, double k2, double k3,
+                     int numberOfSamples) {
+        int i = 3 * top;
+        frames.points[top] = gp;
+        frames.rays[top] = ray;
+        frames.k[i] = k1;
+        frames.k[i + 1] = k2;
+        frames.k[i + 2] = k3;
+        // the frames of the last level have no global effects
+        frames.states[top] = top == MAX_CALC_COLOR_LEVEL - 1 ? DONE : REFRACTION;
+        calcLocalEffects(frames, top, numberOfSamples);
+        return top + 1;
+    }
+
+    /**
+     * Calculates the local effects (diffuse and specular reflections) of a frame into its local color
+     *
+     * @param frames          the stack of frames
+     * @param frame           the frame
+     * @param numberOfSamples amount of samples for soft shadows
+     */
+    private void calcLocalEffects(Frames frames, int frame, int numberOfSamples) {
+        GeoPoint gp = frames.points[frame];
+        int i = 3 * frame;
+        Double3 emission = gp.geometry.getEmission().getRgb();
+        double r = emission.getD1(), g = emission.getD2(), b = emission.getD3();
+
+        Vector n = gp.getNormal();
+        Vector v = frames.rays[frame].getDirection();
+        double nx = n.getX(), ny = n.getY(), nz = n.getZ();
+        double vx = v.getX(), vy = v.getY(), vz = v.getZ();
+        double nv = alignZero(vx * nx + vy * ny + vz * nz);
+        if (nv != 0) {
+            Material material = gp.geometry.getMaterial();
+            double k1 = frames.k[i], k2 = frames.k[i + 1], k3 = frames.k[i + 2];
+            for (LightSource lightSource : scene.lights) {
+                Vector l = lightSource.getL(gp.point);
+                double lx = l.getX(), ly = l.getY(), lz = l.getZ();
+                double nl = alignZero(lx * nx + ly * ny + lz * nz);
+                if (alignZero(nl * nv) <= 0) // sign(nl) != sign(nv)
+                    continue;
+                Double3 ktr = transparency(gp, lightSource, l, n, numberOfSamples);
+                double t1 = ktr.getD1(), t2 = ktr.getD2(), t3 = ktr.getD3();
+                if (t1 * k1 < MIN_CALC_COLOR_K && t2 * k2 < MIN_CALC_COLOR_K && t3 * k3 < MIN_CALC_COLOR_K)
+                    continue;
+
+                Double3 intensity = lightSource.getIntensity(gp.point).getRgb();
+                double diffusive = Math.abs(nl);
+                double specular = calcSpecular(material.nShininess, nx, ny, nz, lx, ly, lz, nl, vx, vy, vz);
+                r += intensity.getD1() * t1 * (material.kD.getD1() * diffusive + material.kS.getD1() * specular);
+                g += intensity.getD2() * t2 * (material.kD.getD2() * diffusive + material.kS.getD2() * specular);
+                b += intensity.getD3() * t3 * (material.kD.getD3() * diffusive + material.kS.getD3() * specular);
+            }
+        }
+        frames.local[i] = r;
+        frames.local[i + 1] = g;
+        frames.local[i + 2] = b;
+    }
+
+    /**
+     * Calculates the factor of the specular reflection, (-v * r)^nShininess, of the reflection r of the light
+     * direction around the normal
+     *
+     * @param nShininess the shininess of the material
+     * @param nx         the x component of the normal
+     * @param ny         the y component of the normal
+     * @param nz         the z component of the normal
+     * @param lx         the x component of the direction from the light source
+     * @param ly         the y component of the direction from the light source
+     * @param lz         the z component of the direction from the light source
+     * @param nl         the dot product of the normal and light direction vectors
+     * @param vx         the x component of the direction of the ray
+     * @param vy         the y component of the direction of the ray
+     * @param vz         the z component of the direction of the ray
+     * @return the factor of the specular reflection, 0 if there is none
+     */
+    private static double calcSpecular(int nShininess, double nx, double ny, double nz,
+                                       double lx, double ly, double lz, double nl,
+                                       double vx, double vy, double vz) {
+        double scale = 2 * nl;
+        double rx = lx - nx * scale, ry = ly - ny * scale, rz = lz - nz * scale;
+        double length = Math.sqrt(rx * rx + ry * ry + rz * rz);
+        rx /= length;
+        ry /= length;
+        rz /= length;
+        double vr = alignZero(rx * -vx + ry * -vy + rz * -vz);
+        if (vr <= 0) return 0; // No specular reflection in this case
+
+        double result = 1.0;
+        for (int i = 0; i < nShininess; i++) {
+            result *= vr;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,107 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+/**
+ * RayGenerator is a helper class that generates the primary rays of a single render of a {@link Camera}.
+ * <p>
+ * The vector from the camera to the center of the view plane, and the displacement of every pixel
+ * column and every pixel row from that center, are calculated once when the generator is created.
+ * The direction of the ray through a pixel is then just the sum of three precomputed vectors,
+ * without creating any intermediate points and vectors.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+class RayGenerator {
+    /**
+     * The location of the camera - the head of all the rays
+     */
+    private final Point location;
+    /**
+     * The coordinates of the vector from the camera to the center of the view plane
+     */
+    private final double centerX, centerY, centerZ;
+    /**
+     * The displacement of every pixel column from the center of the view plane, 3 coordinates per column
+     */
+    private final double[] columns;
+    /**
+     * The displacement of every pixel row from the center of the view plane, 3 coordinates per row
+     */
+    private final double[] rows;
+
+    /**
+     * Precomputes the primary rays data of a camera for a given resolution
+     *
+     * @param location the location of the camera
+     * @param vTo      the "to" vector of the camera
+     * @param vUp      the "up" vector of the camera
+     * @param vRight   the "right" vector of the camera
+     * @param distance the distance from the camera to the view plane
+     * @param width    the width of the view plane
+     * @param height   the height of the view plane
+     * @param nX       the number of horizontal pixels
+     * @param nY       the number of vertical pixels
+     */
+    RayGenerator(Point location, Vector vTo, Vector vUp, Vector vRight,
+                 double distance, double width, double height, int nX, int nY) {
+        this.location = location;
+        centerX = vTo.getX() * distance;
+        centerY = vTo.getY() * distance;
+        centerZ = vTo.getZ() * distance;
+
+        // Calculate the size of each pixel
+        double Rx = width / nX;
+        double Ry = height / nY;
+
+        columns = new double[3 * nX];
+        for (int j = 0; j < nX; j++) {
+            double Xj = (j - (nX - 1) / 2d) * Rx;
+            columns[3 * j] = vRight.getX() * Xj;
+            columns[3 * j + 1] = vRight.getY() * Xj;
+            columns[3 * j + 2] = vRight.getZ() * Xj;
+        }
+
+        rows = new double[3 * nY];
+        for (int i = 0; i < nY; i++) {
+            double Yi = -(i - (nY - 1) / 2d) * Ry;
+            rows[3 * i] = vUp.getX() * Yi;
+            rows[3 * i + 1] = vUp.getY() * Yi;
+            rows[3 * i + 2] = vUp.getZ() * Yi;
+        }
+    }
+
+    /**
+     * Constructs the ray through a pixel.
+     * The direction is normalized here, from the three precomputed vectors, so the ray and its direction
+     * are the only objects that are created.
+     *
+     * @param j the pixel column
+     * @param i the pixel row
+     * @return the ray from the camera through the center of the pixel
+     */
+    Ray constructRay(int j, int i) {
+        double x = centerX + columns[3 * j] + rows[3 * i];
+        double y = centerY + columns[3 * j + 1] + rows[3 * i + 1];
+        double z = centerZ + columns[3 * j + 2] + rows[3 * i + 2];
+        double length = Math.sqrt(x * x + y * y + z * z);
+        return new Ray(location, new Vector(x / length, y / length, z / length));
+    }
+
+    /**
+     * Calculates the center point of a pixel on the view plane
+     *
+     * @param j the pixel column
+     * @param i the pixel row
+     * @return the center point of the pixel
+     */
+    Point pixelCenter(int j, int i) {
+        return new Point(
+                location.getX() + centerX + columns[3 * j] + rows[3 * i],
+                location.getY() + centerY + columns[3 * j + 1] + rows[3 * i + 1],
+                location.getZ() + centerZ + columns[3 * j + 2] + rows[3 * i + 2]);
+    }
+}
@@ -20,6 +20,11 @@ import scene.Scene;
 public abstract class RayTracerBase {
     protected Scene scene;
 
+    /**
+     * The statistics that the ray tracer fills, null if the statistics are not collected.
+     */
+    protected RenderStatistics statistics;
+
     /**
      * Constructs a RayTracerBase with the specified scene.
      *
@@ -29,6 +34,36 @@ public abstract class RayTracerBase {
         this.scene = scene;
     }
 
+    /**
+     * Sets the statistics that the ray tracer fills with the amount of rays it traces.
+     *
+     * @param statistics the statistics, null for not collecting statistics.
+     * @return the ray tracer itself.
+     */
+    public RayTracerBase setStatistics(RenderStatistics statistics) {
+        this.statistics = statistics;
+        return this;
+    }
+
+    /**
+     * Called by the camera before it renders with the ray tracer. Every call is followed by a call to
+     * {@link #renderEnded()} when the render ends.
+     */
+    void renderStarted() {
+    }
+
+    /**
+     * Called by the camera when a render with the ray tracer ends.
+     */
+    void renderEnded() {
+    }
+
+    /**
+     * Called by the camera before it traces the rays of a pixel (all its anti-aliasing samples).
+     */
+    void pixelStarted() {
+    }
+
     /**
      * Traces a ray through the scene and determines the color seen along the ray.
      * This method must be implemented by subclasses to provide the specific ray tracing algorithm.
@@ -0,0 +1,222 @@
+package renderer;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * RenderCoordinator spreads the rendering of a frame between {@link RenderWorker}s
+ * that connect to it over a socket (see {@link RenderProtocol}).
+ * <p>
+ * Every worker gets the settings of the camera and its ray tracer, and the scene (as an XML document),
+ * and then renders tiles of the image one after the other. A tile that is not returned within the
+ * tile timeout, or whose worker disconnects, is given to another worker, and the slow worker is dropped.
+ * When all the tiles are back they are written into the image of the coordinator's camera.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class RenderCoordinator implements AutoCloseable {
+    /**
+     * Default time a worker gets to render a single tile
+     */
+    private static final Duration DEFAULT_TILE_TIMEOUT = Duration.ofSeconds(60);
+    /**
+     * Interval (in milliseconds) in which idle connections check whether the frame is done
+     */
+    private static final long POLL_INTERVAL = 50;
+
+    /**
+     * The job description that is sent to every worker
+     */
+    private final byte[] job;
+    /**
+     * The camera which image is rendered
+     */
+    private final Camera camera;
+    /**
+     * The tiles that still need to be sent to a worker
+     */
+    private final BlockingDeque<TileManager.Tile> pending = new LinkedBlockingDeque<>();
+    /**
+     * The rendered tiles
+     */
+    private final Map<TileManager.Tile, TileBuffer> results = new ConcurrentHashMap<>();
+    /**
+     * Counts down the tiles that were not rendered yet
+     */
+    private final CountDownLatch remaining;
+    /**
+     * The threads serving the connections of the workers
+     */
+    private final ExecutorService connections = Executors.newVirtualThreadPerTaskExecutor();
+    /**
+     * Logger for reporting dropped workers
+     */
+    private final Logger logger = Logger.getLogger("RenderCoordinator");
+
+    /**
+     * Time a worker gets to render a single tile
+     */
+    private Duration tileTimeout = DEFAULT_TILE_TIMEOUT;
+    /**
+     * The socket the workers connect to
+     */
+    private ServerSocket serverSocket;
+
+    /**
+     * Constructs a coordinator for rendering the image of a camera.
+     * The workers get the view and anti-aliasing settings of the camera, the settings of its ray tracer
+     * and its scene, with the lights and the materials, so they render exactly the image the camera renders.
+     *
+     * @param camera   the camera - its settings are sent to the workers and its image gets the tiles
+     * @param tileSize the size (in pixels) of the side of a tile
+     * @throws IllegalArgumentException if the tile size is not positive,
+     *                                  or the ray tracer or the scene of the camera can't be sent to the workers
+     */
+    public RenderCoordinator(Camera camera, int tileSize) {
+        this.job = RenderProtocol.createJob(camera);
+        this.camera = camera;
+        ImageWriter imageWriter = camera.getImageWriter();
+        TileManager tileManager = new TileManager(imageWriter.getNy(), imageWriter.getNx(), tileSize, 1);
+        for (TileManager.Tile tile = tileManager.nextTile(0); tile != null; tile = tileManager.nextTile(0))
+            pending.addLast(tile);
+        remaining = new CountDownLatch(tileManager.getTilesCount());
+    }
+
+    /**
+     * Sets the time a worker gets to render a single tile
+     *
+     * @param tileTimeout the timeout
+     * @return the {@link RenderCoordinator} instance
+     * @throws IllegalArgumentException if the timeout is not positive
+     */
+    public RenderCoordinator setTileTimeout(Duration tileTimeout) {
+        if (tileTimeout.isNegative() || tileTimeout.isZero())
+            throw new IllegalArgumentException("tile timeout must be positive");
+        this.tileTimeout = tileTimeout;
+        return this;
+    }
+
+    /**
+     * Starts accepting workers
+     *
+     * @param port the port to listen on, 0 for any free port
+     * @return the {@link RenderCoordinator} instance
+     * @throws IOException           if the socket can't be opened
+     * @throws IllegalStateException if the coordinator was already started
+     */
+    public synchronized RenderCoordinator start(int port) throws IOException {
+        if (serverSocket != null)
+            throw new IllegalStateException("the coordinator was already started");
+        serverSocket = new ServerSocket(port);
+        Thread.ofVirtual().name("render-coordinator").start(this::acceptWorkers);
+        return this;
+    }
+
+    /**
+     * Get the port the coordinator listens on
+     *
+     * @return the port
+     * @throws IllegalStateException if the coordinator was not started
+     */
+    public synchronized int getPort() {
+        if (serverSocket == null)
+            throw new IllegalStateException("the coordinator was not started");
+        return serverSocket.getLocalPort();
+    }
+
+    /**
+     * Waits until all the tiles are rendered and writes them into the image of the camera
+     *
+     * @param timeout the maximum time to wait
+     * @return true if the image is complete, false if the time elapsed before all the tiles were rendered
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     */
+    public boolean awaitImage(Duration timeout) throws InterruptedException {
+        if (!remaining.await(timeout.toMillis(), TimeUnit.MILLISECONDS))
+            return false;
+        for (TileBuffer tile : results.values())
+            camera.writeTile(tile);
+        return true;
+    }
+
+    /**
+     * Stops accepting workers and closes all the connections
+     */
+    @Override
+    public synchronized void close() {
+        try {
+            if (serverSocket != null) serverSocket.close();
+        } catch (IOException ignored) {
+            // the socket is discarded anyway
+        }
+        connections.shutdownNow();
+    }
+
+    /**
+     * Accepts the connections of the workers until the socket is closed
+     */
+    private void acceptWorkers() {
+        try {
+            while (true) {
+                Socket socket = serverSocket.accept();
+                connections.execute(() -> serve(socket));
+            }
+        } catch (IOException | RejectedExecutionException ignored) {
+            // the coordinator was closed
+        }
+    }
+
+    /**
+     * Serves a single worker - sends it tiles until the frame is done.
+     * If the worker fails or is too slow, its current tile is returned to the pending tiles and the worker is dropped.
+     *
+     * @param socket the connection of the worker
+     */
+    private void serve(Socket socket) {
+        TileManager.Tile tile = null;
+        try (socket;
+             var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            socket.setSoTimeout((int) tileTimeout.toMillis());
+            if (in.readInt() != RenderProtocol.HELLO)
+                throw new IOException("the peer is not a render worker");
+            out.write(job);
+            out.flush();
+
+            while (remaining.getCount() > 0) {
+                tile = pending.poll(POLL_INTERVAL, TimeUnit.MILLISECONDS);
+                // a re-queued tile may have been returned meanwhile by the worker that was considered dead
+                if (tile == null || results.containsKey(tile)) continue;
+
+                RenderProtocol.writeTile(out, tile);
+                out.flush();
+                if (in.readInt() != RenderProtocol.RESULT)
+                    throw new IOException("expected a rendered tile");
+                TileBuffer buffer = TileBuffer.read(in);
+                if (buffer.getFromCol() != tile.fromCol() || buffer.getFromRow() != tile.fromRow()
+                        || buffer.getWidth() != tile.toCol() - tile.fromCol()
+                        || buffer.getHeight() != tile.toRow() - tile.fromRow())
+                    throw new IOException("the rendered tile doesn't match the assigned tile");
+                if (results.putIfAbsent(tile, buffer) == null)
+                    remaining.countDown();
+                tile = null;
+            }
+            out.writeInt(RenderProtocol.DONE);
+            out.flush();
+        } catch (IOException ex) {
+            logger.log(Level.WARNING, "render worker dropped", ex);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // give the unfinished tile to another worker
+            if (tile != null) pending.addFirst(tile);
+        }
+    }
+}
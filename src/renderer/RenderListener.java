@@ -0,0 +1,22 @@
+package renderer;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * A listener that is notified by a {@link Camera} during a progressive render,
+ * every time a pass over the image is completed.
+ *
+ * @author Shneor and Emanuel
+ * @see Camera#renderImageProgressive(RenderListener)
+ */
+@FunctionalInterface
+public interface RenderListener {
+    /**
+     * Called after a pass of a progressive render is completed.
+     *
+     * @param pass        the number of the completed pass (starting from 1).
+     * @param passesCount the total amount of passes in the render.
+     * @param snapshot    a copy of the image as it is after the pass.
+     */
+    void onPassCompleted(int pass, int passesCount, BufferedImage snapshot);
+}
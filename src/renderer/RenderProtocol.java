@@ -0,0 +1,236 @@
+package renderer;
+
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+import scene.SceneBuilder;
+import scene.SceneWriter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * RenderProtocol holds the messages of the socket protocol between a {@link RenderCoordinator}
+ * and its {@link RenderWorker}s.
+ * <ol>
+ * <li>The worker connects and sends {@link #HELLO}.</li>
+ * <li>The coordinator sends {@link #JOB} with the camera settings, the ray tracer settings and the scene as XML
+ * (with its lights and materials, see {@link SceneWriter}).</li>
+ * <li>The coordinator sends {@link #TILE} with a region of the image, and the worker answers
+ * with {@link #RESULT} followed by the rendered {@link TileBuffer}. This is repeated for many tiles.</li>
+ * <li>The coordinator sends {@link #DONE} and closes the connection.</li>
+ * </ol>
+ *
+ * @author Shneor and Emanuel
+ */
+final class RenderProtocol {
+    /**
+     * The first message of a worker
+     */
+    static final int HELLO = 0x52454E44; // "REND"
+    /**
+     * Message type of the job description
+     */
+    static final int JOB = 1;
+    /**
+     * Message type of a tile assignment
+     */
+    static final int TILE = 2;
+    /**
+     * Message type of a rendered tile
+     */
+    static final int RESULT = 3;
+    /**
+     * Message type of the end of the work
+     */
+    static final int DONE = 4;
+
+    /**
+     * Ray tracer type of {@link SimpleRayTracer}
+     */
+    private static final int SIMPLE_RAY_TRACER = 0;
+    /**
+     * Ray tracer type of {@link IterativeRayTracer}
+     */
+    private static final int ITERATIVE_RAY_TRACER = 1;
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private RenderProtocol() {
+    }
+
+    /**
+     * Creates the job description of a camera - the view settings and the anti-aliasing settings of the camera,
+     * the settings of its ray tracer and its scene
+     *
+     * @param camera the camera which settings are sent
+     * @return the bytes of the job description
+     * @throws IllegalArgumentException if the ray tracer or the scene of the camera can't be sent to the workers
+     */
+    static byte[] createJob(Camera camera) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (var out = new DataOutputStream(bytes)) {
+            writeJob(out, camera);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex); // writing to memory doesn't fail
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Writes the job description - the view settings and the anti-aliasing settings of a camera,
+     * the settings of its ray tracer and its scene
+     *
+     * @param out    the stream
+     * @param camera the camera which settings are sent
+     * @throws IOException              if writing fails
+     * @throws IllegalArgumentException if the ray tracer or the scene of the camera can't be sent to the workers
+     */
+    static void writeJob(DataOutput out, Camera camera) throws IOException {
+        RayTracerBase rayTracer = camera.getRayTracer();
+        int rayTracerType;
+        if (rayTracer.getClass() == SimpleRayTracer.class)
+            rayTracerType = SIMPLE_RAY_TRACER;
+        else if (rayTracer.getClass() == IterativeRayTracer.class)
+            rayTracerType = ITERATIVE_RAY_TRACER;
+        else
+            throw new IllegalArgumentException("the ray tracer can't be sent to render workers: "
+                    + rayTracer.getClass().getName());
+        SimpleRayTracer simpleRayTracer = (SimpleRayTracer) rayTracer;
+        byte[] xml = SceneWriter.writeSceneToXmlString(rayTracer.scene).getBytes(StandardCharsets.UTF_8);
+
+        ImageWriter imageWriter = camera.getImageWriter();
+        out.writeInt(JOB);
+        writePoint(out, camera.getLocation());
+        writePoint(out, camera.getVTo());
+        writePoint(out, camera.getVUp());
+        out.writeDouble(camera.getWidth());
+        out.writeDouble(camera.getHeight());
+        out.writeDouble(camera.getDistance());
+        out.writeInt(imageWriter.getNx());
+        out.writeInt(imageWriter.getNy());
+        out.writeInt(imageWriter.getNumberOfSamples());
+        out.writeInt(camera.getAntiAliasingLevels());
+        out.writeDouble(camera.getAntiAliasingThreshold());
+
+        out.writeInt(rayTracerType);
+        out.writeDouble(simpleRayTracer.getRussianRoulette());
+        out.writeInt(simpleRayTracer.getRayBudget());
+        out.writeInt(simpleRayTracer.getAdaptiveSoftShadows());
+        out.writeInt(simpleRayTracer.getSoftShadowPattern().ordinal());
+
+        out.writeInt(xml.length);
+        out.write(xml);
+    }
+
+    /**
+     * Reads the job description and prepares a camera builder for it,
+     * with the scene, the ray tracer and the image writer already set.
+     * The hierarchy of the geometries is not a part of the job, so a new hierarchy is built over the scene.
+     *
+     * @param in the stream
+     * @return the camera builder of the job
+     * @throws IOException if reading fails or the stream doesn't contain a job
+     */
+    static Camera.Builder readJob(DataInput in) throws IOException {
+        if (in.readInt() != JOB)
+            throw new IOException("expected a job description");
+        Point location = readPoint(in);
+        Vector vTo = readVector(in), vUp = readVector(in);
+        double width = in.readDouble(), height = in.readDouble(), distance = in.readDouble();
+        int nX = in.readInt(), nY = in.readInt(), numberOfSamples = in.readInt();
+        int antiAliasingLevels = in.readInt();
+        double antiAliasingThreshold = in.readDouble();
+
+        int rayTracerType = in.readInt();
+        double russianRoulette = in.readDouble();
+        int rayBudget = in.readInt(), adaptiveSoftShadows = in.readInt(), pattern = in.readInt();
+        if (rayTracerType != SIMPLE_RAY_TRACER && rayTracerType != ITERATIVE_RAY_TRACER)
+            throw new IOException("unknown ray tracer type " + rayTracerType);
+        if (pattern < 0 || pattern >= SamplePattern.values().length)
+            throw new IOException("unknown sample pattern " + pattern);
+
+        byte[] xml = new byte[in.readInt()];
+        in.readFully(xml);
+        Scene scene = SceneBuilder.buildSceneFromXmlString(new String(xml, StandardCharsets.UTF_8));
+        scene.geometries.buildSahBvhTree();
+
+        SimpleRayTracer rayTracer = rayTracerType == ITERATIVE_RAY_TRACER
+                ? new IterativeRayTracer(scene) : new SimpleRayTracer(scene);
+        rayTracer.setRussianRoulette(russianRoulette)
+                .setRayBudget(rayBudget)
+                .setAdaptiveSoftShadows(adaptiveSoftShadows)
+                .setSoftShadowPattern(SamplePattern.values()[pattern]);
+
+        return Camera.getBuilder()
+                .setLocation(location)
+                .setDirection(vTo, vUp)
+                .setVpSize(width, height)
+                .setVpDistance(distance)
+                .setAdaptiveSupersampling(antiAliasingLevels, antiAliasingThreshold)
+                .setImageWriter(new ImageWriter("worker", nX, nY).setNumberOfSamples(numberOfSamples))
+                .setRayTracer(rayTracer);
+    }
+
+    /**
+     * Writes a tile assignment
+     *
+     * @param out  the stream
+     * @param tile the tile
+     * @throws IOException if writing fails
+     */
+    static void writeTile(DataOutput out, TileManager.Tile tile) throws IOException {
+        out.writeInt(TILE);
+        out.writeInt(tile.fromCol());
+        out.writeInt(tile.fromRow());
+        out.writeInt(tile.toCol());
+        out.writeInt(tile.toRow());
+    }
+
+    /**
+     * Reads a tile assignment (after its message type was read)
+     *
+     * @param in the stream
+     * @return the tile
+     * @throws IOException if reading fails
+     */
+    static TileManager.Tile readTile(DataInput in) throws IOException {
+        return new TileManager.Tile(in.readInt(), in.readInt(), in.readInt(), in.readInt());
+    }
+
+    /**
+     * Writes the coordinates of a point (or a vector)
+     *
+     * @param out   the stream
+     * @param point the point
+     * @throws IOException if writing fails
+     */
+    private static void writePoint(DataOutput out, Point point) throws IOException {
+        out.writeDouble(point.getX());
+        out.writeDouble(point.getY());
+        out.writeDouble(point.getZ());
+    }
+
+    /**
+     * Reads the coordinates of a point
+     *
+     * @param in the stream
+     * @return the point
+     * @throws IOException if reading fails
+     */
+    private static Point readPoint(DataInput in) throws IOException {
+        return new Point(in.readDouble(), in.readDouble(), in.readDouble());
+    }
+
+    /**
+     * Reads the coordinates of a vector
+     *
+     * @param in the stream
+     * @return the vector
+     * @throws IOException if reading fails
+     */
+    private static Vector readVector(DataInput in) throws IOException {
+        return new Vector(in.readDouble(), in.readDouble(), in.readDouble());
+    }
+}
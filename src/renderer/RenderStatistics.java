@@ -0,0 +1,316 @@
+package renderer;
+
+import geometries.IntersectionStatistics;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * RenderStatistics collects metrics of the renders of a {@link Camera}: the amount of rays of every kind,
+ * the amount of bounding box and primitive intersection tests, the wall time of the renders,
+ * and the time every render thread spent rendering tiles (busy) or waiting (idle).
+ * <p>
+ * The statistics are attached to a camera by {@link Camera.Builder#setStatistics(RenderStatistics)},
+ * and accumulate over all the renders of the camera until they are {@link #reset() reset}.
+ * The counters are {@link LongAdder}s, so the render threads don't contend on them.
+ * </p>
+ * <p>
+ * The intersection tests are counted by {@link IntersectionStatistics} for all the geometries,
+ * so when several renders are measured at the same time, each of them gets the tests of all of them.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class RenderStatistics {
+    /**
+     * The name under which all the virtual threads are counted
+     */
+    private static final String VIRTUAL_THREADS = "virtual";
+
+    private final LongAdder primaryRays = new LongAdder();
+    private final LongAdder reflectedRays = new LongAdder();
+    private final LongAdder refractedRays = new LongAdder();
+    private final LongAdder shadowRays = new LongAdder();
+    private final LongAdder boxTests = new LongAdder();
+    private final LongAdder primitiveTests = new LongAdder();
+    /**
+     * The total wall time of the renders in nanoseconds
+     */
+    private final AtomicLong wallTime = new AtomicLong();
+    /**
+     * The time (in nanoseconds) every render thread spent rendering tiles, by the name of the thread
+     */
+    private final Map<String, LongAdder> busyTimes = new ConcurrentHashMap<>();
+
+    /**
+     * Counts a ray that was cast from the camera
+     */
+    void countPrimaryRay() {
+        primaryRays.increment();
+    }
+
+    /**
+     * Counts a reflected ray
+     */
+    void countReflectedRay() {
+        reflectedRays.increment();
+    }
+
+    /**
+     * Counts a refracted (transparency) ray
+     */
+    void countRefractedRay() {
+        refractedRays.increment();
+    }
+
+    /**
+     * Counts a shadow ray
+     */
+    void countShadowRay() {
+        shadowRays.increment();
+    }
+
+    /**
+     * Marks the start of a render
+     *
+     * @return the measurement of the render, to be passed to {@link #renderEnded(Measurement)}
+     */
+    Measurement renderStarted() {
+        IntersectionStatistics.enable();
+        return new Measurement(System.nanoTime(),
+                IntersectionStatistics.getBoxTests(), IntersectionStatistics.getPrimitiveTests());
+    }
+
+    /**
+     * Marks the end of a render
+     *
+     * @param measurement the measurement that was returned when the render started
+     */
+    void renderEnded(Measurement measurement) {
+        wallTime.addAndGet(System.nanoTime() - measurement.start());
+        boxTests.add(IntersectionStatistics.getBoxTests() - measurement.boxTests());
+        primitiveTests.add(IntersectionStatistics.getPrimitiveTests() - measurement.primitiveTests());
+        IntersectionStatistics.disable();
+    }
+
+    /**
+     * Registers the current thread as a render thread, so it is reported even if it doesn't get to render
+     * anything - then all its time in the render is idle
+     */
+    void addThread() {
+        addBusyTime(0);
+    }
+
+    /**
+     * Adds time that the current thread spent rendering
+     *
+     * @param nanos the time in nanoseconds
+     */
+    void addBusyTime(long nanos) {
+        Thread thread = Thread.currentThread();
+        busyTimes.computeIfAbsent(thread.isVirtual() ? VIRTUAL_THREADS : thread.getName(), name -> new LongAdder())
+                .add(nanos);
+    }
+
+    /**
+     * Get the amount of rays cast from the camera
+     *
+     * @return the amount of primary rays
+     */
+    public long getPrimaryRays() {
+        return primaryRays.sum();
+    }
+
+    /**
+     * Get the amount of reflected rays
+     *
+     * @return the amount of reflected rays
+     */
+    public long getReflectedRays() {
+        return reflectedRays.sum();
+    }
+
+    /**
+     * Get the amount of refracted (transparency) rays
+     *
+     * @return the amount of refracted rays
+     */
+    public long getRefractedRays() {
+        return refractedRays.sum();
+    }
+
+    /**
+     * Get the amount of shadow rays
+     *
+     * @return the amount of shadow rays
+     */
+    public long getShadowRays() {
+        return shadowRays.sum();
+    }
+
+    /**
+     * Get the amount of rays of all kinds
+     *
+     * @return the total amount of rays
+     */
+    public long getTotalRays() {
+        return getPrimaryRays() + getReflectedRays() + getRefractedRays() + getShadowRays();
+    }
+
+    /**
+     * Get the amount of ray - bounding box tests
+     *
+     * @return the amount of tests
+     */
+    public long getBoxTests() {
+        return boxTests.sum();
+    }
+
+    /**
+     * Get the amount of ray - primitive geometry tests
+     *
+     * @return the amount of tests
+     */
+    public long getPrimitiveTests() {
+        return primitiveTests.sum();
+    }
+
+    /**
+     * Get the total wall time of the renders
+     *
+     * @return the wall time
+     */
+    public Duration getWallTime() {
+        return Duration.ofNanos(wallTime.get());
+    }
+
+    /**
+     * Get the amount of rays (of all kinds) traced in a second of wall time
+     *
+     * @return the rays per second, 0 if nothing was rendered
+     */
+    public double getRaysPerSecond() {
+        long nanos = wallTime.get();
+        return nanos == 0 ? 0 : getTotalRays() * 1e9 / nanos;
+    }
+
+    /**
+     * Get the time every render thread spent rendering tiles - zero for a thread that got no tile. All the virtual
+     * threads are counted together under the name {@value #VIRTUAL_THREADS}.
+     *
+     * @return the busy time by the name of the thread, sorted by the name
+     */
+    public Map<String, Duration> getBusyTimes() {
+        Map<String, Duration> times = new TreeMap<>();
+        busyTimes.forEach((name, nanos) -> times.put(name, Duration.ofNanos(nanos.sum())));
+        return Collections.unmodifiableMap(times);
+    }
+
+    /**
+     * Get the time every render thread didn't render tiles during the renders - the wall time minus its busy time.
+     * The virtual threads don't live through a whole render, so they have no idle time.
+     *
+     * @return the idle time by the name of the thread, sorted by the name
+     */
+    public Map<String, Duration> getIdleTimes() {
+        Map<String, Duration> times = new TreeMap<>();
+        long wall = wallTime.get();
+        busyTimes.forEach((name, nanos) -> {
+            if (!name.equals(VIRTUAL_THREADS))
+                times.put(name, Duration.ofNanos(Math.max(0, wall - nanos.sum())));
+        });
+        return Collections.unmodifiableMap(times);
+    }
+
+    /**
+     * Resets all the statistics
+     */
+    public void reset() {
+        primaryRays.reset();
+        reflectedRays.reset();
+        refractedRays.reset();
+        shadowRays.reset();
+        boxTests.reset();
+        primitiveTests.reset();
+        wallTime.set(0);
+        busyTimes.clear();
+    }
+
+    /**
+     * Creates a JSON report of the statistics. The times are in milliseconds.
+     *
+     * @return the report
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\n");
+        json.append("  \"wallTimeMs\": ").append(millis(getWallTime())).append(",\n");
+        json.append("  \"rays\": {")
+                .append("\"primary\": ").append(getPrimaryRays())
+                .append(", \"reflected\": ").append(getReflectedRays())
+                .append(", \"refracted\": ").append(getRefractedRays())
+                .append(", \"shadow\": ").append(getShadowRays())
+                .append(", \"total\": ").append(getTotalRays()).append("},\n");
+        json.append("  \"raysPerSecond\": ").append(Math.round(getRaysPerSecond())).append(",\n");
+        json.append("  \"boxTests\": ").append(getBoxTests()).append(",\n");
+        json.append("  \"primitiveTests\": ").append(getPrimitiveTests()).append(",\n");
+        json.append("  \"threads\": [");
+        Map<String, Duration> idleTimes = getIdleTimes();
+        String separator = "\n";
+        for (var entry : getBusyTimes().entrySet()) {
+            json.append(separator).append("    {\"name\": \"").append(escape(entry.getKey()))
+                    .append("\", \"busyMs\": ").append(millis(entry.getValue()));
+            Duration idle = idleTimes.get(entry.getKey());
+            if (idle != null)
+                json.append(", \"idleMs\": ").append(millis(idle));
+            json.append('}');
+            separator = ",\n";
+        }
+        return json.append(busyTimes.isEmpty() ? "]\n}" : "\n  ]\n}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+
+    /**
+     * Converts a duration to milliseconds with a fraction
+     *
+     * @param duration the duration
+     * @return the milliseconds
+     */
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1_000_000d;
+    }
+
+    /**
+     * Escapes a string for a JSON string literal
+     *
+     * @param text the string
+     * @return the escaped string
+     */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder();
+        for (char c : text.toCharArray()) {
+            if (c == '"' || c == '\\') escaped.append('\\').append(c);
+            else if (c < ' ') escaped.append(String.format("\\u%04x", (int) c));
+            else escaped.append(c);
+        }
+        return escaped.toString();
+    }
+
+    /**
+     * The state of the counters at the start of a render
+     *
+     * @param start          the start time in nanoseconds
+     * @param boxTests       the amount of box tests counted before the render
+     * @param primitiveTests the amount of primitive tests counted before the render
+     */
+    record Measurement(long start, long boxTests, long primitiveTests) {
+    }
+}
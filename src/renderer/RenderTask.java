@@ -0,0 +1,174 @@
+package renderer;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * RenderTask is a handle of a render that runs in the background (see {@link Camera#renderImageAsync()}).
+ * <p>
+ * The render can be cancelled at any moment, or automatically when its deadline expires.
+ * A cancelled render stops within a single row of a tile, and the image keeps whatever was rendered until then.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class RenderTask {
+    /**
+     * The flag that tells the render threads to stop
+     */
+    private final AtomicBoolean stopped = new AtomicBoolean(false);
+    /**
+     * The amount of pixels in completed tiles
+     */
+    private final AtomicLong completedPixels = new AtomicLong();
+    /**
+     * The amount of pixels in the image
+     */
+    private final long pixelsCount;
+    /**
+     * Released when the render ends
+     */
+    private final CountDownLatch done = new CountDownLatch(1);
+    /**
+     * The failure of the render, if it failed
+     */
+    private volatile RuntimeException failure;
+    /**
+     * The timer that cancels the render at its deadline, null if the render has no deadline
+     */
+    private volatile Future<?> deadline;
+
+    /**
+     * Constructs a handle of a render
+     *
+     * @param pixelsCount the amount of pixels in the image
+     */
+    RenderTask(long pixelsCount) {
+        this.pixelsCount = pixelsCount;
+    }
+
+    /**
+     * Get the flag that tells the render threads to stop
+     *
+     * @return the flag
+     */
+    AtomicBoolean getStopped() {
+        return stopped;
+    }
+
+    /**
+     * Get the counter of the pixels in completed tiles
+     *
+     * @return the counter
+     */
+    AtomicLong getCompletedPixels() {
+        return completedPixels;
+    }
+
+    /**
+     * Sets the timer that cancels the render at its deadline. The timer is cancelled when the render ends.
+     *
+     * @param deadline the timer
+     */
+    void setDeadline(Future<?> deadline) {
+        this.deadline = deadline;
+    }
+
+    /**
+     * Marks the end of the render, and cancels the timer of its deadline
+     *
+     * @param failure the failure of the render, null if it didn't fail
+     */
+    void finish(RuntimeException failure) {
+        this.failure = failure;
+        done.countDown();
+        Future<?> timer = deadline;
+        if (timer != null)
+            timer.cancel(false);
+    }
+
+    /**
+     * Stops the render. The image keeps the pixels that were already rendered.
+     * A render that already ended is not affected.
+     */
+    public void cancel() {
+        if (!isDone())
+            stopped.set(true);
+    }
+
+    /**
+     * Checks whether the render was cancelled (explicitly or by its deadline)
+     *
+     * @return true if the render was cancelled
+     */
+    public boolean isCancelled() {
+        return stopped.get();
+    }
+
+    /**
+     * Checks whether the render ended (completed, cancelled or failed)
+     *
+     * @return true if the render ended
+     */
+    public boolean isDone() {
+        return done.getCount() == 0;
+    }
+
+    /**
+     * Checks whether every pixel of the image was rendered
+     *
+     * @return true if the image is complete
+     */
+    public boolean isComplete() {
+        return completedPixels.get() == pixelsCount;
+    }
+
+    /**
+     * Get the part of the image that is already rendered
+     *
+     * @return the rendered part, between 0 and 1
+     */
+    public double getProgress() {
+        return (double) completedPixels.get() / pixelsCount;
+    }
+
+    /**
+     * Waits until the render ends
+     *
+     * @return true if the image is complete, false if the render was cancelled before it completed
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     * @throws RuntimeException     if the render failed
+     */
+    public boolean await() throws InterruptedException {
+        done.await();
+        return result();
+    }
+
+    /**
+     * Waits until the render ends, but no longer than a given time. The render goes on after the time elapses.
+     *
+     * @param timeout the maximum time to wait
+     * @return true if the image is complete, false if it isn't complete yet or the render was cancelled
+     * @throws InterruptedException if the current thread is interrupted while waiting
+     * @throws RuntimeException     if the render failed
+     */
+    public boolean await(Duration timeout) throws InterruptedException {
+        return done.await(timeout.toMillis(), TimeUnit.MILLISECONDS) && result();
+    }
+
+    /**
+     * Get the result of an ended render
+     *
+     * @return true if the image is complete
+     * @throws RuntimeException if the render failed
+     */
+    private boolean result() {
+        if (failure != null)
+            throw failure;
+        return isComplete();
+    }
+}
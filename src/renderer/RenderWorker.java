@@ -0,0 +1,114 @@
+package renderer;
+
+import java.io.*;
+import java.net.Socket;
+
+/**
+ * RenderWorker renders tiles of a frame for a {@link RenderCoordinator}.
+ * <p>
+ * The worker connects to the coordinator, receives the scene and the settings of the camera and its ray tracer,
+ * and renders the tiles it is assigned until the coordinator announces that the frame is done.
+ * The worker can run in the same process as the coordinator or in another process
+ * (see {@link #main(String[])}).
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class RenderWorker implements Runnable {
+    /**
+     * The host of the coordinator
+     */
+    private final String host;
+    /**
+     * The port of the coordinator
+     */
+    private final int port;
+    /**
+     * The amount of threads rendering each tile
+     */
+    private int threadsCount = 0;
+
+    /**
+     * Constructs a worker of a coordinator
+     *
+     * @param host the host of the coordinator
+     * @param port the port of the coordinator
+     */
+    public RenderWorker(String host, int port) {
+        this.host = host;
+        this.port = port;
+    }
+
+    /**
+     * Sets the amount of threads rendering each tile
+     *
+     * @param threadsCount the amount of threads (0 for rendering in the worker's thread)
+     * @return the {@link RenderWorker} instance
+     * @throws IllegalArgumentException if the amount of threads is negative
+     */
+    public RenderWorker setMultithreading(int threadsCount) {
+        if (threadsCount < 0)
+            throw new IllegalArgumentException("Multithreading parameter must be 0 or higher");
+        this.threadsCount = threadsCount;
+        return this;
+    }
+
+    /**
+     * Renders tiles until the coordinator announces that the frame is done
+     *
+     * @throws IOException if the connection to the coordinator fails
+     */
+    public void work() throws IOException {
+        try (var socket = new Socket(host, port);
+             var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+             var out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()))) {
+            out.writeInt(RenderProtocol.HELLO);
+            out.flush();
+            Camera camera = RenderProtocol.readJob(in).setMultithreading(threadsCount).build();
+            try {
+                for (int message = in.readInt(); message != RenderProtocol.DONE; message = in.readInt()) {
+                    if (message != RenderProtocol.TILE)
+                        throw new IOException("unexpected message " + message);
+                    TileManager.Tile tile = RenderProtocol.readTile(in);
+                    TileBuffer buffer = camera.renderRegion(tile.fromCol(), tile.fromRow(),
+                            tile.toCol() - tile.fromCol(), tile.toRow() - tile.fromRow());
+                    out.writeInt(RenderProtocol.RESULT);
+                    buffer.write(out);
+                    out.flush();
+                }
+            } finally {
+                camera.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Renders tiles until the coordinator announces that the frame is done
+     *
+     * @throws UncheckedIOException if the connection to the coordinator fails
+     */
+    @Override
+    public void run() {
+        try {
+            work();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Runs a worker process
+     *
+     * @param args the host and the port of the coordinator, and optionally the amount of render threads
+     * @throws IOException if the connection to the coordinator fails
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: RenderWorker <host> <port> [threads]");
+            System.exit(1);
+        }
+        new RenderWorker(args[0], Integer.parseInt(args[1]))
+                .setMultithreading(args.length > 2 ? Integer.parseInt(args[2]) : 0)
+                .work();
+    }
+}
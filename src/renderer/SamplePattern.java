@@ -0,0 +1,32 @@
+package renderer;
+
+/**
+ * The SamplePattern enum lists the ways a {@link Board} can spread its sample points.
+ * <p>
+ * The random numbers of all the patterns come from the generator of the current thread, so the rendering
+ * threads do not contend on a shared generator. On a circular board the jittered grid drops the points outside
+ * the circle (about 21% of them), while the other patterns map the square onto the disk by the concentric
+ * mapping of Shirley and Chiu, which keeps all the points and their strata, with little distortion.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ * @see Board#setPattern(SamplePattern)
+ */
+public enum SamplePattern {
+    /**
+     * A grid of cells with a random point in every cell, the points outside a circular board are dropped
+     */
+    JITTERED_GRID,
+    /**
+     * A grid of cells with a random point in every cell, mapped onto a circular board
+     */
+    STRATIFIED,
+    /**
+     * The points of the Halton sequence in bases 2 and 3, shifted together by a random offset (modulo 1)
+     */
+    HALTON,
+    /**
+     * The points of the two dimensional Sobol sequence, scrambled together by random bits
+     */
+    SOBOL
+}
@@ -6,6 +6,8 @@ import primitives.*;
 import scene.Scene;
 
 import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 
 import static primitives.Util.alignZero;
 import static primitives.Util.isZero;
@@ -32,12 +34,46 @@ public class SimpleRayTracer extends RayTracerBase {
     /**
      * Maximum recursion level for color calculations.
      */
-    private static final int MAX_CALC_COLOR_LEVEL = 10;
+    protected static final int MAX_CALC_COLOR_LEVEL = 10;
 
     /**
      * Minimum attenuation factor for global effects.
      */
-    private static final double MIN_CALC_COLOR_K = 0.001;
+    protected static final double MIN_CALC_COLOR_K = 0.001;
+
+    /**
+     * The amount of reflected and refracted rays that were traced for the current pixel of every thread
+     */
+    private static final ThreadLocal<int[]> tracedRays = ThreadLocal.withInitial(() -> new int[1]);
+
+    /**
+     * The attenuation factor below which the reflected and refracted rays are terminated by Russian roulette,
+     * 0 for no Russian roulette.
+     */
+    private double russianRoulette = 0;
+
+    /**
+     * The random generator of the Russian roulette and of the ray budget,
+     * null for the generator of the current thread
+     */
+    private Random random = null;
+
+    /**
+     * The amount of reflected and refracted rays of a pixel that are traced before the ray budget roulette,
+     * 0 for no budget.
+     */
+    private int rayBudget = 0;
+
+    /**
+     * The amount of shadow rays on the boundary of an area light that are traced before the full grid,
+     * 0 for always tracing the full grid.
+     */
+    private int adaptiveShadowRing = 0;
+
+    /**
+     * The pattern of the shadow rays toward an area light.
+     */
+    private SamplePattern softShadowPattern = SamplePattern.JITTERED_GRID;
 
     /**
      * Constructs a SimpleRayTracer with the specified scene.
@@ -48,6 +84,171 @@ public class SimpleRayTracer extends RayTracerBase {
         super(scene);
     }
 
+    /**
+     * Sets the Russian roulette termination of reflected and refracted rays. A ray whose attenuation factor is
+     * below the threshold is traced with a probability of its factor divided by the threshold, and the color of
+     * a ray that survives is divided by that probability, so the expected color stays the same.
+     * It replaces the fixed cut of the rays below {@value #MIN_CALC_COLOR_K}, which darkens the image.
+     *
+     * @param threshold the attenuation factor below which the rays are terminated randomly, 0 for no roulette
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the threshold is not 0 and not between {@value #MIN_CALC_COLOR_K} and 1
+     */
+    public SimpleRayTracer setRussianRoulette(double threshold) {
+        if (threshold != 0 && (threshold < MIN_CALC_COLOR_K || threshold > 1))
+            throw new IllegalArgumentException("Russian roulette threshold must be 0 or between "
+                    + MIN_CALC_COLOR_K + " and 1");
+        this.russianRoulette = threshold;
+        return this;
+    }
+
+    /**
+     * Sets the random generator of the Russian roulette and of the ray budget. A generator with a known seed makes
+     * the terminated rays reproducible, when the rays are traced by a single thread in the same order.
+     * The generator is shared by all the render threads, and {@link Random} is thread safe,
+     * but the threads contend on it - so by default every thread uses its own generator.
+     *
+     * @param random the random generator, null for the generator of the current thread
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setRandom(Random random) {
+        this.random = random;
+        return this;
+    }
+
+    /**
+     * Sets the ray budget of a pixel - the amount of reflected and refracted rays that are traced for all the
+     * primary rays of a pixel (its anti-aliasing samples) before the budget roulette starts. The budget of a pixel
+     * starts when the camera starts tracing it.
+     * When the budget is spent, every further ray survives with the probability of its attenuation factor,
+     * and a surviving ray is scaled up by that probability, so the expected brightness stays the same.
+     * It caps the cost of a pixel in scenes of many reflective and transparent geometries: beyond the budget,
+     * the expected amount of rays in the rest of the tree is bounded, since a ray spawns rays whose
+     * attenuation factors are its reflection and transparency coefficients.
+     *
+     * @param rayBudget the amount of rays of a pixel before the roulette, 0 for no budget
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the budget is negative
+     */
+    public SimpleRayTracer setRayBudget(int rayBudget) {
+        if (rayBudget < 0)
+            throw new IllegalArgumentException("ray budget must not be negative");
+        this.rayBudget = rayBudget;
+        return this;
+    }
+
+    /**
+     * Sets adaptive soft shadows. Before the full grid of shadow rays toward an area light, a ring of rays toward
+     * its boundary and a ray toward its center are traced. When all of them get the same transparency, the point is
+     * fully lit or fully shadowed and the grid is skipped. Only points in the penumbra pay for the full grid.
+     *
+     * @param ringSamples the amount of rays toward the boundary of the light, 0 for always tracing the full grid
+     * @return the ray tracer itself
+     * @throws IllegalArgumentException if the amount is negative, or too small to surround the light
+     */
+    public SimpleRayTracer setAdaptiveSoftShadows(int ringSamples) {
+        if (ringSamples < 0 || ringSamples > 0 && ringSamples < 3)
+            throw new IllegalArgumentException("ring of shadow rays must have at least 3 rays");
+        this.adaptiveShadowRing = ringSamples;
+        return this;
+    }
+
+    /**
+     * Sets the pattern of the shadow rays toward an area light. The patterns other than the jittered grid
+     * trace all the numberOfSamples^2 rays inside the light and spread them more evenly, so fewer samples
+     * give the same noise.
+     *
+     * @param pattern the pattern of the shadow rays
+     * @return the ray tracer itself
+     */
+    public SimpleRayTracer setSoftShadowPattern(SamplePattern pattern) {
+        this.softShadowPattern = pattern;
+        return this;
+    }
+
+    /**
+     * Gets the threshold of the Russian roulette termination
+     *
+     * @return the threshold, 0 for no roulette
+     */
+    double getRussianRoulette() {
+        return russianRoulette;
+    }
+
+    /**
+     * Gets the maximal amount of reflected and refracted rays for a primary ray
+     *
+     * @return the budget, 0 for no limit
+     */
+    int getRayBudget() {
+        return rayBudget;
+    }
+
+    /**
+     * Gets the amount of shadow rays on the boundary of an area light of the adaptive soft shadows
+     *
+     * @return the amount of rays, 0 when the soft shadows are not adaptive
+     */
+    int getAdaptiveSoftShadows() {
+        return adaptiveShadowRing;
+    }
+
+    /**
+     * Gets the pattern of the shadow rays toward an area light
+     *
+     * @return the pattern
+     */
+    SamplePattern getSoftShadowPattern() {
+        return softShadowPattern;
+    }
+
+    /**
+     * Starts the ray budget of a new pixel
+     */
+    @Override
+    void pixelStarted() {
+        if (rayBudget > 0)
+            tracedRays.get()[0] = 0;
+    }
+
+    /**
+     * Draws the next random number of the Russian roulette and of the ray budget
+     *
+     * @return a random number between 0 (inclusive) and 1 (exclusive)
+     */
+    private double nextRandom() {
+        return (random == null ? ThreadLocalRandom.current() : random).nextDouble();
+    }
+
+    /**
+     * Decides whether a reflected or refracted ray is traced, by its attenuation factor, the Russian roulette and
+     * the ray budget
+     *
+     * @param k1 the first component of the attenuation factor of the ray
+     * @param k2 the second component of the attenuation factor of the ray
+     * @param k3 the third component of the attenuation factor of the ray
+     * @return the probability that the ray was traced with, its color is to be divided by it,
+     * or 0 if the ray is not traced
+     */
+    protected double traceProbability(double k1, double k2, double k3) {
+        double importance = Math.max(k1, Math.max(k2, k3));
+        double probability = 1;
+        if (importance < russianRoulette) {
+            probability = importance / russianRoulette;
+            if (importance == 0 || nextRandom() >= probability)
+                return 0;
+        } else if (importance < MIN_CALC_COLOR_K)
+            return 0;
+        if (rayBudget > 0 && ++tracedRays.get()[0] > rayBudget) {
+            // the budget of the pixel is spent - the ray survives by its attenuation factor (after the roulette)
+            double survival = Math.min(1, importance / probability);
+            if (nextRandom() >= survival)
+                return 0;
+            probability *= survival;
+        }
+        return probability;
+    }
+
     /**
      * Traces a ray through the scene and determines the color at the point of intersection.
      * If no intersections are found, the background color is returned.
@@ -57,6 +258,7 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     @Override
     public Color traceRay(Ray ray,int numberOfSamples) {
+        if (statistics != null) statistics.countPrimaryRay();
         GeoPoint closestGeoPoint = findClosestIntersection(ray);
         return closestGeoPoint == null
                 ? scene.background
@@ -99,8 +301,8 @@ public class SimpleRayTracer extends RayTracerBase {
      */
     private Color calcGlobalEffects(GeoPoint gp, Ray ray, int level, Double3 k,int numberOfSamples) {
         Material material = gp.geometry.getMaterial();
-        return calcGlobalEffect(constructRefractedRay(gp, ray), material.kT, level, k,numberOfSamples)
-                .add(calcGlobalEffect(constructReflectedRay(gp, ray), material.kR, level, k,numberOfSamples));
+        return calcGlobalEffect(constructRefractedRay(gp, ray), material.kT, level, k,numberOfSamples, false)
+                .add(calcGlobalEffect(constructReflectedRay(gp, ray), material.kR, level, k,numberOfSamples, true));
     }
 
     /**
@@ -110,11 +312,21 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param kx    the attenuation factor for the effect.
      * @param level the current recursion level.
      * @param k     the combined attenuation factor.
+     * @param reflected whether the ray is a reflected ray (otherwise it is a refracted ray).
      * @return the calculated color for the global effect.
      */
-    private Color calcGlobalEffect(Ray ray, Double3 kx, int level, Double3 k,int numberOfSamples) {
+    private Color calcGlobalEffect(Ray ray, Double3 kx, int level, Double3 k,int numberOfSamples, boolean reflected) {
         Double3 kkx = kx.product(k);
-        if (kkx.lowerThan(MIN_CALC_COLOR_K)) return Color.BLACK;
+        double probability = traceProbability(kkx.getD1(), kkx.getD2(), kkx.getD3());
+        if (probability == 0) return Color.BLACK;
+        if (probability != 1) {
+            kx = kx.reduce(probability);
+            kkx = kkx.reduce(probability);
+        }
+        if (statistics != null) {
+            if (reflected) statistics.countReflectedRay();
+            else statistics.countRefractedRay();
+        }
         GeoPoint gp = findClosestIntersection(ray);
         return (gp == null ? scene.background : calcColor(gp, ray, level - 1, kkx,numberOfSamples))
                 .scale(kx);
@@ -127,7 +339,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param ray the incident ray.
      * @return the refracted ray.
      */
-    private Ray constructRefractedRay(GeoPoint gp, Ray ray) {
+    protected Ray constructRefractedRay(GeoPoint gp, Ray ray) {
         Vector n = gp.getNormal();
         return new Ray(gp.point, ray.getDirection(), n);
     }
@@ -139,7 +351,7 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param ray the incident ray.
      * @return the reflected ray.
      */
-    private Ray constructReflectedRay(GeoPoint gp, Ray ray) {
+    protected Ray constructReflectedRay(GeoPoint gp, Ray ray) {
         Vector n = gp.getNormal();
         double nv = alignZero(n.dotProduct(ray.getDirection()));
         return new Ray(gp.point, (!isZero(nv)) ? ray.getDirection().subtract(n.scale(2 * nv)) : ray.getDirection(), n);
@@ -151,8 +363,8 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param ray the ray to be traced.
      * @return the closest intersection point, or null if no intersections are found.
      */
-    private GeoPoint findClosestIntersection(Ray ray) {
-        return ray.findClosestGeoPoint(scene.geometries.findGeoIntersections(ray));
+    protected GeoPoint findClosestIntersection(Ray ray) {
+        return scene.geometries.findClosestGeoIntersection(ray);
     }
 
     /**
@@ -216,17 +428,8 @@ public class SimpleRayTracer extends RayTracerBase {
      * @return the transparency of the point as Double3 (rgb)
      */
     private Double3 getTransparencyFromPoint(Point point, Vector n, Vector light, double lightSourceDistance) {
-        
-        List<GeoPoint> intersections = scene.geometries.findGeoIntersections( new Ray(point, light, n), lightSourceDistance);
-
-        Double3 ktr = Double3.ONE;
-        if (intersections == null)
-            return ktr;
-
-        for (GeoPoint intersection : intersections) {
-            ktr = ktr.product(intersection.geometry.getMaterial().kT);
-        }
-        return ktr;
+        if (statistics != null) statistics.countShadowRay();
+        return scene.geometries.findTransparency(new Ray(point, light, n), lightSourceDistance);
     }
 
     /**
@@ -239,12 +442,25 @@ public class SimpleRayTracer extends RayTracerBase {
      * @param numberOfSamples amount of samples for super-sampling
      * @return the transparency of the point as Double3 (rgb)
      */
-    private Double3 transparency(GeoPoint gp, LightSource lightSource, Vector l, Vector n, int numberOfSamples) {
+    protected Double3 transparency(GeoPoint gp, LightSource lightSource, Vector l, Vector n, int numberOfSamples) {
         if (lightSource.getRadius() == 0||lightSource.getPosition()==null||numberOfSamples<=1)
             return transparency(gp, lightSource, l, n);
         Vector orthogonalV = l.createOrthogonal();
 
-        Board board = new Board(lightSource.getPosition(), orthogonalV, orthogonalV.crossProduct(l), lightSource.getRadius() * 2).setCircle(true);
+        Board board = new Board(lightSource.getPosition(), orthogonalV, orthogonalV.crossProduct(l), lightSource.getRadius() * 2)
+                .setCircle(true).setPattern(softShadowPattern);
+        // the grid has about pi/4 of the n^2 samples, the ring is worth tracing only if it is much smaller
+        if (adaptiveShadowRing > 0 && 2 * (adaptiveShadowRing + 1) < numberOfSamples * numberOfSamples) {
+            Double3 ktr = transparency(gp, n, board.getCenter());
+            boolean uniform = true;
+            for (Point point : board.getPointsRing(adaptiveShadowRing))
+                if (!transparency(gp, n, point).equals(ktr)) {
+                    uniform = false;
+                    break;
+                }
+            if (uniform)
+                return ktr;
+        }
         //calculate the average of the ktrs
         List<Point> points = board.getPoints(numberOfSamples);
         Double3 ktr = Double3.ZERO;
@@ -255,6 +471,18 @@ public class SimpleRayTracer extends RayTracerBase {
         return ktr.reduce(points.size());
     }
 
+    /**
+     * calculates the transparency of a point getting light from a single point of an area light source
+     *
+     * @param gp    the point
+     * @param n     normal vector of geometry from point
+     * @param point the point of the light source
+     * @return the transparency of the point as Double3 (rgb)
+     */
+    private Double3 transparency(GeoPoint gp, Vector n, Point point) {
+        return getTransparencyFromPoint(gp.point, n, point.subtract(gp.point).normalize(), gp.point.distance(point));
+    }
+
     /**
      * Calculates the diffuse reflection component of the material.
      *
@@ -0,0 +1,201 @@
+package renderer;
+
+import primitives.Color;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * TileBuffer holds the pixels of a rectangular region of an image, rendered separately from the rest of the image.
+ * <p>
+ * A frame can be split into several regions, each rendered by {@link Camera#renderRegion(int, int, int, int)}
+ * in a different process or machine. The tiles can be saved to files (or sent over a stream) and later
+ * assembled into the full image by {@link ImageWriter#mergeTiles(String, int, int, Iterable)}.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class TileBuffer {
+    /**
+     * Marks the beginning of a tile in a stream
+     */
+    private static final int MAGIC = 0x54494C45; // "TILE"
+
+    /**
+     * The column and the row of the upper-left pixel of the tile in the full image
+     */
+    private final int fromCol, fromRow;
+    /**
+     * The size of the tile in pixels
+     */
+    private final int width, height;
+    /**
+     * The RGB values of the pixels of the tile, row by row
+     */
+    private final int[] pixels;
+
+    /**
+     * Constructs an empty (black) tile for a region of the image
+     *
+     * @param fromCol the column of the upper-left pixel of the region
+     * @param fromRow the row of the upper-left pixel of the region
+     * @param width   the amount of columns in the region
+     * @param height  the amount of rows in the region
+     * @throws IllegalArgumentException if the region is empty or has a negative position
+     */
+    public TileBuffer(int fromCol, int fromRow, int width, int height) {
+        this(fromCol, fromRow, width, height, new int[checkSize(fromCol, fromRow, width, height)]);
+    }
+
+    /**
+     * Constructs a tile for a region of the image from the RGB values of its pixels
+     *
+     * @param fromCol the column of the upper-left pixel of the region
+     * @param fromRow the row of the upper-left pixel of the region
+     * @param width   the amount of columns in the region
+     * @param height  the amount of rows in the region
+     * @param pixels  the RGB values of the pixels, row by row
+     */
+    private TileBuffer(int fromCol, int fromRow, int width, int height, int[] pixels) {
+        this.fromCol = fromCol;
+        this.fromRow = fromRow;
+        this.width = width;
+        this.height = height;
+        this.pixels = pixels;
+    }
+
+    /**
+     * Checks that a region is valid
+     *
+     * @param fromCol the column of the upper-left pixel of the region
+     * @param fromRow the row of the upper-left pixel of the region
+     * @param width   the amount of columns in the region
+     * @param height  the amount of rows in the region
+     * @return the amount of pixels in the region
+     * @throws IllegalArgumentException if the region is empty or has a negative position
+     */
+    private static int checkSize(int fromCol, int fromRow, int width, int height) {
+        if (fromCol < 0 || fromRow < 0)
+            throw new IllegalArgumentException("the region can't start at a negative position");
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("the region must contain at least one pixel");
+        return width * height;
+    }
+
+    /**
+     * Get the column of the upper-left pixel of the tile in the full image
+     *
+     * @return the first column
+     */
+    public int getFromCol() {
+        return fromCol;
+    }
+
+    /**
+     * Get the row of the upper-left pixel of the tile in the full image
+     *
+     * @return the first row
+     */
+    public int getFromRow() {
+        return fromRow;
+    }
+
+    /**
+     * Get the amount of columns in the tile
+     *
+     * @return the width of the tile
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Get the amount of rows in the tile
+     *
+     * @return the height of the tile
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Writes the color of a pixel into the tile
+     *
+     * @param column the column of the pixel in the full image
+     * @param row    the row of the pixel in the full image
+     * @param color  the color of the pixel
+     */
+    public void writePixel(int column, int row, Color color) {
+        pixels[(row - fromRow) * width + column - fromCol] = color.getColor().getRGB();
+    }
+
+    /**
+     * Reads the RGB value of a pixel of the tile
+     *
+     * @param column the column of the pixel in the full image
+     * @param row    the row of the pixel in the full image
+     * @return the RGB value of the pixel (as in {@link java.awt.Color#getRGB()})
+     */
+    public int getRGB(int column, int row) {
+        return pixels[(row - fromRow) * width + column - fromCol];
+    }
+
+    /**
+     * Writes the tile into a stream
+     *
+     * @param out the stream
+     * @throws IOException if writing to the stream fails
+     */
+    public void write(DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(fromCol);
+        out.writeInt(fromRow);
+        out.writeInt(width);
+        out.writeInt(height);
+        for (int pixel : pixels)
+            out.writeInt(pixel);
+    }
+
+    /**
+     * Reads a tile from a stream
+     *
+     * @param in the stream
+     * @return the tile
+     * @throws IOException if reading from the stream fails or the stream doesn't contain a tile
+     */
+    public static TileBuffer read(DataInput in) throws IOException {
+        if (in.readInt() != MAGIC)
+            throw new IOException("the stream doesn't contain a tile");
+        int fromCol = in.readInt(), fromRow = in.readInt(), width = in.readInt(), height = in.readInt();
+        int[] pixels = new int[checkSize(fromCol, fromRow, width, height)];
+        for (int i = 0; i < pixels.length; i++)
+            pixels[i] = in.readInt();
+        return new TileBuffer(fromCol, fromRow, width, height, pixels);
+    }
+
+    /**
+     * Saves the tile to a file
+     *
+     * @param file the path of the file
+     * @throws IOException if writing the file fails
+     */
+    public void save(Path file) throws IOException {
+        try (var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            write(out);
+        }
+    }
+
+    /**
+     * Loads a tile from a file
+     *
+     * @param file the path of the file
+     * @return the tile
+     * @throws IOException if reading the file fails
+     */
+    public static TileBuffer load(Path file) throws IOException {
+        try (var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            return read(in);
+        }
+    }
+}
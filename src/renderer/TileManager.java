@@ -0,0 +1,119 @@
+package renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+/**
+ * TileManager is a helper class for multi-threaded rendering. It splits the image into rectangular
+ * tiles and hands them out to the render threads.<br/>
+ * Every render thread owns a deque of tiles, filled in advance with a contiguous band of the image.
+ * A thread takes its next tile from the head of its own deque, and when the deque is empty it steals
+ * a tile from the tail of another thread's deque. This way there is no global lock that all the threads
+ * contend on, and no object is allocated per pixel.
+ *
+ * @author Shneor and Emanuel
+ */
+class TileManager {
+    /**
+     * Default size (in pixels) of the side of a tile
+     */
+    static final int DEFAULT_TILE_SIZE = 16;
+
+    /**
+     * The deques of tiles - one for each render thread
+     */
+    private final List<ConcurrentLinkedDeque<Tile>> deques;
+
+    /**
+     * The total amount of tiles in the image
+     */
+    private final int tilesCount;
+
+    /**
+     * Initialize tile manager data for multi-threading
+     *
+     * @param maxRows  the amount of pixel rows
+     * @param maxCols  the amount of pixel columns
+     * @param tileSize the size (in pixels) of the side of a tile
+     * @param workers  the amount of render threads that will fetch tiles
+     */
+    TileManager(int maxRows, int maxCols, int tileSize, int workers) {
+        this(0, 0, maxCols, maxRows, tileSize, workers);
+    }
+
+    /**
+     * Initialize tile manager data for multi-threading of a region of the image
+     *
+     * @param fromCol  the first column of the region (inclusive)
+     * @param fromRow  the first row of the region (inclusive)
+     * @param toCol    the last column of the region (exclusive)
+     * @param toRow    the last row of the region (exclusive)
+     * @param tileSize the size (in pixels) of the side of a tile
+     * @param workers  the amount of render threads that will fetch tiles
+     */
+    TileManager(int fromCol, int fromRow, int toCol, int toRow, int tileSize, int workers) {
+        if (tileSize <= 0)
+            throw new IllegalArgumentException("tile size must be positive");
+        if (workers <= 0)
+            throw new IllegalArgumentException("there must be at least one worker");
+
+        int tileRows = (toRow - fromRow + tileSize - 1) / tileSize;
+        int tileCols = (toCol - fromCol + tileSize - 1) / tileSize;
+        tilesCount = tileRows * tileCols;
+
+        deques = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++)
+            deques.add(new ConcurrentLinkedDeque<>());
+
+        // every worker gets a contiguous band of tiles (in scan order) so neighbouring tiles stay in the same thread
+        int index = 0;
+        for (int tileRow = 0; tileRow < tileRows; tileRow++) {
+            for (int tileCol = 0; tileCol < tileCols; tileCol++, index++) {
+                int tileFromRow = fromRow + tileRow * tileSize, tileFromCol = fromCol + tileCol * tileSize;
+                deques.get((int) ((long) index * workers / tilesCount)).addLast(new Tile(
+                        tileFromCol, tileFromRow,
+                        Math.min(tileFromCol + tileSize, toCol), Math.min(tileFromRow + tileSize, toRow)));
+            }
+        }
+    }
+
+    /**
+     * Get the total amount of tiles in the image
+     *
+     * @return the amount of tiles
+     */
+    int getTilesCount() {
+        return tilesCount;
+    }
+
+    /**
+     * Provides the next tile for a render thread. The thread first takes tiles from its own deque,
+     * and when it is exhausted steals from the other threads' deques.
+     *
+     * @param worker the index of the render thread asking for a tile
+     * @return the next tile to render, null if there are no more tiles
+     */
+    Tile nextTile(int worker) {
+        Tile tile = deques.get(worker).pollFirst();
+        if (tile != null) return tile;
+
+        int workers = deques.size();
+        for (int i = 1; i < workers; i++) {
+            tile = deques.get((worker + i) % workers).pollLast();
+            if (tile != null) return tile;
+        }
+        return null;
+    }
+
+    /**
+     * Immutable class for object containing an allocated tile - a rectangle of pixels
+     *
+     * @param fromCol the first column of the tile (inclusive)
+     * @param fromRow the first row of the tile (inclusive)
+     * @param toCol   the last column of the tile (exclusive)
+     * @param toRow   the last row of the tile (exclusive)
+     */
+    record Tile(int fromCol, int fromRow, int toCol, int toRow) {
+    }
+}
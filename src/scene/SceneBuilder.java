@@ -2,18 +2,28 @@ package scene;
 
 import geometries.*;
 import lighting.AmbientLight;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
 import org.w3c.dom.*;
-import primitives.Color;
-import primitives.Point;
-import primitives.Double3;
+import primitives.*;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
+import org.xml.sax.InputSource;
 import java.io.File;
+import java.io.StringReader;
 import java.util.LinkedList;
 import java.util.List;
 
 /**
  * A class to build a scene from an XML file.
+ * <p>
+ * Besides the geometries, the document may hold the lights of the scene (in a {@code lights} element),
+ * and every geometry may have an {@code emission} color and the coefficients of its material
+ * ({@code kd}, {@code ks}, {@code kt}, {@code kr} and {@code shininess}).
+ * {@link SceneWriter} writes a scene in this format.
+ * </p>
  */
 public class SceneBuilder {
 
@@ -31,44 +41,81 @@ public class SceneBuilder {
             // Initialize XML document builder
             DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
             DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
-            Document doc = dBuilder.parse(inputFile);
+            return buildScene(dBuilder.parse(inputFile));
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to parse XML file");
+        }
+    }
 
-            // Normalize XML document
-            doc.getDocumentElement().normalize();
+    /**
+     * Builds a Scene object from the text of an XML document (for example a scene that was sent over the network).
+     *
+     * @param xml the XML document
+     * @return the built Scene object
+     */
+    public static Scene buildSceneFromXmlString(String xml) {
+        try {
+            // Initialize XML document builder
+            DocumentBuilderFactory dbFactory = DocumentBuilderFactory.newInstance();
+            DocumentBuilder dBuilder = dbFactory.newDocumentBuilder();
+            return buildScene(dBuilder.parse(new InputSource(new StringReader(xml))));
+        } catch (Exception e) {
+            e.printStackTrace();
+            throw new RuntimeException("Failed to parse XML document");
+        }
+    }
 
-            // Get scene name
-            String sceneName = doc.getDocumentElement().getAttribute("name");
-            Scene scene = new Scene(sceneName);
+    /**
+     * Builds a Scene object from a parsed XML document.
+     *
+     * @param doc the XML document
+     * @return the built Scene object
+     */
+    private static Scene buildScene(Document doc) {
+        // Normalize XML document
+        doc.getDocumentElement().normalize();
 
-            // Parse background color
-            String bgColorStr = doc.getDocumentElement().getAttribute("background-color");
-            scene.setBackground(parseColor(bgColorStr));
+        // Get scene name
+        String sceneName = doc.getDocumentElement().getAttribute("name");
+        Scene scene = new Scene(sceneName);
 
-            // Parse ambient light
-            Node ambientLightNode = doc.getElementsByTagName("ambient-light").item(0);
-            if (ambientLightNode != null) {
-                Element ambientLightElement = (Element) ambientLightNode;
-                String alColorStr = ambientLightElement.getAttribute("color");
-                scene.setAmbientLight(new AmbientLight(parseColor(alColorStr), Double3.ONE));
-            }
+        // Parse background color
+        String bgColorStr = doc.getDocumentElement().getAttribute("background-color");
+        scene.setBackground(parseColor(bgColorStr));
 
-            // Parse geometries
-            Geometries geometries = new Geometries();
-            NodeList geometryList = doc.getElementsByTagName("geometries").item(0).getChildNodes();
-            for (int i = 0; i < geometryList.getLength(); i++) {
-                Node geometryNode = geometryList.item(i);
-                if (geometryNode.getNodeType() == Node.ELEMENT_NODE) {
-                    Element geometryElement = (Element) geometryNode;
-                    geometries.add(parseGeometry(geometryElement));
-                }
+        // Parse ambient light
+        Node ambientLightNode = doc.getElementsByTagName("ambient-light").item(0);
+        if (ambientLightNode != null) {
+            Element ambientLightElement = (Element) ambientLightNode;
+            String alColorStr = ambientLightElement.getAttribute("color");
+            scene.setAmbientLight(new AmbientLight(parseColor(alColorStr), Double3.ONE));
+        }
+
+        // Parse lights
+        Node lightsNode = doc.getElementsByTagName("lights").item(0);
+        if (lightsNode != null) {
+            NodeList lightList = lightsNode.getChildNodes();
+            for (int i = 0; i < lightList.getLength(); i++) {
+                Node lightNode = lightList.item(i);
+                if (lightNode.getNodeType() == Node.ELEMENT_NODE)
+                    scene.lights.add(parseLight((Element) lightNode));
             }
-            scene.setGeometries(geometries);
+        }
 
-            return scene;
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException("Failed to parse XML file");
+        // Parse geometries
+        Geometries geometries = new Geometries();
+        NodeList geometryList = doc.getElementsByTagName("geometries").item(0).getChildNodes();
+        for (int i = 0; i < geometryList.getLength(); i++) {
+            Node geometryNode = geometryList.item(i);
+            if (geometryNode.getNodeType() == Node.ELEMENT_NODE) {
+                Element geometryElement = (Element) geometryNode;
+                geometries.add(parseGeometry(geometryElement));
+            }
         }
+        scene.setGeometries(geometries);
+
+        return scene;
     }
 
     /**
@@ -83,12 +130,36 @@ public class SceneBuilder {
     }
 
     /**
-     * Parses a geometry element and returns the corresponding Geometry object.
+     * Parses a geometry element and returns the corresponding Geometry object, with its emission and material.
      *
      * @param geometryElement the geometry element
      * @return the parsed Geometry object
      */
     private static Geometry parseGeometry(Element geometryElement) {
+        Geometry geometry = parseShape(geometryElement);
+        if (geometryElement.hasAttribute("emission"))
+            geometry.setEmission(parseColor(geometryElement.getAttribute("emission")));
+        Material material = new Material();
+        if (geometryElement.hasAttribute("kd"))
+            material.setKD(parseDouble3(geometryElement.getAttribute("kd")));
+        if (geometryElement.hasAttribute("ks"))
+            material.setKS(parseDouble3(geometryElement.getAttribute("ks")));
+        if (geometryElement.hasAttribute("kt"))
+            material.setKT(parseDouble3(geometryElement.getAttribute("kt")));
+        if (geometryElement.hasAttribute("kr"))
+            material.setKR(parseDouble3(geometryElement.getAttribute("kr")));
+        if (geometryElement.hasAttribute("shininess"))
+            material.setNShininess(Integer.parseInt(geometryElement.getAttribute("shininess")));
+        return geometry.setMaterial(material);
+    }
+
+    /**
+     * Parses the shape of a geometry element and returns the corresponding Geometry object.
+     *
+     * @param geometryElement the geometry element
+     * @return the parsed Geometry object
+     */
+    private static Geometry parseShape(Element geometryElement) {
 
         String type = geometryElement.getTagName();
         switch (type) {
@@ -111,11 +182,107 @@ public class SceneBuilder {
                     i++;
                 }
                 return new Polygon(points);
+            case "plane":
+                return new Plane(parsePoint(geometryElement.getAttribute("q")),
+                        parseVector(geometryElement.getAttribute("normal")));
+            case "tube":
+                return new Tube(Double.parseDouble(geometryElement.getAttribute("radius")), parseAxis(geometryElement));
+            case "cylinder":
+                return new Cylinder(Double.parseDouble(geometryElement.getAttribute("radius")), parseAxis(geometryElement),
+                        Double.parseDouble(geometryElement.getAttribute("height")));
+            case "mesh":
+                String[] coordinates = geometryElement.getAttribute("vertices").trim().split("\\s+");
+                double[] vertices = new double[coordinates.length];
+                for (int j = 0; j < vertices.length; j++)
+                    vertices[j] = Double.parseDouble(coordinates[j]);
+                String[] indexStrings = geometryElement.getAttribute("indexes").trim().split("\\s+");
+                int[] indexes = new int[indexStrings.length];
+                for (int j = 0; j < indexes.length; j++)
+                    indexes[j] = Integer.parseInt(indexStrings[j]);
+                return new Mesh(vertices, indexes);
             default:
                 throw new IllegalArgumentException("Unknown geometry type: " + type);
         }
     }
 
+    /**
+     * Parses the axis of a tube or a cylinder element, given by its head and direction attributes.
+     *
+     * @param geometryElement the tube or cylinder element
+     * @return the parsed axis
+     */
+    private static Ray parseAxis(Element geometryElement) {
+        return new Ray(parsePoint(geometryElement.getAttribute("head")),
+                parseVector(geometryElement.getAttribute("direction")));
+    }
+
+    /**
+     * Parses a light element and returns the corresponding light source.
+     *
+     * @param lightElement the light element
+     * @return the parsed light source
+     */
+    private static LightSource parseLight(Element lightElement) {
+        Color color = parseColor(lightElement.getAttribute("color"));
+        String type = lightElement.getTagName();
+        switch (type) {
+            case "directional-light":
+                return new DirectionalLight(color, parseVector(lightElement.getAttribute("direction")));
+            case "point-light":
+                return parsePointLight(lightElement, new PointLight(color, parsePoint(lightElement.getAttribute("position"))));
+            case "spot-light":
+                SpotLight spotLight = new SpotLight(color, parsePoint(lightElement.getAttribute("position")),
+                        parseVector(lightElement.getAttribute("direction")));
+                if (lightElement.hasAttribute("narrow-beam"))
+                    spotLight.setNarrowBeam(Integer.parseInt(lightElement.getAttribute("narrow-beam")));
+                return parsePointLight(lightElement, spotLight);
+            default:
+                throw new IllegalArgumentException("Unknown light type: " + type);
+        }
+    }
+
+    /**
+     * Parses the attenuation factors and the radius of a point light (or a spot light) element.
+     *
+     * @param lightElement the light element
+     * @param light        the light that gets the factors
+     * @return the light
+     */
+    private static PointLight parsePointLight(Element lightElement, PointLight light) {
+        if (lightElement.hasAttribute("kc"))
+            light.setKC(Double.parseDouble(lightElement.getAttribute("kc")));
+        if (lightElement.hasAttribute("kl"))
+            light.setKL(Double.parseDouble(lightElement.getAttribute("kl")));
+        if (lightElement.hasAttribute("kq"))
+            light.setKQ(Double.parseDouble(lightElement.getAttribute("kq")));
+        if (lightElement.hasAttribute("radius"))
+            light.setRadius(Double.parseDouble(lightElement.getAttribute("radius")));
+        return light;
+    }
+
+    /**
+     * Parses coefficients in the format "K" (the same for all the components) or "K1 K2 K3".
+     *
+     * @param double3Str the coefficients string
+     * @return the parsed coefficients
+     */
+    private static Double3 parseDouble3(String double3Str) {
+        String[] k = double3Str.trim().split(" ");
+        return k.length == 1 ? new Double3(Double.parseDouble(k[0]))
+                : new Double3(Double.parseDouble(k[0]), Double.parseDouble(k[1]), Double.parseDouble(k[2]));
+    }
+
+    /**
+     * Parses a vector string in the format "X Y Z" and returns a Vector object.
+     *
+     * @param vectorStr the vector string
+     * @return the parsed Vector object
+     */
+    private static Vector parseVector(String vectorStr) {
+        String[] xyz = vectorStr.split(" ");
+        return new Vector(Double.parseDouble(xyz[0]), Double.parseDouble(xyz[1]), Double.parseDouble(xyz[2]));
+    }
+
     /**
      * Parses a point string in the format "X Y Z" and returns a Point object.
      *
@@ -0,0 +1,259 @@
+package scene;
+
+import geometries.*;
+import lighting.DirectionalLight;
+import lighting.LightSource;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import primitives.*;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.StringWriter;
+import java.util.List;
+
+/**
+ * A class to write a scene as an XML document, in the format that {@link SceneBuilder} reads.
+ * <p>
+ * The numbers are written with all their digits, so the scene that is read back renders exactly the same image.
+ * The hierarchy of the geometries is not written - the geometries are written as a flat list,
+ * and the reader may build its own hierarchy over them.
+ * </p>
+ *
+ * @author Shneor and Emanuel
+ */
+public class SceneWriter {
+
+    /**
+     * Don't let anyone instantiate this class.
+     */
+    private SceneWriter() {
+    }
+
+    /**
+     * Writes a scene as the text of an XML document.
+     *
+     * @param scene the scene
+     * @return the XML document
+     * @throws IllegalArgumentException if the scene holds a geometry or a light that the format doesn't support
+     */
+    public static String writeSceneToXmlString(Scene scene) {
+        try {
+            Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+            Element root = doc.createElement("scene");
+            doc.appendChild(root);
+            if (scene.name != null)
+                root.setAttribute("name", scene.name);
+            root.setAttribute("background-color", format(scene.background));
+
+            Element ambientLight = doc.createElement("ambient-light");
+            ambientLight.setAttribute("color", format(scene.ambientLight.getIntensity()));
+            root.appendChild(ambientLight);
+
+            Element lights = doc.createElement("lights");
+            for (LightSource light : scene.lights)
+                lights.appendChild(writeLight(doc, light));
+            root.appendChild(lights);
+
+            Element geometries = doc.createElement("geometries");
+            writeGeometries(doc, geometries, scene.geometries);
+            root.appendChild(geometries);
+
+            var transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+            StringWriter xml = new StringWriter();
+            transformer.transform(new DOMSource(doc), new StreamResult(xml));
+            return xml.toString();
+        } catch (ParserConfigurationException | TransformerException e) {
+            throw new IllegalStateException("Failed to write XML document", e);
+        }
+    }
+
+    /**
+     * Writes the geometries of a container (and of the containers inside it) as a flat list of elements.
+     *
+     * @param doc       the XML document
+     * @param parent    the element that gets the geometry elements
+     * @param container the container
+     */
+    private static void writeGeometries(Document doc, Element parent, Container container) {
+        switch (container) {
+            case Geometries geometries -> {
+                for (Container inner : geometries.getContainerList())
+                    writeGeometries(doc, parent, inner);
+            }
+            case FlatBvh flatBvh -> {
+                for (Container inner : flatBvh.getGeometries())
+                    writeGeometries(doc, parent, inner);
+            }
+            case Geometry geometry -> parent.appendChild(writeGeometry(doc, geometry));
+            default -> throw new IllegalArgumentException("Unsupported container: " + container.getClass().getName());
+        }
+    }
+
+    /**
+     * Writes a geometry element, with its emission and material.
+     *
+     * @param doc      the XML document
+     * @param geometry the geometry
+     * @return the geometry element
+     */
+    private static Element writeGeometry(Document doc, Geometry geometry) {
+        Element element = writeShape(doc, geometry);
+        element.setAttribute("emission", format(geometry.getEmission()));
+        Material material = geometry.getMaterial();
+        element.setAttribute("kd", format(material.kD));
+        element.setAttribute("ks", format(material.kS));
+        element.setAttribute("kt", format(material.kT));
+        element.setAttribute("kr", format(material.kR));
+        element.setAttribute("shininess", Integer.toString(material.nShininess));
+        return element;
+    }
+
+    /**
+     * Writes the shape of a geometry as an element.
+     *
+     * @param doc      the XML document
+     * @param geometry the geometry
+     * @return the geometry element
+     */
+    private static Element writeShape(Document doc, Geometry geometry) {
+        Element element;
+        switch (geometry) {
+            case Sphere sphere -> {
+                element = doc.createElement("sphere");
+                element.setAttribute("center", format(sphere.getCenter()));
+                element.setAttribute("radius", Double.toString(sphere.getRadius()));
+            }
+            case Triangle triangle -> {
+                element = doc.createElement("triangle");
+                List<Point> vertices = triangle.getVertices();
+                for (int i = 0; i < 3; i++)
+                    element.setAttribute("p" + i, format(vertices.get(i)));
+            }
+            case Polygon polygon -> {
+                element = doc.createElement("polygon");
+                List<Point> vertices = polygon.getVertices();
+                for (int i = 0; i < vertices.size(); i++)
+                    element.setAttribute("p" + i, format(vertices.get(i)));
+            }
+            case Plane plane -> {
+                element = doc.createElement("plane");
+                element.setAttribute("q", format(plane.getQ()));
+                element.setAttribute("normal", format(plane.getNormal()));
+            }
+            case Cylinder cylinder -> {
+                element = writeAxis(doc.createElement("cylinder"), cylinder);
+                element.setAttribute("height", Double.toString(cylinder.getHeight()));
+            }
+            case Tube tube -> element = writeAxis(doc.createElement("tube"), tube);
+            case Mesh mesh -> {
+                element = doc.createElement("mesh");
+                StringBuilder vertices = new StringBuilder();
+                for (double coordinate : mesh.getVertices())
+                    vertices.append(vertices.isEmpty() ? "" : " ").append(coordinate);
+                StringBuilder indexes = new StringBuilder();
+                for (int index : mesh.getIndexes())
+                    indexes.append(indexes.isEmpty() ? "" : " ").append(index);
+                element.setAttribute("vertices", vertices.toString());
+                element.setAttribute("indexes", indexes.toString());
+            }
+            default -> throw new IllegalArgumentException("Unsupported geometry: " + geometry.getClass().getName());
+        }
+        return element;
+    }
+
+    /**
+     * Writes the radius and the axis of a tube (or a cylinder) into its element.
+     *
+     * @param element the tube element
+     * @param tube    the tube
+     * @return the element
+     */
+    private static Element writeAxis(Element element, Tube tube) {
+        element.setAttribute("radius", Double.toString(tube.getRadius()));
+        element.setAttribute("head", format(tube.getAxis().getHead()));
+        element.setAttribute("direction", format(tube.getAxis().getDirection()));
+        return element;
+    }
+
+    /**
+     * Writes a light element.
+     *
+     * @param doc   the XML document
+     * @param light the light
+     * @return the light element
+     */
+    private static Element writeLight(Document doc, LightSource light) {
+        Element element;
+        switch (light) {
+            case SpotLight spotLight -> {
+                element = writePointLight(doc.createElement("spot-light"), spotLight);
+                element.setAttribute("direction", format(spotLight.getDirection()));
+                element.setAttribute("narrow-beam", Integer.toString(spotLight.getNarrowBeam()));
+            }
+            case PointLight pointLight -> element = writePointLight(doc.createElement("point-light"), pointLight);
+            case DirectionalLight directionalLight -> {
+                element = doc.createElement("directional-light");
+                element.setAttribute("color", format(directionalLight.getIntensity()));
+                element.setAttribute("direction", format(directionalLight.getDirection()));
+            }
+            default -> throw new IllegalArgumentException("Unsupported light: " + light.getClass().getName());
+        }
+        return element;
+    }
+
+    /**
+     * Writes the intensity, position, attenuation factors and radius of a point light (or a spot light).
+     *
+     * @param element the light element
+     * @param light   the light
+     * @return the element
+     */
+    private static Element writePointLight(Element element, PointLight light) {
+        element.setAttribute("color", format(light.getIntensity()));
+        element.setAttribute("position", format(light.getPosition()));
+        element.setAttribute("kc", Double.toString(light.getKC()));
+        element.setAttribute("kl", Double.toString(light.getKL()));
+        element.setAttribute("kq", Double.toString(light.getKQ()));
+        element.setAttribute("radius", Double.toString(light.getRadius()));
+        return element;
+    }
+
+    /**
+     * Formats a color as "R G B".
+     *
+     * @param color the color
+     * @return the formatted color
+     */
+    private static String format(Color color) {
+        return format(color.getRgb());
+    }
+
+    /**
+     * Formats coefficients as "K1 K2 K3".
+     *
+     * @param double3 the coefficients
+     * @return the formatted coefficients
+     */
+    private static String format(Double3 double3) {
+        return double3.getD1() + " " + double3.getD2() + " " + double3.getD3();
+    }
+
+    /**
+     * Formats a point (or a vector) as "X Y Z".
+     *
+     * @param point the point
+     * @return the formatted point
+     */
+    private static String format(Point point) {
+        return point.getX() + " " + point.getY() + " " + point.getZ();
+    }
+}
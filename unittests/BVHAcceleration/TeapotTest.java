@@ -2,25 +2,35 @@ package BVHAcceleration;
 
 import static java.awt.Color.YELLOW;
 
+import geometries.Container;
 import geometries.Geometries;
 import geometries.Geometry;
+import geometries.HitRecord;
+import geometries.Polygon;
 
+import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
 
 import geometries.Triangle;
 import lighting.PointLight;
 import primitives.Color;
 import primitives.Material;
 import primitives.Point;
+import primitives.Ray;
 import primitives.Vector;
 import renderer.Camera;
 import renderer.ImageWriter;
+import renderer.RenderStatistics;
 import renderer.SimpleRayTracer;
 import scene.Scene;
 
 import java.util.List;
 import java.util.Random;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static primitives.Util.isZero;
+
 /**
  * Test rendering an image
  *
@@ -591,6 +601,94 @@ public class TeapotTest {
         teapot(false);
     }
 
+    /**
+     * Test that the Möller–Trumbore kernel of {@link Triangle} finds the same closest hits on the teapot as the
+     * previous intersection of the plane followed by the barycentric coordinates ({@link PlaneTriangle})
+     */
+    @Test
+    public void teapotTriangleKernels() {
+        Geometries triangles = teapotGeometries(false);
+        Geometries planeTriangles = teapotGeometries(true);
+        Point location = new Point(0, 0, -1000);
+        for (double x = -99.5; x < 100; x += 2)
+            for (double y = -99.5; y < 100; y += 2) {
+                Ray ray = new Ray(location, new Point(x, y, 0).subtract(location));
+                HitRecord hit = new HitRecord();
+                HitRecord expected = new HitRecord();
+                assertEquals(planeTriangles.findClosestHit(ray, expected), triangles.findClosestHit(ray, hit),
+                        "the kernels should hit the same rays");
+                if (hit.isHit())
+                    assertEquals(expected.getDistance(), hit.getDistance(), 1e-6,
+                            "the kernels should find the same closest hit");
+            }
+    }
+
+    /**
+     * Benchmarks the Möller–Trumbore kernel of {@link Triangle} against the previous intersection of the plane
+     * followed by the barycentric coordinates ({@link PlaneTriangle}), on the teapot with the surface area
+     * heuristic tree. Every kernel renders once to warm up, and then its second render is timed.
+     *
+     * @param reporter the reporter of the timings
+     */
+    @Test
+    @Disabled("a benchmark of four 800x800 renders - run it by hand")
+    public void teapotTriangleKernelsBenchmark(TestReporter reporter) {
+        teapot(true, 4, true);
+        teapot(true, 4, false);
+        reporter.publishEntry("plane and barycentric (ms)", String.valueOf(teapot(true, 4, true)));
+        reporter.publishEntry("Moller-Trumbore (ms)", String.valueOf(teapot(true, 4, false)));
+    }
+
+    /**
+     * A triangle intersected the way {@link Triangle} was intersected before its Möller–Trumbore kernel -
+     * the intersection with the plane first, and then its barycentric coordinates. It is the reference
+     * of {@link #teapotTriangleKernels()} and {@link #teapotTriangleKernelsBenchmark(TestReporter)}.
+     */
+    private static class PlaneTriangle extends Polygon {
+        /**
+         * Constructs a triangle
+         *
+         * @param vertices the vertices of the triangle
+         */
+        PlaneTriangle(List<Point> vertices) {
+            super(vertices);
+        }
+
+        @Override
+        public List<GeoPoint> findGeoIntersectionsHelper(Ray ray, double maxDistance) {
+            List<Point> planeIntersections = plane.findIntersections(ray, maxDistance);
+            if (planeIntersections == null)
+                return null;
+            Point p = planeIntersections.getFirst();
+            if (p.equals(vertices.get(0)) || p.equals(vertices.get(1)) || p.equals(vertices.get(2)))
+                return null;
+
+            Vector v0v1 = vertices.get(1).subtract(vertices.get(0));
+            Vector v0v2 = vertices.get(2).subtract(vertices.get(0));
+            Vector v0p = p.subtract(vertices.get(0));
+            double dot00 = v0v2.dotProduct(v0v2);
+            double dot01 = v0v2.dotProduct(v0v1);
+            double dot02 = v0v2.dotProduct(v0p);
+            double dot11 = v0v1.dotProduct(v0v1);
+            double dot12 = v0v1.dotProduct(v0p);
+            double invDenom = 1 / (dot00 * dot11 - dot01 * dot01);
+            double u = (dot11 * dot02 - dot01 * dot12) * invDenom;
+            double v = (dot00 * dot12 - dot01 * dot02) * invDenom;
+            if (!isZero(u) && u > 0 && !isZero(v) && v > 0 && !isZero(u + v - 1) && u + v < 1)
+                return List.of(new GeoPoint(this, p));
+            return null;
+        }
+
+        @Override
+        protected boolean findClosestHitHelper(Ray ray, HitRecord hit) {
+            GeoPoint closest = ray.findClosestGeoPoint(findGeoIntersectionsHelper(ray, hit.getDistance()));
+            if (closest == null)
+                return false;
+            hit.set(this, ray.getHead().distance(closest.point));
+            return true;
+        }
+    }
+
     /**
      * @param bvh whether should use the bvh acceleration
      *            Produce a scene with a 3D model and render it into a png image
@@ -607,15 +705,95 @@ public class TeapotTest {
      * @param buildTree which tree should build if at all
      *                  1 for binary tree with the distance measured from the edges
      *                  2 for binary tree with the distance measured from the centers
+     *                  3 for the automatically built tree
+     *                  4 for binary tree built by the surface area heuristic
+     *                  5 for linear binary tree built by Morton codes
+     *                  6 for the surface area heuristic tree compiled into flat arrays
      * @return the time that the rendering took
      */
     static public long teapot(boolean bvh, int buildTree) {
+        return teapot(bvh, buildTree, false);
+    }
+
+    /**
+     * Produce a scene with a 3D model and render it into a png image
+     *
+     * @param bvh            whether should use the bvh acceleration
+     * @param buildTree      which tree should build if at all, see {@link #teapot(boolean, int)}
+     * @param planeTriangles whether the triangles are intersected by the plane and the barycentric coordinates
+     *                       (see {@link PlaneTriangle}) instead of the Möller–Trumbore kernel of {@link Triangle}
+     * @return the time that the rendering took
+     */
+    static public long teapot(boolean bvh, int buildTree, boolean planeTriangles) {
         final Scene scene = new Scene("Test scene");
 
         final ImageWriter imageWriter = new ImageWriter("teapot", 800, 800);
-        scene.geometries = new Geometries();
+        scene.geometries = teapotGeometries(planeTriangles);
+        for (var geometry : scene.geometries.getContainerList()) {
+            if (geometry instanceof Geometry g)
+                g.setEmission(randomColor());
+        }
+        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -100)).setKQ(0.000001));
+
+        scene.geometries.turnOnOffBvh(bvh);
+        switch (buildTree) {
+            case 1:
+                scene.geometries.buildBinaryBvhTree(true); // Build BVH tree with default settings
+                break;
+            case 2:
+                scene.geometries.buildBinaryBvhTree(false); // Build BVH tree with a specific option
+                break;
+            case 3:
+                scene.geometries.buildBvhTree();
+                break;
+            case 4:
+                scene.geometries.buildSahBvhTree(); // Build BVH tree by the surface area heuristic
+                break;
+            case 5:
+                scene.geometries.buildLinearBvhTree(); // Build linear BVH tree by Morton codes
+                break;
+            case 6:
+                scene.geometries.buildSahBvhTree(); // Build BVH tree by the surface area heuristic
+                scene.geometries.compileFlatBvh(); // and compile it into flat arrays
+                break;
+            default:
+                break;
+        }
+
+        final RenderStatistics statistics = new RenderStatistics();
+        final Camera camera = Camera.getBuilder()
+                .setLocation(new Point(0, 0, -1000))
+                .setDirection(new Vector(0, 0, 1), new Vector(0, 1, 0))  //
+                .setVpDistance(1000)
+                .setVpSize(200, 200) //
+                .setImageWriter(imageWriter) //
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setMultithreading(5)
+                .setStatistics(statistics)
+                .build();
+        long start = System.currentTimeMillis();
+        camera
+                .renderImage()
+                .printGrid(50, new Color(YELLOW))
+                .writeToImage();
+        long finish = System.currentTimeMillis();
+        assertEquals(800L * 800, statistics.getPrimaryRays(), "every pixel should trace one primary ray");
+        assertEquals(5, statistics.getBusyTimes().size(), "every render thread should be reported");
+
+        return finish - start;
+    }
+
+    /**
+     * Produce the triangles of the teapot model
+     *
+     * @param planeTriangles whether the triangles are intersected by the plane and the barycentric coordinates
+     *                       (see {@link PlaneTriangle}) instead of the Möller–Trumbore kernel of {@link Triangle}
+     * @return the triangles of the teapot
+     */
+    private static Geometries teapotGeometries(boolean planeTriangles) {
+        Geometries geometries = new Geometries();
         //region triangles
-        scene.geometries.add( //
+        geometries.add( //
                 new Triangle(points[7], points[6], points[1]).setEmission(color).setMaterial(mat), //
                 new Triangle(points[1], points[2], points[7]).setEmission(color).setMaterial(mat), //
                 new Triangle(points[8], points[7], points[2]).setEmission(color).setMaterial(mat), //
@@ -1611,43 +1789,14 @@ public class TeapotTest {
         );
         //endregion
 
-        for (var geometry : scene.geometries.getContainerList()) {
-            if (geometry instanceof Geometry g)
-                g.setEmission(randomColor());
-        }
-        scene.lights.add(new PointLight(new Color(500, 500, 500), new Point(100, 0, -100)).setKQ(0.000001));
-
-        scene.geometries.turnOnOffBvh(bvh);
-        switch (buildTree) {
-            case 1:
-                scene.geometries.buildBinaryBvhTree(true); // Build BVH tree with default settings
-                break;
-            case 2:
-                scene.geometries.buildBinaryBvhTree(false); // Build BVH tree with a specific option
-                break;
-            case 3:
-                scene.geometries.buildBvhTree();
-            default:
-                break;
-        }
-
-        final Camera camera = Camera.getBuilder()
-                .setLocation(new Point(0, 0, -1000))
-                .setDirection(new Vector(0, 0, 1), new Vector(0, 1, 0))  //
-                .setVpDistance(1000)
-                .setVpSize(200, 200) //
-                .setImageWriter(imageWriter) //
-                .setRayTracer(new SimpleRayTracer(scene))
-                .setMultithreading(5)
-                .build();
-        long start = System.currentTimeMillis();
-        camera
-                .renderImage()
-                .printGrid(50, new Color(YELLOW))
-                .writeToImage();
-        long finish = System.currentTimeMillis();
-
-        return finish - start;
+        if (!planeTriangles)
+            return geometries;
+        Geometries triangles = new Geometries();
+        for (Container geometry : geometries.getContainerList())
+            if (geometry instanceof Triangle triangle)
+                triangles.add(new PlaneTriangle(triangle.getVertices()).setMaterial(mat));
+        return triangles;
     }
 
+
 }
\ No newline at end of file
@@ -22,15 +22,24 @@ public class TestAutomaticBuildingOfHierarchyStage3 {
         long withBinaryTreeEdgesBvh = renderFunction.apply(true, 1); // Binary tree with distance measured by edges
         long withBinaryTreeCentersBvh = renderFunction.apply(true, 2); // Binary tree with distance measured by centers
         long withTreeBvh = renderFunction.apply(true, 3); // Automatically built tree
+        long withSahBvh = renderFunction.apply(true, 4); // Binary tree built by the surface area heuristic
+        long withLinearBvh = renderFunction.apply(true, 5); // Linear binary tree built by Morton codes
+        long withCompiledBvh = renderFunction.apply(true, 6); // SAH tree compiled into flat arrays
 
         System.out.println(sceneName);
         System.out.println("The run with the flat BVH was " + withFlatBvh + " ms");
         System.out.println("The run with the automatically built binary tree was (distance measured by edges) " + withBinaryTreeEdgesBvh + mls);
         System.out.println("The run with the automatically built binary tree was (distance measured by centers) " + withBinaryTreeCentersBvh + mls);
         System.out.println("The run with the automatically built tree was " + withTreeBvh + mls);
+        System.out.println("The run with the surface area heuristic tree was " + withSahBvh + mls);
+        System.out.println("The run with the linear (Morton codes) tree was " + withLinearBvh + mls);
+        System.out.println("The run with the compiled SAH tree was " + withCompiledBvh + mls);
         System.out.println("The code with the binary tree (Edges) was " + (double) withFlatBvh / withBinaryTreeEdgesBvh + " times faster with the tree than with the flat BVH.");
         System.out.println("The code with the binary tree (Centers) was " + (double) withFlatBvh / withBinaryTreeCentersBvh + " times faster with the tree than with the flat BVH.");
         System.out.println("The code with the tree was " + (double) withFlatBvh / withTreeBvh + " times faster with the tree than with the flat BVH.");
+        System.out.println("The code with the SAH tree was " + (double) withFlatBvh / withSahBvh + " times faster with the tree than with the flat BVH.");
+        System.out.println("The code with the linear tree was " + (double) withFlatBvh / withLinearBvh + " times faster with the tree than with the flat BVH.");
+        System.out.println("The code with the compiled SAH tree was " + (double) withFlatBvh / withCompiledBvh + " times faster with the tree than with the flat BVH.");
         System.out.println();
     }
 
@@ -0,0 +1,135 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for geometries.FlatBvh class
+ *
+ * @author Shneor and Emanuel
+ */
+class FlatBvhTest {
+
+    /**
+     * Checks that two intersectables find the same intersections with a ray
+     *
+     * @param expected    the reference intersectable
+     * @param result      the tested intersectable
+     * @param ray         the ray
+     * @param maxDistance the max distance of the intersections
+     */
+    private static void assertSameIntersections(Intersectable expected, Intersectable result, Ray ray,
+                                                double maxDistance) {
+        List<Point> expectedPoints = expected.findIntersections(ray, maxDistance);
+        List<Point> resultPoints = result.findIntersections(ray, maxDistance);
+        assertEquals(expectedPoints == null ? 0 : expectedPoints.size(), resultPoints == null ? 0 : resultPoints.size(),
+                "wrong number of points");
+        if (expectedPoints != null)
+            assertTrue(resultPoints.containsAll(expectedPoints), "wrong points");
+    }
+
+    /**
+     * Test method for {@link FlatBvh#findGeoIntersections(Ray, double)}.
+     */
+    @Test
+    void testFindGeoIntersections() {
+        Geometries flat = new Geometries(), sah = new Geometries(), octree = new Geometries();
+        Plane plane = new Plane(new Point(0, 0, -50), new Vector(0, 0, 1));
+        flat.add(plane);
+        sah.add(plane);
+        octree.add(plane);
+        for (int i = 0; i < 20; i++)
+            for (int j = 0; j < 20; j++) {
+                Geometry sphere = new Sphere(new Point(3 * i, 3 * j, -(i * j % 7)), 1)
+                        .setMaterial(new Material().setKT(0.5));
+                Triangle triangle = new Triangle(new Point(3 * i, 3 * j, -20),
+                        new Point(3 * i + 2, 3 * j, -20), new Point(3 * i, 3 * j + 2, -20));
+                flat.add(sphere, triangle);
+                sah.add(sphere, triangle);
+                octree.add(sphere, triangle);
+            }
+        sah.buildSahBvhTree();
+        octree.buildBvhTree();
+        FlatBvh compiledSah = new FlatBvh(sah), compiledOctree = new FlatBvh(octree);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a compiled binary hierarchy finds the same intersections as the flat list
+        // TC02: a compiled hierarchy with nodes of many children and geometries next to sub-trees
+        for (int i = 0; i < 60; i += 3) {
+            Ray ray = new Ray(new Point(i + 0.5, 0.7 * i + 0.3, 10), new Vector(0.01 * i, -0.02, -1));
+            assertSameIntersections(flat, compiledSah, ray, Double.POSITIVE_INFINITY);
+            assertSameIntersections(flat, compiledOctree, ray, Double.POSITIVE_INFINITY);
+            assertSameIntersections(flat, compiledSah, ray, 25);
+        }
+
+        // TC03: the closest intersection found front to back is the closest of all the intersections
+        for (int i = 0; i < 60; i += 3) {
+            Ray ray = new Ray(new Point(i + 0.5, 0.7 * i + 0.3, 10), new Vector(0.01 * i, -0.02, -1));
+            Point expected = ray.findClosestPoint(flat.findIntersections(ray));
+            assertEquals(expected, compiledSah.findClosestGeoIntersection(ray).point, "wrong closest point");
+            assertEquals(expected, compiledOctree.findClosestGeoIntersection(ray).point, "wrong closest point");
+        }
+
+        // TC04: the transmittance along the ray is the same as through the flat list
+        for (int i = 0; i < 60; i += 3) {
+            Ray ray = new Ray(new Point(i + 0.5, 0.7 * i + 0.3, 10), new Vector(0.01 * i, -0.02, -1));
+            assertEquals(flat.findTransparency(ray, 45), compiledSah.findTransparency(ray, 45),
+                    "wrong transmittance");
+        }
+
+        // TC05: the plane can't be bounded, so neither can the compiled hierarchy
+        assertNull(compiledSah.getBoundingBox(), "a plane can't be bounded");
+
+        // =============== Boundary Values Tests ==================
+        // TC06: a ray parallel to an axis, along the faces of the boxes of the triangles
+        assertSameIntersections(flat, compiledSah, new Ray(new Point(-5, 0.5, -20), new Vector(1, 0, 0)),
+                Double.POSITIVE_INFINITY);
+
+        // TC07: a single geometry
+        Sphere sphere = new Sphere(new Point(1, 2, 3), 1);
+        FlatBvh single = new FlatBvh(sphere);
+        assertEquals(1, single.getNodesCount(), "a single geometry is a single leaf");
+        assertNotNull(single.getBoundingBox(), "a sphere should be bounded");
+        assertEquals(2, single.findIntersections(new Ray(new Point(1, 2, 10), new Vector(0, 0, -1))).size(),
+                "wrong number of points");
+
+        // TC08: an empty tree
+        assertNull(new FlatBvh(new Geometries()).findIntersections(new Ray(Point.ZERO, Vector.Z)),
+                "an empty hierarchy has no intersections");
+    }
+
+    /**
+     * Test method for {@link Geometries#compileFlatBvh()}.
+     */
+    @Test
+    void testCompileFlatBvh() {
+        Geometries flat = new Geometries(), tree = new Geometries();
+        for (int i = 0; i < 10; i++) {
+            Sphere sphere = new Sphere(new Point(4 * i, 0, -10), 1);
+            flat.add(sphere);
+            tree.add(sphere);
+        }
+        tree.buildLinearBvhTree();
+        tree.compileFlatBvh();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the tree is replaced by the compiled hierarchy with the same box
+        assertEquals(1, tree.getContainerList().size(), "the tree should hold only the compiled hierarchy");
+        assertInstanceOf(FlatBvh.class, tree.getContainerList().getFirst(), "the tree should be compiled");
+        assertNotNull(tree.getBoundingBox(), "the compiled hierarchy should be bounded");
+        assertEquals(-1, tree.getBoundingBox().getMinX(), 1e-10, "wrong box");
+        assertEquals(37, tree.getBoundingBox().getMaxX(), 1e-10, "wrong box");
+
+        // TC02: the compiled hierarchy finds the same intersections as the flat list
+        for (int i = 0; i < 10; i++)
+            assertSameIntersections(flat, tree,
+                    new Ray(new Point(4 * i + 0.5, 0, 10), new Vector(0, 0, -1)), Double.POSITIVE_INFINITY);
+    }
+}
@@ -1,6 +1,9 @@
 package geometries;
 
+import geometries.Intersectable.GeoPoint;
 import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
 import primitives.Point;
 import primitives.Ray;
 import primitives.Vector;
@@ -208,6 +211,289 @@ class GeometriesTest {
         // Optionally, further checks can be done to validate specific contents of each container
     }
 
+    /**
+     * Test method for {@link Geometries#buildSahBvhTree()}.
+     */
+    @Test
+    void testBuildSahBvhTree() {
+        Geometries flat = new Geometries(), tree = new Geometries();
+        Plane plane = new Plane(new Point(0, 0, -50), new Vector(0, 0, 1));
+        tree.add(plane);
+        for (int i = 0; i < 10; i++)
+            for (int j = 0; j < 10; j++) {
+                Sphere sphere = new Sphere(new Point(4 * i, 4 * j, -10 - i - j), 1);
+                flat.add(sphere);
+                tree.add(sphere);
+            }
+        tree.buildSahBvhTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the plane stays next to the root of the hierarchy, so there is no bounding box
+        assertEquals(2, tree.getContainerList().size(), "the plane and the root of the hierarchy");
+        assertTrue(tree.getContainerList().contains(plane), "the plane should stay at the top");
+        assertNull(tree.getBoundingBox(), "a plane can't be bounded");
+        Geometries root = (Geometries) tree.getContainerList().getLast();
+        assertEquals(2, root.getContainerList().size(), "the hierarchy should be binary");
+        assertNotNull(root.getBoundingBox(), "the root of the hierarchy should be bounded");
+
+        // TC02: the hierarchy finds the same intersections as the flat list
+        for (int i = 0; i < 10; i++) {
+            Ray ray = new Ray(new Point(4 * i, 3 * i + 0.5, 10), new Vector(0, 0, -1));
+            List<Point> expected = flat.findIntersections(ray);
+            List<Point> result = tree.findIntersections(ray, 45);
+            assertEquals(expected == null ? 0 : expected.size(), result == null ? 0 : result.size(),
+                    "wrong number of points");
+            if (expected != null)
+                assertTrue(result.containsAll(expected), "wrong points");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a single geometry is the root itself
+        Geometries single = new Geometries(new Sphere(new Point(1, 2, 3), 1));
+        single.buildSahBvhTree();
+        assertInstanceOf(Sphere.class, single.getContainerList().getFirst(), "a single geometry needs no node");
+    }
+
+    /**
+     * Test method for {@link Geometries#buildSahBvhTree()} with a hierarchy that is big enough to be built in parallel.
+     */
+    @Test
+    void testBuildSahBvhTreeParallel() {
+        Geometries flat = new Geometries(), tree = new Geometries();
+        for (int i = 0; i < 100; i++)
+            for (int j = 0; j < 100; j++) {
+                Sphere sphere = new Sphere(new Point(3 * i, 3 * j, -(i * j % 7)), 1);
+                flat.add(sphere);
+                tree.add(sphere);
+            }
+        tree.buildSahBvhTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every geometry is in the hierarchy exactly once
+        Geometries copy = new Geometries(tree.getContainerList().toArray(new Container[0]));
+        copy.flatten();
+        assertEquals(10000, copy.getContainerList().size(), "wrong number of geometries in the hierarchy");
+        assertEquals(10000, new java.util.HashSet<>(copy.getContainerList()).size(), "a geometry appears twice");
+
+        // TC02: the hierarchy finds the same intersections as the flat list
+        for (int i = 0; i < 100; i += 7) {
+            Ray ray = new Ray(new Point(3 * i + 0.5, 3 * i, 10), new Vector(0, 0, -1));
+            assertEquals(flat.findIntersections(ray).size(), tree.findIntersections(ray).size(),
+                    "wrong number of points");
+        }
+    }
+
+    /**
+     * Test method for {@link Geometries#buildLinearBvhTree()}.
+     */
+    @Test
+    void testBuildLinearBvhTree() {
+        Geometries flat = new Geometries(), tree = new Geometries();
+        Plane plane = new Plane(new Point(0, 0, -50), new Vector(0, 0, 1));
+        tree.add(plane);
+        for (int i = 0; i < 100; i++)
+            for (int j = 0; j < 100; j++) {
+                // a few spheres share a center, so some Morton codes are equal
+                Sphere sphere = new Sphere(new Point(3 * i, 3 * (j - j % 3), -(i * j % 7)), 1);
+                flat.add(sphere);
+                tree.add(sphere);
+            }
+        tree.buildLinearBvhTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the plane stays next to the root of the hierarchy, so there is no bounding box
+        assertEquals(2, tree.getContainerList().size(), "the plane and the root of the hierarchy");
+        assertTrue(tree.getContainerList().contains(plane), "the plane should stay at the top");
+        assertNull(tree.getBoundingBox(), "a plane can't be bounded");
+
+        // TC02: every geometry is in the hierarchy exactly once
+        Geometries copy = new Geometries(tree.getContainerList().getLast());
+        copy.flatten();
+        assertEquals(10000, copy.getContainerList().size(), "wrong number of geometries in the hierarchy");
+        assertEquals(10000, new java.util.HashSet<>(copy.getContainerList()).size(), "a geometry appears twice");
+
+        // TC03: the hierarchy finds the same intersections as the flat list
+        for (int i = 0; i < 100; i += 7) {
+            Ray ray = new Ray(new Point(3 * i + 0.5, 9 * (i / 3), 10), new Vector(0, 0, -1));
+            assertEquals(flat.findIntersections(ray).size(), tree.findIntersections(ray, 45).size(),
+                    "wrong number of points");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC04: two geometries
+        Sphere sphere1 = new Sphere(new Point(1, 2, 3), 1), sphere2 = new Sphere(new Point(5, 5, 5), 1);
+        Geometries pair = new Geometries(sphere1, sphere2);
+        pair.buildLinearBvhTree();
+        Geometries root = (Geometries) pair.getContainerList().getFirst();
+        assertEquals(List.of(sphere1, sphere2), root.getContainerList(), "the root should hold both geometries");
+        assertNotNull(pair.getBoundingBox(), "the pair should be bounded");
+    }
+
+    /**
+     * Test method for {@link Geometries#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void testFindClosestGeoIntersection() {
+        Geometries flat = new Geometries(), tree = new Geometries();
+        Plane plane = new Plane(new Point(0, 0, -50), new Vector(0, 0, 1));
+        flat.add(plane);
+        tree.add(plane);
+        for (int i = 0; i < 20; i++)
+            for (int j = 0; j < 20; j++) {
+                Sphere sphere = new Sphere(new Point(3 * i, 3 * j, -(i * j % 7)), 1);
+                flat.add(sphere);
+                tree.add(sphere);
+            }
+        tree.buildSahBvhTree();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the closest of all the intersections, with a flat list and with a hierarchy
+        for (int i = 0; i < 60; i += 3) {
+            Ray ray = new Ray(new Point(i + 0.5, 0.7 * i + 0.3, 10), new Vector(0.01 * i, -0.02, -1));
+            Point expected = ray.findClosestPoint(flat.findIntersections(ray));
+            assertEquals(expected, flat.findClosestGeoIntersection(ray).point, "wrong closest point in the list");
+            assertEquals(expected, tree.findClosestGeoIntersection(ray).point, "wrong closest point in the tree");
+        }
+
+        // TC02: the closest intersection is beyond the max distance
+        Ray ray = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        assertNull(tree.findClosestGeoIntersection(ray, 5), "the sphere is too far");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: the ray starts inside a box of the hierarchy
+        assertEquals(new Point(0, 0, -1), tree.findClosestGeoIntersection(new Ray(Point.ZERO, new Vector(0, 0, -1))).point,
+                "wrong point from inside a sphere");
+    }
+
+    /**
+     * Test method for {@link Geometries#findClosestHit(Ray, HitRecord)}.
+     */
+    @Test
+    void testFindClosestHit() {
+        Geometries geometries = new Geometries();
+        Plane plane = new Plane(new Point(0, 0, -50), new Vector(0, 0, 1));
+        geometries.add(plane);
+        for (int i = 0; i < 10; i++) {
+            geometries.add(new Sphere(new Point(6 * i, 0, -10), 1));
+            geometries.add(new Triangle(new Point(6 * i + 2, -1, -5), new Point(6 * i + 4, -1, -5),
+                    new Point(6 * i + 3, 2, -5)));
+            geometries.add(new Polygon(new Point(6 * i - 1, 3, -20), new Point(6 * i + 5, 3, -20),
+                    new Point(6 * i + 5, 6, -20), new Point(6 * i - 1, 6, -20)));
+        }
+        geometries.buildSahBvhTree();
+        HitRecord hit = new HitRecord();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the record gets the closest of all the intersections, one record for all the rays
+        for (double x = -2; x < 60; x += 0.7)
+            for (double y = -2; y < 7; y += 0.9) {
+                Ray ray = new Ray(new Point(x, y, 10), new Vector(0.01, 0.02, -1));
+                GeoPoint expected = ray.findClosestGeoPoint(geometries.findGeoIntersections(ray));
+                assertTrue(geometries.findClosestHit(ray, hit.reset(Double.POSITIVE_INFINITY)), "the plane is hit");
+                assertSame(expected.geometry, hit.getGeometry(), "wrong closest geometry");
+                assertEquals(expected.point, hit.getPoint(ray), "wrong closest point");
+                assertEquals(expected, hit.toGeoPoint(ray), "wrong geometric point");
+            }
+
+        // TC02: only an intersection closer than the one in the record is recorded
+        Ray ray = new Ray(new Point(0, 0, 10), new Vector(0, 0, -1));
+        assertTrue(geometries.findClosestHit(ray, hit.reset(100)), "the sphere should be hit");
+        assertEquals(19, hit.getDistance(), 1e-10, "wrong distance of the sphere");
+        assertFalse(geometries.findClosestHit(ray, hit), "nothing is closer than the sphere");
+        assertEquals(19, hit.getDistance(), 1e-10, "the record should not change");
+
+        // TC03: the intersection is beyond the max distance
+        assertFalse(geometries.findClosestHit(ray, hit.reset(15)), "the sphere is too far");
+        assertFalse(hit.isHit(), "nothing should be recorded");
+        assertNull(hit.toGeoPoint(ray), "nothing should be recorded");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: the ray starts inside a sphere
+        assertTrue(geometries.findClosestHit(new Ray(new Point(0, 0, -10), new Vector(0, 0, -1)),
+                hit.reset(Double.POSITIVE_INFINITY)), "the sphere should be hit from inside");
+        assertEquals(1, hit.getDistance(), 1e-10, "wrong distance from inside a sphere");
+
+        // TC05: the ray passes through a vertex of a polygon to the plane behind it
+        Ray vertexRay = new Ray(new Point(-1, 3, 10), new Vector(0, 0, -1));
+        assertTrue(geometries.findClosestHit(vertexRay, hit.reset(Double.POSITIVE_INFINITY)), "the plane is hit");
+        assertSame(plane, hit.getGeometry(), "the vertex is not part of the polygon");
+    }
+
+    /**
+     * Test method for {@link Geometries#findTransparency(Ray, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Geometries geometries = new Geometries();
+        for (int i = 1; i <= 3; i++)
+            geometries.add(new Sphere(new Point(0, 0, -10 * i), 1).setMaterial(new Material().setKT(0.5)));
+        Sphere opaque = new Sphere(new Point(0, 0, -40), 1);
+        geometries.add(opaque);
+        geometries.buildSahBvhTree();
+        Ray ray = new Ray(Point.ZERO, new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the ray passes through two transparent spheres (twice through each)
+        assertEquals(new Double3(0.0625), geometries.findTransparency(ray, 25), "wrong transmittance");
+
+        // TC02: the ray is blocked by the opaque sphere
+        assertEquals(Double3.ZERO, geometries.findTransparency(ray, 45), "the ray should be blocked");
+
+        // TC03: the ray misses all the geometries
+        assertEquals(Double3.ONE, geometries.findTransparency(new Ray(Point.ZERO, new Vector(0, 1, 0)), 100),
+                "nothing should block the ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: the light is inside the first sphere, so the ray leaves nothing behind it
+        assertEquals(Double3.ONE, geometries.findTransparency(ray, 8.5), "the light is before the sphere");
+    }
+
+    /**
+     * Test method for {@link Geometries#setBoundingBox()} with unbounded geometries next to bounded ones.
+     */
+    @Test
+    void testUnboundedGeometries() {
+        Plane plane = new Plane(new Point(0, 0, -50), new Vector(0, 0, 1));
+        Sphere sphere1 = new Sphere(new Point(0, 0, -10), 1), sphere2 = new Sphere(new Point(5, 0, -10), 1);
+        Geometries geometries = new Geometries(plane, sphere1, sphere2);
+        geometries.setBoundingBox();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the plane leaves the geometries unbounded, but the spheres are bounded by themselves
+        assertNull(geometries.getBoundingBox(), "a plane can't be bounded");
+        BoundingBox boundedBox = geometries.getBoundedBox();
+        assertNotNull(boundedBox, "the spheres should be bounded without the plane");
+        assertEquals(-1, boundedBox.getMinX(), 1e-10, "wrong box of the spheres");
+        assertEquals(6, boundedBox.getMaxX(), 1e-10, "wrong box of the spheres");
+
+        // TC02: a ray that misses the box of the spheres is tested against the plane only
+        Ray miss = new Ray(new Point(20, 20, 0), new Vector(0, 0, -1));
+        IntersectionStatistics.enable();
+        long primitiveTests = IntersectionStatistics.getThreadPrimitiveTests();
+        List<Point> result = geometries.findIntersections(miss);
+        primitiveTests = IntersectionStatistics.getThreadPrimitiveTests() - primitiveTests;
+        IntersectionStatistics.disable();
+        assertEquals(List.of(new Point(20, 20, -50)), result, "the ray should hit the plane only");
+        assertEquals(1, primitiveTests, "the spheres should be culled by their box");
+
+        // TC03: a ray through a sphere finds the plane as well, and the closest point is on the sphere
+        Ray hit = new Ray(new Point(5, 0, 0), new Vector(0, 0, -1));
+        assertEquals(3, geometries.findIntersections(hit).size(), "wrong number of points");
+        assertEquals(new Point(5, 0, -9), geometries.findClosestGeoIntersection(hit).point, "wrong closest point");
+        assertEquals(Double3.ZERO, geometries.findTransparency(hit, 100), "the ray should be blocked");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: adding a geometry drops the split until the box is calculated again
+        geometries.add(new Sphere(new Point(20, 20, -10), 1));
+        assertNull(geometries.getBoundedBox(), "the split is not up to date");
+        assertEquals(3, geometries.findIntersections(miss).size(), "the new sphere should be found");
+
+        // TC05: without unbounded geometries there is no need to split
+        Geometries bounded = new Geometries(sphere1, sphere2);
+        bounded.setBoundingBox();
+        assertNull(bounded.getBoundedBox(), "the bounding box covers all the geometries");
+    }
+
     /**
      * Testing method {@link Geometries#setBoundingBox()}
      */
@@ -256,4 +542,32 @@ class GeometriesTest {
         assertEquals(expectedMinZ, boundingBox.getMinZ(), "Min Z value is incorrect");
         assertEquals(expectedMaxZ, boundingBox.getMaxZ(), "Max Z value is incorrect");
     }
-}
\ No newline at end of file
+
+    /**
+     * Test method for {@link Geometries#getContainerList()}.
+     */
+    @Test
+    void testGetContainerList() {
+        Sphere sphere = new Sphere(1d, new Point(0, 0, -5));
+        Plane plane = new Plane(new Point(0, -3, 0), new Vector(0, 1, 0));
+        Geometries geometries = new Geometries(sphere, new Sphere(1d, new Point(4, 0, -5)), plane);
+        geometries.setBoundingBox();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the list holds the shapes in their order
+        assertEquals(List.of(sphere, geometries.getContainerList().get(1), plane), geometries.getContainerList(),
+                "wrong shapes");
+
+        // TC02: the shapes can't be changed through the list, past the split of the container
+        assertThrows(UnsupportedOperationException.class, () -> geometries.getContainerList().add(sphere),
+                "the list should be read-only");
+        assertThrows(UnsupportedOperationException.class, () -> geometries.getContainerList().remove(plane),
+                "the list should be read-only");
+
+        // TC03: a shape removed through the container isn't intersected anymore
+        Ray ray = new Ray(new Point(0, 0, 0), new Vector(0, 0, -1));
+        assertNotNull(geometries.findClosestGeoIntersection(ray), "the ray should hit the sphere");
+        geometries.remove(sphere);
+        assertNull(geometries.findClosestGeoIntersection(ray), "the removed sphere shouldn't be hit");
+    }
+}
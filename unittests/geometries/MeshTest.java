@@ -0,0 +1,225 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Double3;
+import primitives.Material;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for geometries.Mesh class
+ *
+ * @author Shneor and Emanuel
+ */
+class MeshTest {
+    /**
+     * The vertices of a cube of side 2 around the origin
+     */
+    private static final double[] CUBE_VERTICES = {
+            -1, -1, -1, 1, -1, -1, 1, 1, -1, -1, 1, -1,
+            -1, -1, 1, 1, -1, 1, 1, 1, 1, -1, 1, 1};
+    /**
+     * The faces of the cube, with their normals outwards
+     */
+    private static final int[] CUBE_FACES = {
+            0, 1, 2, 0, 2, 3, // back (z = -1)
+            4, 6, 5, 4, 7, 6, // front (z = 1)
+            0, 5, 1, 0, 4, 5, // bottom (y = -1)
+            3, 6, 7, 3, 2, 6, // top (y = 1)
+            0, 7, 4, 0, 3, 7, // left (x = -1)
+            1, 6, 2, 1, 5, 6}; // right (x = 1)
+
+    /**
+     * Test method for {@link Mesh#Mesh(double[], int[])}.
+     */
+    @Test
+    void testConstructor() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a cube
+        assertEquals(12, new Mesh(CUBE_VERTICES, CUBE_FACES).getFacesCount(), "wrong number of faces");
+
+        // TC02: a vertex with missing coordinates
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(new double[]{0, 0, 0, 1}, new int[]{0, 0, 0}),
+                "a vertex must have 3 coordinates");
+
+        // TC03: a face with a vertex that doesn't exist
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(CUBE_VERTICES, new int[]{0, 1, 8}),
+                "a face can't refer to a vertex that doesn't exist");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: no faces
+        assertThrows(IllegalArgumentException.class, () -> new Mesh(CUBE_VERTICES, new int[0]),
+                "a mesh must have faces");
+    }
+
+    /**
+     * Test method for {@link Mesh#findGeoIntersections(Ray, double)} and
+     * {@link Mesh#findClosestGeoIntersection(Ray, double)}.
+     */
+    @Test
+    void testFindIntersections() {
+        Mesh cube = new Mesh(CUBE_VERTICES, CUBE_FACES);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a ray through the cube
+        Ray ray = new Ray(new Point(0.2, 0.3, 5), new Vector(0, 0, -1));
+        List<Point> result = cube.findIntersections(ray);
+        assertEquals(2, result.size(), "wrong number of points");
+        assertTrue(result.containsAll(List.of(new Point(0.2, 0.3, 1), new Point(0.2, 0.3, -1))), "wrong points");
+        var closest = cube.findClosestGeoIntersection(ray);
+        assertEquals(new Point(0.2, 0.3, 1), closest.point, "wrong closest point");
+        assertEquals(new Vector(0, 0, 1), closest.getNormal(), "wrong normal of the front face");
+        assertInstanceOf(Mesh.FacePoint.class, closest, "the point should know its face");
+        int face = ((Mesh.FacePoint) closest).face;
+        assertTrue(face == 2 || face == 3, "the point should be on the front face");
+
+        // TC02: a ray that misses the cube
+        assertNull(cube.findIntersections(new Ray(new Point(3, 0, 5), new Vector(0, 0, -1))), "no points expected");
+
+        // TC03: the cube is beyond the max distance
+        assertNull(cube.findClosestGeoIntersection(ray, 3.5), "the cube is too far");
+
+        // TC04: a big mesh finds the same closest points as separate triangles
+        int size = 60;
+        double[] vertices = new double[3 * (size + 1) * (size + 1)];
+        Random random = new Random(5);
+        for (int i = 0; i <= size; i++)
+            for (int j = 0; j <= size; j++) {
+                int vertex = 3 * (i * (size + 1) + j);
+                vertices[vertex] = i;
+                vertices[vertex + 1] = j;
+                vertices[vertex + 2] = random.nextDouble() * 3;
+            }
+        int[] faces = new int[6 * size * size];
+        Geometries triangles = new Geometries();
+        for (int i = 0, f = 0; i < size; i++)
+            for (int j = 0; j < size; j++) {
+                int a = i * (size + 1) + j, b = a + 1, c = a + size + 1, d = c + 1;
+                for (int[] triangle : new int[][]{{a, c, b}, {b, c, d}}) {
+                    System.arraycopy(triangle, 0, faces, f, 3);
+                    f += 3;
+                    triangles.add(new Triangle(point(vertices, triangle[0]), point(vertices, triangle[1]),
+                            point(vertices, triangle[2])));
+                }
+            }
+        Mesh mesh = new Mesh(vertices, faces);
+        for (int i = 0; i < 50; i++) {
+            Ray test = new Ray(new Point(random.nextDouble() * size, random.nextDouble() * size, 10),
+                    new Vector(random.nextDouble() - 0.5, random.nextDouble() - 0.5, -2));
+            var expected = triangles.findClosestGeoIntersection(test);
+            var found = mesh.findClosestGeoIntersection(test);
+            if (expected == null)
+                assertNull(found, "no point expected");
+            else {
+                assertEquals(expected.point, found.point, "wrong closest point");
+                assertEquals(expected.getNormal(), found.getNormal(), "wrong normal");
+                assertEquals(triangles.findIntersections(test).size(), mesh.findIntersections(test).size(),
+                        "wrong number of points");
+            }
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC05: a ray through an edge shared by two faces hits the mesh once at the edge
+        Ray diagonal = new Ray(new Point(0, 0, 5), new Vector(0, 0, -1));
+        assertEquals(new Point(0, 0, 1), cube.findClosestGeoIntersection(diagonal).point,
+                "the diagonal of a face is on the mesh");
+        assertEquals(2, cube.findIntersections(diagonal).size(), "a shared edge should be hit once");
+
+        // TC06: a ray through vertices shared by several faces hits the mesh once at each vertex
+        assertEquals(2, cube.findIntersections(new Ray(new Point(2, 2, 2), new Vector(-1, -1, -1))).size(),
+                "a shared vertex should be hit once");
+    }
+
+    /**
+     * Creates a point from the packed coordinates of a vertex
+     *
+     * @param vertices the packed coordinates
+     * @param vertex   the index of the vertex
+     * @return the point
+     */
+    private static Point point(double[] vertices, int vertex) {
+        return new Point(vertices[3 * vertex], vertices[3 * vertex + 1], vertices[3 * vertex + 2]);
+    }
+
+    /**
+     * Test method for {@link Mesh#getNormal(Point)}.
+     */
+    @Test
+    void testGetNormal() {
+        Mesh cube = new Mesh(CUBE_VERTICES, CUBE_FACES);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a point on a face
+        assertEquals(new Vector(1, 0, 0), cube.getNormal(new Point(1, 0.5, 0.2)), "wrong normal of the right face");
+
+        // TC02: a point that is not on the mesh
+        assertThrows(IllegalArgumentException.class, () -> cube.getNormal(new Point(0, 0, 0)),
+                "the center of the cube is not on the mesh");
+    }
+
+    /**
+     * Test method for {@link Mesh#findTransparency(Ray, double)}.
+     */
+    @Test
+    void testFindTransparency() {
+        Ray ray = new Ray(new Point(0.2, 0.3, 5), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: an opaque mesh blocks the ray
+        assertEquals(Double3.ZERO, new Mesh(CUBE_VERTICES, CUBE_FACES).findTransparency(ray, 10),
+                "the ray should be blocked");
+
+        // TC02: the ray passes twice through a transparent mesh
+        Geometry glass = new Mesh(CUBE_VERTICES, CUBE_FACES).setMaterial(new Material().setKT(0.5));
+        assertEquals(new Double3(0.25), glass.findTransparency(ray, 10), "wrong transmittance");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: the light is between the faces of the mesh
+        assertEquals(new Double3(0.5), glass.findTransparency(ray, 5), "only the front face is passed");
+
+        // TC04: a shadow ray through the edges shared by the faces of the front and of the back
+        assertEquals(new Double3(0.25), glass.findTransparency(new Ray(new Point(0, 0, 5), new Vector(0, 0, -1)), 10),
+                "every shared edge should be passed once");
+
+        // TC05: a shadow ray through the vertices shared by the faces of opposite corners
+        assertEquals(new Double3(0.25), glass.findTransparency(new Ray(new Point(2, 2, 2), new Vector(-1, -1, -1)), 10),
+                "every shared vertex should be passed once");
+    }
+
+    /**
+     * Test that the intersection tests of a mesh are counted by its faces, see {@link IntersectionStatistics}.
+     */
+    @Test
+    void testCountPrimitiveTests() {
+        Mesh triangle = new Mesh(new double[]{-1, -1, 0, 1, -1, 0, 0, 1, 0}, new int[]{0, 1, 2});
+        Ray ray = new Ray(new Point(0, 0, 1), new Vector(0, 0, -1));
+        IntersectionStatistics.enable();
+        try {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: the only face of the mesh is a single test
+            long before = IntersectionStatistics.getThreadPrimitiveTests();
+            assertNotNull(triangle.findClosestGeoIntersection(ray), "the ray should hit the mesh");
+            assertEquals(1, IntersectionStatistics.getThreadPrimitiveTests() - before, "wrong amount of tests");
+
+            // TC02: a mesh in a compiled hierarchy isn't counted again as a geometry
+            FlatBvh bvh = new FlatBvh(new Geometries(triangle));
+            before = IntersectionStatistics.getThreadPrimitiveTests();
+            assertNotNull(bvh.findGeoIntersections(ray), "the ray should hit the mesh");
+            assertEquals(1, IntersectionStatistics.getThreadPrimitiveTests() - before, "wrong amount of tests");
+
+            // TC03: the closest hit through a list of geometries
+            Geometries geometries = new Geometries(triangle);
+            before = IntersectionStatistics.getThreadPrimitiveTests();
+            assertTrue(geometries.findClosestHit(ray, new HitRecord()), "the ray should hit the mesh");
+            assertEquals(1, IntersectionStatistics.getThreadPrimitiveTests() - before, "wrong amount of tests");
+        } finally {
+            IntersectionStatistics.disable();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Ray;
+import primitives.Vector;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static primitives.Util.alignZero;
+
+/**
+ * Unit test for geometries.NodeBounds class
+ *
+ * @author Shneor and Emanuel
+ */
+class NodeBoundsTest {
+
+    /**
+     * Finds the entry distance of a ray into the box of a node
+     *
+     * @param bounds      the bounds
+     * @param node        the index of the node
+     * @param ray         the ray
+     * @param maxDistance the max distance of the ray
+     * @return the entry distance
+     */
+    private static double entry(NodeBounds bounds, int node, Ray ray, double maxDistance) {
+        Point head = ray.getHead();
+        Vector direction = ray.getDirection();
+        double dx = alignZero(direction.getX()), dy = alignZero(direction.getY()), dz = alignZero(direction.getZ());
+        return bounds.entry(node, alignZero(head.getX()), alignZero(head.getY()), alignZero(head.getZ()),
+                dx, dy, dz, 1 / dx, 1 / dy, 1 / dz, maxDistance);
+    }
+
+    /**
+     * Test method for {@link NodeBounds#entry(int, double, double, double, double, double, double, double, double,
+     * double, double)}.
+     */
+    @Test
+    void testEntry() {
+        NodeBounds bounds = new NodeBounds(2);
+        bounds.set(0, -1, -1, -1, 1, 1, 1);
+        bounds.set(1, 1, 2, -1, 3, 5, 4);
+        BoundingBox box = new BoundingBox(1, 3, 2, 5, -1, 4);
+        assertEquals(box.getMinX(), bounds.box(1).getMinX(), "wrong box of the node");
+        assertEquals(box.getMaxZ(), bounds.box(1).getMaxZ(), "wrong box of the node");
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a ray that enters the box of the node
+        Ray ray = new Ray(new Point(0, 0, -10), new Vector(0.1, 0.1, 1));
+        Ray side = new Ray(new Point(-2, 3, 0), new Vector(1, 0.1, 0.2));
+        assertEquals(box.entryDistance(side, 100), entry(bounds, 1, side, 100), 1e-10,
+                "wrong entry into the second node");
+        assertEquals(new BoundingBox(-1, 1, -1, 1, -1, 1).entryDistance(ray, 100), entry(bounds, 0, ray, 100),
+                1e-10, "wrong entry into the first node");
+        // TC02: a ray that misses the box of the node
+        assertEquals(Double.POSITIVE_INFINITY, entry(bounds, 1, ray, 100), "the ray should miss the node");
+        // TC03: a box beyond the max distance
+        assertEquals(Double.POSITIVE_INFINITY, entry(bounds, 0, ray, 5), "the box is beyond the max distance");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: a ray parallel to an axis inside the slab of the axis
+        assertEquals(9, entry(bounds, 0, new Ray(new Point(0, 0.5, -10), new Vector(0, 0, 1)), 100), 1e-10,
+                "wrong entry of a parallel ray");
+        // TC05: a ray parallel to an axis on a face of the box
+        assertEquals(Double.POSITIVE_INFINITY, entry(bounds, 0, new Ray(new Point(0, 1, -10), new Vector(0, 0, 1)), 100),
+                "a ray on a face shouldn't enter the box");
+    }
+}
@@ -130,6 +130,34 @@ class SphereTest {
         // TC02: Expected result is null (no intersection within the distance)
         assertNull(result, "ERROR: Ray should not intersect the sphere within the distance (TC02)");
     }
+    /**
+     * Test method for {@link Intersectable.GeoPoint#t} and {@link Intersectable.GeoPoint#getNormal()}
+     * of the intersections of a sphere
+     */
+    @Test
+    void testGeoPointDistanceAndNormal() {
+        Sphere sphere = new Sphere(1, new Point(0, 0, 0));
+        Ray ray = new Ray(new Point(3, 0, 0), new Vector(-1, 0, 0));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the intersections carry their distances along the ray
+        List<Intersectable.GeoPoint> result = sphere.findGeoIntersections(ray);
+        assertEquals(2, result.size(), "wrong number of intersections");
+        assertEquals(2, result.get(0).t, 1e-10, "wrong distance of the first intersection");
+        assertEquals(4, result.get(1).t, 1e-10, "wrong distance of the second intersection");
+
+        // TC02: the normal is calculated once and kept
+        Intersectable.GeoPoint closest = sphere.findClosestGeoIntersection(ray);
+        assertEquals(2, closest.t, 1e-10, "wrong distance of the closest intersection");
+        assertEquals(new Vector(1, 0, 0), closest.getNormal(), "wrong normal");
+        assertSame(closest.getNormal(), closest.getNormal(), "the normal should be cached");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a point that was not created by a geometry has no distance
+        assertTrue(Double.isNaN(new Intersectable.GeoPoint(sphere, new Point(1, 0, 0)).t),
+                "the distance should be unknown");
+    }
+
     /**
      * Test method for {@link geometries.Sphere#setBoundingBox()}
      */
@@ -0,0 +1,74 @@
+package geometries;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test for geometries.TraversalStack class
+ *
+ * @author Shneor and Emanuel
+ */
+class TraversalStackTest {
+
+    /**
+     * Test method for {@link TraversalStack#open()} and {@link TraversalStack#close()}.
+     */
+    @Test
+    void testOpen() throws InterruptedException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a nested traversal gets its own stack
+        TraversalStack outer = TraversalStack.open();
+        TraversalStack inner = TraversalStack.open();
+        assertNotSame(outer, inner, "a nested traversal should get another stack");
+        assertNotSame(outer.nodes, inner.nodes, "a nested traversal should get other arrays");
+
+        // TC02: a closed stack is reused by the next traversal at the same level
+        inner.close();
+        assertSame(inner, TraversalStack.open(), "the nested stack should be reused");
+        inner.close();
+        outer.close();
+        assertSame(outer, TraversalStack.open(), "the outer stack should be reused");
+        outer.close();
+
+        // TC03: another thread gets its own stack
+        TraversalStack[] other = new TraversalStack[1];
+        Thread thread = Thread.ofPlatform().start(() -> {
+            other[0] = TraversalStack.open();
+            other[0].close();
+        });
+        thread.join();
+        assertNotSame(outer, other[0], "every thread should have its own stack");
+    }
+
+    /**
+     * Test method for {@link TraversalStack#ensureCapacity(int)}.
+     */
+    @Test
+    void testEnsureCapacity() {
+        TraversalStack stack = TraversalStack.open();
+        try {
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: a size that fits keeps the arrays
+            int[] nodes = stack.nodes;
+            stack.nodes[3] = 7;
+            stack.ensureCapacity(TraversalStack.SIZE / 2);
+            assertSame(nodes, stack.nodes, "the arrays shouldn't be replaced");
+
+            // TC02: a bigger size grows the arrays and keeps their content
+            stack.ensureCapacity(stack.nodes.length * 3);
+            assertTrue(stack.nodes.length >= TraversalStack.SIZE * 3, "the nodes should grow");
+            assertEquals(stack.nodes.length, stack.entries.length, "the entries should grow with the nodes");
+            assertEquals(stack.nodes.length, stack.shapes.length, "the shapes should grow with the nodes");
+            assertEquals(7, stack.nodes[3], "the nodes should be kept");
+
+            // =============== Boundary Values Tests ==================
+            // TC03: exactly the size of the arrays
+            nodes = stack.nodes;
+            stack.ensureCapacity(nodes.length);
+            assertSame(nodes, stack.nodes, "a full stack shouldn't grow");
+        } finally {
+            stack.close();
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Vector;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the sample patterns and the rings of Board class
+ *
+ * @author Shneor and Emanuel
+ */
+class BoardTest {
+
+    /**
+     * Test method for {@link Board#getPoints(int)} with the patterns of {@link Board#setPattern(SamplePattern)}.
+     */
+    @Test
+    void testGetPoints() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every pattern gives all the points inside a square board
+        for (SamplePattern pattern : SamplePattern.values()) {
+            List<Point> points = new Board(Point.ZERO, Vector.Y, Vector.X, 2).setPattern(pattern).getPoints(5);
+            assertEquals(25, points.size(), "wrong amount of points of " + pattern);
+            for (Point point : points)
+                assertTrue(Math.abs(point.getX()) <= 1 && Math.abs(point.getY()) <= 1 && point.getZ() == 0,
+                        "a point of " + pattern + " out of the board");
+        }
+
+        // TC02: the patterns but the jittered grid give all the points inside a circular board
+        for (SamplePattern pattern : SamplePattern.values()) {
+            List<Point> points = new Board(Point.ZERO, Vector.Y, Vector.X, 2).setCircle(true).setPattern(pattern)
+                    .getPoints(5);
+            if (pattern == SamplePattern.JITTERED_GRID)
+                assertTrue(points.size() <= 25, "too many points of the jittered grid");
+            else
+                assertEquals(25, points.size(), "wrong amount of points of " + pattern + " in a circle");
+            for (Point point : points)
+                assertTrue(point.distanceSquared(Point.ZERO) <= 1 + 1e-10,
+                        "a point of " + pattern + " out of the circle");
+        }
+
+        // TC03: the stratified pattern has a point in every cell, by rows from the top-left cell
+        List<Point> stratified = new Board(Point.ZERO, Vector.Y, Vector.X, 2).setPattern(SamplePattern.STRATIFIED)
+                .getPoints(4);
+        for (int i = 0; i < 16; i++) {
+            Point point = stratified.get(i);
+            assertEquals(i % 4, (int) ((point.getX() + 1) * 2), "wrong column of a stratified point");
+            assertEquals(i / 4, (int) ((1 - point.getY()) * 2), "wrong row of a stratified point");
+        }
+
+        // TC04: the low discrepancy sequences have no repeated points (Point has no hashCode, so the coordinates
+        // are compared)
+        for (SamplePattern pattern : List.of(SamplePattern.HALTON, SamplePattern.SOBOL)) {
+            Set<List<Double>> distinct = new HashSet<>();
+            for (Point point : new Board(Point.ZERO, Vector.Y, Vector.X, 2).setPattern(pattern).getPoints(8))
+                distinct.add(List.of(point.getX(), point.getY()));
+            assertEquals(64, distinct.size(), "repeated points of " + pattern);
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC05: the first 4 points of the Sobol sequence are in the 4 quadrants, also after the scrambling
+        Set<Integer> quadrants = new HashSet<>();
+        for (Point point : new Board(Point.ZERO, Vector.Y, Vector.X, 2).setPattern(SamplePattern.SOBOL).getPoints(2))
+            quadrants.add((point.getX() < 0 ? 0 : 1) + (point.getY() < 0 ? 0 : 2));
+        assertEquals(4, quadrants.size(), "the first Sobol points should be in different quadrants");
+
+        // TC06: a single sample
+        assertEquals(1, new Board(Point.ZERO, Vector.Y, Vector.X, 2).setCircle(true)
+                .setPattern(SamplePattern.HALTON).getPoints(1).size(), "wrong amount of a single sample");
+    }
+
+    /**
+     * Test method for {@link Board#getPointsRing(int)}.
+     */
+    @Test
+    void testGetPointsRing() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the points are on the boundary of the circle, the first one at the top
+        List<Point> ring = new Board(Point.ZERO, Vector.Y, Vector.X, 2).getPointsRing(8);
+        assertEquals(8, ring.size(), "wrong amount of points");
+        for (Point point : ring)
+            assertEquals(1, point.distance(Point.ZERO), 1e-10, "a point is not on the boundary");
+        assertEquals(new Point(0, 1, 0), ring.getFirst(), "the first point should be at the top");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: no points
+        assertThrows(IllegalArgumentException.class, () -> new Board(Point.ZERO, Vector.Y, Vector.X, 2).getPointsRing(0),
+                "an empty ring should fail");
+    }
+
+    /**
+     * Test method for {@link Board#setSeed(long)}.
+     */
+    @Test
+    void testSetSeed() throws InterruptedException {
+        Board board = new Board(Point.ZERO, Vector.Y, Vector.X, 2);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the same seed gives the same points, for every pattern
+        for (SamplePattern pattern : SamplePattern.values()) {
+            board.setPattern(pattern);
+            Board.setSeed(17);
+            List<Point> first = board.getPoints(4);
+            Board.setSeed(17);
+            assertEquals(first, board.getPoints(4), "the same seed should give the same points of " + pattern);
+        }
+
+        // TC02: another seed gives other points
+        board.setPattern(SamplePattern.JITTERED_GRID);
+        Board.setSeed(17);
+        List<Point> first = board.getPoints(4);
+        Board.setSeed(18);
+        assertNotEquals(first, board.getPoints(4), "another seed should give other points");
+
+        // TC03: another thread gets its own generator
+        Board.setSeed(17);
+        List<List<Point>> other = new ArrayList<>();
+        Thread.ofPlatform().start(() -> other.add(board.getPoints(4))).join();
+        assertNotEquals(other.getFirst(), board.getPoints(4), "the threads should get other generators");
+    }
+}
@@ -1,12 +1,21 @@
 package renderer;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
+import geometries.Plane;
+import geometries.Polygon;
+import geometries.Sphere;
+import lighting.AmbientLight;
+import lighting.PointLight;
 import org.junit.jupiter.api.Test;
 
 import primitives.*;
 import renderer.*;
 import scene.Scene;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
 //import scene.Scene;
 
 /**
@@ -68,4 +77,175 @@ class CameraTest {
 
     }
 
+    /**
+     * Builds a camera of a deterministic lit scene (no random sampling), with a fresh image writer
+     *
+     * @param threadsCount the amount of render threads
+     * @param backend      the execution backend
+     * @return the camera builder
+     */
+    static Camera.Builder sceneCamera(int threadsCount, ExecutionBackend backend) {
+        Scene scene = new Scene("Test scene").setBackground(new Color(20, 20, 40));
+        scene.geometries.add(
+                new Sphere(40d, new Point(0, 0, -120)).setEmission(new Color(0, 60, 120))
+                        .setMaterial(new Material().setKD(0.5).setKS(0.4).setNShininess(30).setKR(0.2)),
+                new Plane(new Point(0, -40, 0), new Vector(0, 1, 0))
+                        .setMaterial(new Material().setKD(0.6).setKR(0.3)));
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.lights.add(new PointLight(new Color(400, 300, 200), new Point(60, 80, -20)));
+        return Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 160)
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("cameraTest", 45, 37))
+                .setMultithreading(threadsCount)
+                .setExecutionBackend(backend)
+                .setTileSize(8);
+    }
+
+    /**
+     * Asserts that two images have exactly the same pixels
+     *
+     * @param expected the expected image
+     * @param actual   the actual image
+     * @param message  the message of a failure
+     */
+    static void assertSameImage(BufferedImage expected, BufferedImage actual, String message) {
+        assertEquals(expected.getWidth(), actual.getWidth(), message);
+        assertEquals(expected.getHeight(), actual.getHeight(), message);
+        for (int row = 0; row < expected.getHeight(); row++)
+            for (int column = 0; column < expected.getWidth(); column++)
+                assertEquals(expected.getRGB(column, row), actual.getRGB(column, row),
+                        message + " at (" + column + "," + row + ")");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImage()} with the execution backends.
+     */
+    @Test
+    void testRenderImage() {
+        BufferedImage expected = sceneCamera(0, ExecutionBackend.THREAD_POOL).build()
+                .renderImage().getImageWriter().getSnapshot();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every backend renders exactly the same image as the single threaded render
+        for (ExecutionBackend backend : ExecutionBackend.values()) {
+            Camera camera = sceneCamera(3, backend).build();
+            assertSameImage(expected, camera.renderImage().getImageWriter().getSnapshot(),
+                    "wrong image of " + backend);
+            // TC02: the threads of the backend are reused by a second render
+            assertSameImage(expected, camera.renderImage().getImageWriter().getSnapshot(),
+                    "wrong second image of " + backend);
+            camera.shutdown();
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a single thread
+        for (ExecutionBackend backend : ExecutionBackend.values()) {
+            Camera camera = sceneCamera(1, backend).build();
+            assertSameImage(expected, camera.renderImage().getImageWriter().getSnapshot(),
+                    "wrong single thread image of " + backend);
+            camera.shutdown();
+        }
+    }
+
+    /**
+     * Test method for {@link renderer.Camera#renderImageProgressive(RenderListener)}.
+     */
+    @Test
+    void testRenderImageProgressive() {
+        BufferedImage expected = sceneCamera(0, ExecutionBackend.THREAD_POOL).build()
+                .renderImage().getImageWriter().getSnapshot();
+        List<BufferedImage> snapshots = new ArrayList<>();
+        List<Integer> passes = new ArrayList<>();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a snapshot after each of the 4 passes (steps of 8, 4, 2 and 1 pixels)
+        Camera camera = sceneCamera(2, ExecutionBackend.THREAD_POOL).build();
+        camera.renderImageProgressive((pass, passesCount, snapshot) -> {
+            assertEquals(4, passesCount, "wrong amount of passes");
+            passes.add(pass);
+            snapshots.add(snapshot);
+        });
+        camera.shutdown();
+        assertEquals(List.of(1, 2, 3, 4), passes, "the listener should be called once per pass");
+
+        // TC02: the first snapshot is filled by blocks of 8x8 pixels, with the colors of the full render
+        BufferedImage first = snapshots.getFirst();
+        for (int row = 0; row < 37; row++)
+            for (int column = 0; column < 45; column++) {
+                assertEquals(first.getRGB(column - column % 8, row - row % 8), first.getRGB(column, row),
+                        "the first pass should fill the block of the pixel (" + column + "," + row + ")");
+                if (column % 8 == 0 && row % 8 == 0)
+                    assertEquals(expected.getRGB(column, row), first.getRGB(column, row), "wrong traced pixel");
+            }
+
+        // TC03: the last snapshot is the full render
+        assertSameImage(expected, snapshots.getLast(), "wrong final image");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: anti-aliasing adds a refinement pass
+        passes.clear();
+        sceneCamera(0, ExecutionBackend.THREAD_POOL).setAdaptiveSupersampling(1).build()
+                .renderImageProgressive((pass, passesCount, snapshot) -> {
+                    assertEquals(5, passesCount, "wrong amount of passes with anti-aliasing");
+                    passes.add(pass);
+                });
+        assertEquals(List.of(1, 2, 3, 4, 5), passes, "the refinement pass should be reported");
+    }
+
+    /**
+     * Test method for {@link renderer.Camera.Builder#setAdaptiveSupersampling(int, double)}.
+     */
+    @Test
+    void testSetAdaptiveSupersampling() {
+        // the right half of the view plane is covered by a polygon, so the single pixel of the image
+        // has a vertical edge in its middle
+        Scene scene = new Scene("Edge scene");
+        scene.geometries.add(new Polygon(new Point(0, -100, -100), new Point(100, -100, -100),
+                new Point(100, 100, -100), new Point(0, 100, -100)).setEmission(new Color(200, 100, 50)));
+        RenderStatistics statistics = new RenderStatistics();
+        Camera.Builder builder = Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(2, 2)
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setStatistics(statistics);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a flat pixel is not subdivided
+        builder.setLocation(new Point(-50, 0, 0)).setImageWriter(new ImageWriter("adaptiveTest", 1, 1))
+                .setAdaptiveSupersampling(3, 0).build().renderImage();
+        assertEquals(4, statistics.getPrimaryRays(), "a flat pixel should get 4 rays");
+
+        // TC02: an edge pixel is subdivided, and every quadrant reuses the sample it already has
+        // (4 rays for the pixel and 3 more for each quadrant, the quadrants themselves are flat)
+        statistics.reset();
+        ImageWriter edge = new ImageWriter("adaptiveTest", 1, 1);
+        builder.setLocation(Point.ZERO).setImageWriter(edge).setAdaptiveSupersampling(3, 0).build().renderImage();
+        assertEquals(4 + 4 * 3, statistics.getPrimaryRays(), "wrong amount of rays of an edge pixel");
+        assertEquals(new java.awt.Color(100, 50, 25).getRGB(), edge.getSnapshot().getRGB(0, 0),
+                "the edge pixel should be half covered");
+
+        // TC03: a threshold above the difference of the colors keeps the edge pixel flat
+        statistics.reset();
+        builder.setImageWriter(new ImageWriter("adaptiveTest", 1, 1)).setAdaptiveSupersampling(3, 255).build()
+                .renderImage();
+        assertEquals(4, statistics.getPrimaryRays(), "a similar pixel should get 4 rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: a single level never subdivides
+        statistics.reset();
+        builder.setImageWriter(new ImageWriter("adaptiveTest", 1, 1)).setAdaptiveSupersampling(1, 0).build()
+                .renderImage();
+        assertEquals(4, statistics.getPrimaryRays(), "a single level should get 4 rays");
+
+        // TC05: negative levels or threshold
+        assertThrows(IllegalArgumentException.class, () -> builder.setAdaptiveSupersampling(-1, 10),
+                "negative levels should fail");
+        assertThrows(IllegalArgumentException.class, () -> builder.setAdaptiveSupersampling(2, -1),
+                "a negative threshold should fail");
+    }
+
 }
@@ -0,0 +1,63 @@
+package renderer;
+
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing CostHeatmapRayTracer
+ *
+ * @author Shneor and Emanuel
+ */
+class CostHeatmapRayTracerTest {
+
+    /**
+     * Test method for {@link CostHeatmapRayTracer#traceRay(Ray, int)}.
+     */
+    @Test
+    void testTraceRay() {
+        Scene scene = new Scene("Test scene");
+        for (int i = 0; i < 10; i++)
+            scene.geometries.add(new Sphere(5d, new Point(0, 0, -100 - 20 * i)));
+        scene.geometries.setBoundingBox();
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 100, 0)));
+        CostHeatmapRayTracer tracer = new CostHeatmapRayTracer(scene, 100);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a ray that hits a geometry and sends shadow rays costs more than a ray that misses the bounding box
+        Ray hitRay = new Ray(Point.ZERO, new Vector(0, 0, -1));
+        Ray missRay = new Ray(Point.ZERO, new Vector(0, 1, 0));
+        tracer.renderStarted();
+        Color hit = tracer.traceRay(hitRay, 1);
+        Color miss = tracer.traceRay(missRay, 1);
+        tracer.renderEnded();
+        assertTrue(hit.getColor().getRed() > miss.getColor().getRed(), "the hit should be hotter");
+        assertTrue(hit.getColor().getBlue() < miss.getColor().getBlue(), "the miss should be colder");
+
+        // TC02: the rays are traced by the given ray tracer
+        CostHeatmapRayTracer iterative = new CostHeatmapRayTracer(new IterativeRayTracer(scene), 100);
+        iterative.renderStarted();
+        hit = iterative.traceRay(hitRay, 1);
+        miss = iterative.traceRay(missRay, 1);
+        iterative.renderEnded();
+        assertTrue(hit.getColor().getRed() > miss.getColor().getRed(), "the hit should be hotter");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: outside a render the tests aren't counted, every ray is the coldest color
+        assertEquals(new java.awt.Color(0, 0, 255), tracer.traceRay(hitRay, 1).getColor(),
+                "the tests shouldn't be counted outside a render");
+        // TC04: no tests at all is the coldest color
+        assertEquals(new java.awt.Color(0, 0, 255), tracer.costColor(0).getColor(), "wrong coldest color");
+        // TC05: the maximal cost is the hottest color
+        assertEquals(new java.awt.Color(255, 0, 0), tracer.costColor(100).getColor(), "wrong hottest color");
+        // TC06: a cost above the maximum is the hottest color too
+        assertEquals(new java.awt.Color(255, 0, 0), tracer.costColor(5000).getColor(), "wrong color above maximum");
+        // TC07: a maximal cost that isn't positive
+        assertThrows(IllegalArgumentException.class, () -> new CostHeatmapRayTracer(scene, 0),
+                "a zero maximal cost should fail");
+    }
+}
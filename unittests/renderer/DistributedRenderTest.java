@@ -0,0 +1,153 @@
+package renderer;
+
+import lighting.DirectionalLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+import scene.SceneBuilder;
+
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RenderCoordinator and RenderWorker on the local host
+ *
+ * @author Shneor and Emanuel
+ */
+class DistributedRenderTest {
+    /**
+     * The scene of the tests - lit, with emission and with reflective and transparent materials
+     */
+    private static final String SCENE_XML = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <scene background-color="40 40 60">
+                <ambient-light color="25 25 25" />
+                <lights>
+                    <point-light color="500 400 300" position="60 80 -20" kl="0.0005" kq="0.00005" />
+                    <spot-light color="400 200 200" position="-80 60 0" direction="1 -0.5 -1" kl="0.0004" narrow-beam="5" />
+                    <directional-light color="100 100 150" direction="0.3 -1 -0.2" />
+                </lights>
+                <geometries>
+                    <sphere center="0 0 -120" radius="40" emission="0 40 80" kd="0.5" ks="0.4" shininess="30" kt="0.3" />
+                    <sphere center="50 -20 -160" radius="20" emission="80 20 20" kd="0.4 0.5 0.6" ks="0.3" shininess="60" />
+                    <plane q="0 -40 0" normal="0 1 0" kd="0.6" kr="0.4" />
+                    <triangle p0="-100 0 -200" p1="0 100 -200" p2="-100 100 -200" emission="30 60 30" kd="0.5" />
+                </geometries>
+            </scene>
+            """;
+
+    /**
+     * Builds a camera for the scene of the tests
+     *
+     * @param name the name of the image
+     * @return the camera
+     */
+    private static Camera camera(String name) {
+        return Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 200)
+                .setRayTracer(new SimpleRayTracer(SceneBuilder.buildSceneFromXmlString(SCENE_XML)))
+                .setImageWriter(new ImageWriter(name, 50, 40))
+                .build();
+    }
+
+    /**
+     * Test method for {@link RenderProtocol#readJob(DataInput)}.
+     */
+    @Test
+    void testReadJob() throws IOException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the worker gets the settings of the camera and of its ray tracer
+        Scene scene = SceneBuilder.buildSceneFromXmlString(SCENE_XML);
+        Camera camera = Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 200)
+                .setRayTracer(new IterativeRayTracer(scene).setRussianRoulette(0.01).setRayBudget(5)
+                        .setAdaptiveSoftShadows(4).setSoftShadowPattern(SamplePattern.HALTON))
+                .setImageWriter(new ImageWriter("job", 50, 40).setNumberOfSamples(3))
+                .setAdaptiveSupersampling(3, 12.5)
+                .build();
+        Camera worker = RenderProtocol.readJob(new DataInputStream(
+                new ByteArrayInputStream(RenderProtocol.createJob(camera)))).build();
+        assertEquals(3, worker.getAntiAliasingLevels(), "wrong anti-aliasing levels");
+        assertEquals(12.5, worker.getAntiAliasingThreshold(), "wrong anti-aliasing threshold");
+        assertEquals(3, worker.getImageWriter().getNumberOfSamples(), "wrong amount of samples");
+        IterativeRayTracer rayTracer = assertInstanceOf(IterativeRayTracer.class, worker.getRayTracer(),
+                "wrong ray tracer");
+        assertEquals(0.01, rayTracer.getRussianRoulette(), "wrong russian roulette");
+        assertEquals(5, rayTracer.getRayBudget(), "wrong ray budget");
+        assertEquals(4, rayTracer.getAdaptiveSoftShadows(), "wrong adaptive soft shadows");
+        assertEquals(SamplePattern.HALTON, rayTracer.getSoftShadowPattern(), "wrong soft shadow pattern");
+
+        // TC02: the worker gets the lights, the materials and the emission of the scene
+        Scene workerScene = rayTracer.scene;
+        assertEquals(3, workerScene.lights.size(), "wrong amount of lights");
+        assertInstanceOf(PointLight.class, workerScene.lights.get(0), "wrong point light");
+        assertInstanceOf(SpotLight.class, workerScene.lights.get(1), "wrong spot light");
+        assertInstanceOf(DirectionalLight.class, workerScene.lights.get(2), "wrong directional light");
+        assertEquals(scene.ambientLight.getIntensity().getRgb(), workerScene.ambientLight.getIntensity().getRgb(),
+                "wrong ambient light");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: a ray tracer that can't be sent to the workers fails the coordinator
+        Camera heatmap = Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 200)
+                .setRayTracer(new CostHeatmapRayTracer(scene))
+                .setImageWriter(new ImageWriter("job", 50, 40))
+                .build();
+        assertThrows(IllegalArgumentException.class, () -> new RenderCoordinator(heatmap, 8),
+                "a heatmap ray tracer can't be sent");
+    }
+
+    /**
+     * Test method for {@link RenderCoordinator#awaitImage(Duration)}.
+     */
+    @Test
+    void testDistributedRender() throws Exception {
+        Camera local = camera("distributedLocal");
+        local.renderImage();
+        BufferedImage expected = local.getImageWriter().getSnapshot();
+
+        Camera camera = camera("distributed");
+        try (RenderCoordinator coordinator = new RenderCoordinator(camera, 8)) {
+            coordinator.start(0);
+
+            // ============ Equivalence Partitions Tests ==============
+            // TC01: a worker that disconnects in the middle of a tile - the tile is given to another worker
+            try (var socket = new Socket("localhost", coordinator.getPort());
+                 var in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                 var out = new DataOutputStream(socket.getOutputStream())) {
+                out.writeInt(RenderProtocol.HELLO);
+                RenderProtocol.readJob(in);
+                assertEquals(RenderProtocol.TILE, in.readInt(), "the worker should get a tile");
+            }
+
+            // TC02: several workers render the lit frame together, exactly as the camera renders it
+            List<Thread> workers = new ArrayList<>();
+            for (int i = 0; i < 3; i++)
+                workers.add(Thread.ofPlatform().start(
+                        new RenderWorker("localhost", coordinator.getPort()).setMultithreading(i)));
+            assertTrue(coordinator.awaitImage(Duration.ofSeconds(30)), "the image wasn't completed");
+            for (Thread worker : workers)
+                worker.join();
+        }
+
+        BufferedImage image = camera.getImageWriter().getSnapshot();
+        for (int row = 0; row < 40; row++)
+            for (int column = 0; column < 50; column++)
+                assertEquals(expected.getRGB(column, row), image.getRGB(column, row), "distributed image differs");
+    }
+}
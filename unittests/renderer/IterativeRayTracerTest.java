@@ -0,0 +1,96 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.AmbientLight;
+import lighting.PointLight;
+import lighting.SpotLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing IterativeRayTracer class
+ *
+ * @author Shneor and Emanuel
+ */
+class IterativeRayTracerTest {
+
+    /**
+     * Asserts that two colors have exactly the same components
+     *
+     * @param expected the expected color
+     * @param actual   the actual color
+     * @param message  the message of a failure
+     */
+    private static void assertSameColor(Color expected, Color actual, String message) {
+        assertEquals(expected.getRgb().getD1(), actual.getRgb().getD1(), 0, message);
+        assertEquals(expected.getRgb().getD2(), actual.getRgb().getD2(), 0, message);
+        assertEquals(expected.getRgb().getD3(), actual.getRgb().getD3(), 0, message);
+    }
+
+    /**
+     * Test method for {@link IterativeRayTracer#traceRay(Ray, int)}.
+     */
+    @Test
+    void testTraceRay() {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(
+                new Sphere(30d, new Point(0, 0, -100)).setEmission(new Color(0, 100, 200))
+                        .setMaterial(new Material().setKD(0.4).setKS(0.3).setNShininess(50).setKT(0.6)),
+                new Sphere(10d, new Point(0, 0, -100)).setEmission(new Color(200, 50, 0))
+                        .setMaterial(new Material().setKD(0.5).setKS(0.5).setNShininess(20)),
+                new Triangle(new Point(-200, -200, -200), new Point(200, -200, -200), new Point(0, 200, -200))
+                        .setEmission(new Color(20, 20, 20))
+                        .setMaterial(new Material().setKD(0.3).setKR(new Double3(0.8, 0.5, 0.2))),
+                new Plane(new Point(0, -50, 0), new Vector(0, 1, 0))
+                        .setMaterial(new Material().setKD(0.5).setKS(0.2).setNShininess(10).setKR(0.3)));
+        scene.setAmbientLight(new AmbientLight(new Color(255, 255, 255), 0.1));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 100, 0)));
+        scene.lights.add(new SpotLight(new Color(500, 300, 100), new Point(-100, 50, 50), new Vector(1, -0.5, -1)));
+        scene.geometries.buildSahBvhTree();
+
+        RenderStatistics simpleStatistics = new RenderStatistics();
+        RenderStatistics iterativeStatistics = new RenderStatistics();
+        RayTracerBase simple = new SimpleRayTracer(scene).setStatistics(simpleStatistics);
+        RayTracerBase iterative = new IterativeRayTracer(scene).setStatistics(iterativeStatistics);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the colors and the traced rays are exactly the same as with the recursion
+        for (int i = -10; i <= 10; i++)
+            for (int j = -10; j <= 10; j++) {
+                Ray ray = new Ray(Point.ZERO, new Vector(0.05 * i, 0.05 * j, -1));
+                assertSameColor(simple.traceRay(ray, 1), iterative.traceRay(ray, 1), "wrong color");
+            }
+        assertEquals(simpleStatistics.getPrimaryRays(), iterativeStatistics.getPrimaryRays(), "wrong primary rays");
+        assertEquals(simpleStatistics.getReflectedRays(), iterativeStatistics.getReflectedRays(),
+                "wrong reflected rays");
+        assertEquals(simpleStatistics.getRefractedRays(), iterativeStatistics.getRefractedRays(),
+                "wrong refracted rays");
+        assertEquals(simpleStatistics.getShadowRays(), iterativeStatistics.getShadowRays(), "wrong shadow rays");
+
+        // TC02: a ray that misses everything gets the background
+        assertSameColor(scene.background, iterative.traceRay(new Ray(Point.ZERO, new Vector(0, 1, 0)), 1),
+                "wrong background");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: two facing mirrors, the tree is cut at the maximal level
+        Scene mirrors = new Scene("Mirrors");
+        mirrors.geometries.add(
+                new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setEmission(new Color(10, 20, 30))
+                        .setMaterial(new Material().setKD(0.2).setKR(0.9)),
+                new Plane(new Point(0, 0, 100), new Vector(0, 0, -1)).setEmission(new Color(30, 20, 10))
+                        .setMaterial(new Material().setKD(0.2).setKR(0.9)));
+        mirrors.lights.add(new PointLight(new Color(100, 100, 100), Point.ZERO));
+        RayTracerBase simpleMirrors = new SimpleRayTracer(mirrors);
+        RayTracerBase iterativeMirrors = new IterativeRayTracer(mirrors);
+        for (int i = 0; i < 5; i++) {
+            Ray ray = new Ray(Point.ZERO, new Vector(0.1 * i, 0.05, -1));
+            assertSameColor(simpleMirrors.traceRay(ray, 1), iterativeMirrors.traceRay(ray, 1),
+                    "wrong color between the mirrors");
+        }
+    }
+}
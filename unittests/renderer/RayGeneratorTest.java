@@ -0,0 +1,75 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RayGenerator class
+ *
+ * @author Shneor and Emanuel
+ */
+class RayGeneratorTest {
+    /**
+     * A camera that is not aligned to the axes, and is not at the origin
+     */
+    private final Camera camera = Camera.getBuilder()
+            .setRayTracer(new SimpleRayTracer(new Scene("Test")))
+            .setImageWriter(new ImageWriter("Test", 1, 1))
+            .setLocation(new Point(1, 2, 3))
+            .setDirection(new Vector(1, 1, -1), new Vector(1, 0, 1))
+            .setVpDistance(10)
+            .setVpSize(8, 6)
+            .build();
+
+    /**
+     * Creates the generator of the camera for a resolution
+     *
+     * @param nX the number of horizontal pixels
+     * @param nY the number of vertical pixels
+     * @return the ray generator
+     */
+    private RayGenerator generator(int nX, int nY) {
+        return new RayGenerator(camera.getLocation(), camera.getVTo(), camera.getVUp(), camera.getVRight(),
+                camera.getDistance(), camera.getWidth(), camera.getHeight(), nX, nY);
+    }
+
+    /**
+     * Test method for {@link RayGenerator#constructRay(int, int)}.
+     */
+    @Test
+    void testConstructRay() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: an inner pixel of an even resolution
+        RayGenerator even = generator(4, 6);
+        assertEquals(camera.constructRay(4, 6, 1, 2), even.constructRay(1, 2), "wrong inner ray");
+
+        // TC02: an inner pixel of an odd resolution
+        RayGenerator odd = generator(5, 3);
+        assertEquals(camera.constructRay(5, 3, 3, 1), odd.constructRay(3, 1), "wrong inner ray");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: the corners of an even resolution
+        assertEquals(camera.constructRay(4, 6, 0, 0), even.constructRay(0, 0), "wrong upper-left ray");
+        assertEquals(camera.constructRay(4, 6, 3, 0), even.constructRay(3, 0), "wrong upper-right ray");
+        assertEquals(camera.constructRay(4, 6, 0, 5), even.constructRay(0, 5), "wrong lower-left ray");
+        assertEquals(camera.constructRay(4, 6, 3, 5), even.constructRay(3, 5), "wrong lower-right ray");
+
+        // TC04: the corners and the center of an odd resolution
+        assertEquals(camera.constructRay(5, 3, 0, 0), odd.constructRay(0, 0), "wrong upper-left ray");
+        assertEquals(camera.constructRay(5, 3, 4, 2), odd.constructRay(4, 2), "wrong lower-right ray");
+        assertEquals(camera.constructRay(5, 3, 2, 1), odd.constructRay(2, 1), "wrong center ray");
+        assertEquals(camera.getVTo(), odd.constructRay(2, 1).getDirection(), "the center ray should go to vTo");
+
+        // TC05: a single pixel
+        assertEquals(camera.constructRay(1, 1, 0, 0), generator(1, 1).constructRay(0, 0), "wrong single ray");
+
+        // TC06: the center of a corner pixel is on the ray through it, on the view plane
+        Vector direction = camera.constructRay(5, 3, 4, 0).getDirection();
+        assertEquals(camera.getLocation().add(direction.scale(10 / direction.dotProduct(camera.getVTo()))),
+                odd.pixelCenter(4, 0), "wrong pixel center");
+    }
+}
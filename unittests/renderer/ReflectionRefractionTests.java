@@ -327,6 +327,17 @@ public class ReflectionRefractionTests {
                 break;
             case 3:
                 scene.geometries.buildBvhTree();
+                break;
+            case 4:
+                scene.geometries.buildSahBvhTree(); // Build BVH tree by the surface area heuristic
+                break;
+            case 5:
+                scene.geometries.buildLinearBvhTree(); // Build linear BVH tree by Morton codes
+                break;
+            case 6:
+                scene.geometries.buildSahBvhTree(); // Build BVH tree by the surface area heuristic
+                scene.geometries.compileFlatBvh(); // and compile it into flat arrays
+                break;
             default:
                 break;
         }
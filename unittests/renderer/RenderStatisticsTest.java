@@ -0,0 +1,102 @@
+package renderer;
+
+import geometries.Sphere;
+import geometries.Triangle;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Material;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RenderStatistics
+ *
+ * @author Shneor and Emanuel
+ */
+class RenderStatisticsTest {
+
+    /**
+     * Test method for {@link Camera.Builder#setStatistics(RenderStatistics)}.
+     */
+    @Test
+    void testStatistics() {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(
+                new Sphere(30d, new Point(0, 0, -100)).setEmission(new Color(0, 100, 200))
+                        .setMaterial(new Material().setKD(0.5).setKT(0.5)),
+                new Triangle(new Point(-200, -200, -200), new Point(200, -200, -200), new Point(0, 200, -200))
+                        .setMaterial(new Material().setKD(0.5).setKR(0.5)));
+        scene.lights.add(new PointLight(new Color(300, 300, 300), new Point(0, 100, 0)));
+        scene.geometries.setBoundingBox();
+
+        RenderStatistics statistics = new RenderStatistics();
+        Camera camera = Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 200)
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("statisticsTest", 20, 20))
+                .setMultithreading(2)
+                .setStatistics(statistics)
+                .build();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a render counts every kind of rays and tests
+        camera.renderImage();
+        assertEquals(400, statistics.getPrimaryRays(), "a primary ray for every pixel");
+        assertTrue(statistics.getReflectedRays() > 0, "there should be reflected rays");
+        assertTrue(statistics.getRefractedRays() > 0, "there should be refracted rays");
+        assertTrue(statistics.getShadowRays() > 0, "there should be shadow rays");
+        assertTrue(statistics.getBoxTests() > 0, "there should be box tests");
+        assertTrue(statistics.getPrimitiveTests() > 0, "there should be primitive tests");
+        assertTrue(statistics.getWallTime().toNanos() > 0, "the wall time should be measured");
+        assertTrue(statistics.getRaysPerSecond() > 0, "the rays per second should be positive");
+        assertEquals(2, statistics.getBusyTimes().size(), "every render thread should be measured");
+        assertEquals(2, statistics.getIdleTimes().size(), "every render thread should be measured");
+
+        String json = statistics.toJson();
+        assertTrue(json.contains("\"primary\": 400"), "the report should contain the primary rays");
+        assertTrue(json.contains("\"busyMs\""), "the report should contain the busy times");
+
+        // TC02: renders accumulate
+        long total = statistics.getTotalRays();
+        camera.renderImage();
+        assertEquals(2 * total, statistics.getTotalRays(), "the second render should double the rays");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: render threads that get no tile (a single tile for 3 threads) are reported idle for the whole render
+        RenderStatistics single = new RenderStatistics();
+        Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 200)
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("statisticsTest", 10, 10))
+                .setMultithreading(3)
+                .setStatistics(single)
+                .build().renderImage().shutdown();
+        assertEquals(3, single.getBusyTimes().size(), "every render thread should be reported");
+        assertEquals(3, single.getIdleTimes().size(), "every render thread should be reported");
+        long idleThreads = single.getBusyTimes().values().stream().filter(Duration::isZero).count();
+        assertTrue(idleThreads >= 2, "only one thread can render the single tile");
+        for (var entry : single.getBusyTimes().entrySet())
+            if (entry.getValue().isZero())
+                assertEquals(single.getWallTime(), single.getIdleTimes().get(entry.getKey()),
+                        "a thread without tiles should be idle for the whole render");
+
+        // TC04: reset statistics
+        statistics.reset();
+        assertEquals(0, statistics.getTotalRays(), "no rays after reset");
+        assertEquals(0, statistics.getRaysPerSecond(), "no rays per second after reset");
+        assertEquals("{\n  \"wallTimeMs\": 0.0,\n  \"rays\": {\"primary\": 0, \"reflected\": 0, \"refracted\": 0, "
+                        + "\"shadow\": 0, \"total\": 0},\n  \"raysPerSecond\": 0,\n  \"boxTests\": 0,\n"
+                        + "  \"primitiveTests\": 0,\n  \"threads\": []\n}",
+                statistics.toJson(), "wrong report of empty statistics");
+    }
+}
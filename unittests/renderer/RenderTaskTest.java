@@ -0,0 +1,162 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import primitives.Ray;
+
+import java.awt.image.BufferedImage;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing RenderTask and the background renders of Camera
+ *
+ * @author Shneor and Emanuel
+ */
+class RenderTaskTest {
+
+    /**
+     * Builds a camera of a simple scene with a non-black background
+     *
+     * @param nX           the amount of horizontal pixels
+     * @param nY           the amount of vertical pixels
+     * @param threadsCount the amount of render threads
+     * @param levels       the levels of adaptive supersampling
+     * @return the camera
+     */
+    private static Camera camera(int nX, int nY, int threadsCount, int levels) {
+        Scene scene = new Scene("Test scene").setBackground(new Color(0, 50, 0));
+        scene.geometries.add(new Sphere(50d, new Point(0, 0, -100)).setEmission(new Color(0, 100, 200)));
+        return Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 200)
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(new ImageWriter("renderTaskTest", nX, nY))
+                .setMultithreading(threadsCount)
+                .setAdaptiveSupersampling(levels, 0)
+                .build();
+    }
+
+    /**
+     * A ray tracer that traces a few free rays, and then blocks every ray until it is released
+     */
+    private static class BlockingRayTracer extends RayTracerBase {
+        /**
+         * The amount of rays that are traced without blocking
+         */
+        private final int freeRays;
+        /**
+         * The amount of rays traced so far
+         */
+        private final AtomicInteger traced = new AtomicInteger();
+        /**
+         * Released when the blocked rays may go on
+         */
+        private final CountDownLatch released = new CountDownLatch(1);
+        /**
+         * Released when the first ray is blocked
+         */
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        /**
+         * Constructs the ray tracer
+         *
+         * @param freeRays the amount of rays that are traced without blocking
+         */
+        BlockingRayTracer(int freeRays) {
+            super(new Scene("Blocking scene"));
+            this.freeRays = freeRays;
+        }
+
+        @Override
+        public Color traceRay(Ray ray, int numberOfSamples) {
+            if (traced.incrementAndGet() > freeRays) {
+                blocked.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return new Color(0, 100, 200);
+        }
+    }
+
+    /**
+     * Builds a single threaded camera of a 16x16 image with a blocking ray tracer
+     *
+     * @param rayTracer the ray tracer
+     * @return the camera
+     */
+    private static Camera blockingCamera(BlockingRayTracer rayTracer) {
+        return Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 200)
+                .setRayTracer(rayTracer)
+                .setImageWriter(new ImageWriter("renderTaskTest", 16, 16))
+                .build();
+    }
+
+    /**
+     * Test method for {@link Camera#renderImageAsync(Duration, boolean)}.
+     */
+    @Test
+    void testRenderImageAsync() throws InterruptedException {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a render without a deadline completes with the same image as a synchronous render
+        Camera camera = camera(40, 40, 2, 0);
+        RenderTask task = camera.renderImageAsync();
+        assertTrue(task.await(), "the render should complete");
+        assertTrue(task.isDone(), "the render should be done");
+        assertEquals(1, task.getProgress(), 0.0001, "the whole image should be rendered");
+        BufferedImage async = camera.getImageWriter().getSnapshot();
+        BufferedImage expected = camera.renderImage().getImageWriter().getSnapshot();
+        for (int row = 0; row < 40; row++)
+            for (int column = 0; column < 40; column++)
+                assertEquals(expected.getRGB(column, row), async.getRGB(column, row), "the images differ");
+
+        // TC02: a render that completes before its deadline isn't cancelled by it later, or explicitly
+        task = camera.renderImageAsync(Duration.ofSeconds(30), false);
+        assertTrue(task.await(), "the render should complete before its deadline");
+        task.cancel();
+        assertFalse(task.isCancelled(), "an ended render shouldn't be cancelled");
+
+        // TC03: a render that can't complete before its deadline ends with the unfinished parts filled
+        // (the coarse pass traces a ray for each of the 4 blocks of 8x8 pixels, the full render blocks)
+        BlockingRayTracer blocking = new BlockingRayTracer(4);
+        Camera blocked = blockingCamera(blocking);
+        task = blocked.renderImageAsync(Duration.ofMillis(10), true);
+        blocking.blocked.await();
+        for (int i = 0; i < 3000 && !task.isCancelled(); i++)
+            Thread.sleep(10);
+        assertTrue(task.isCancelled(), "the render should be cancelled by its deadline");
+        blocking.released.countDown();
+        assertFalse(task.await(), "the render shouldn't complete");
+        assertNotEquals(0, blocked.getImageWriter().getSnapshot().getRGB(15, 15) & 0xFFFFFF,
+                "the last pixel should be filled");
+
+        // TC04: an explicitly cancelled render
+        blocking = new BlockingRayTracer(0);
+        task = blockingCamera(blocking).renderImageAsync();
+        blocking.blocked.await();
+        task.cancel();
+        blocking.released.countDown();
+        assertFalse(task.await(), "a cancelled render shouldn't complete");
+        assertTrue(task.isCancelled(), "the render should be cancelled");
+
+        // =============== Boundary Values Tests ==================
+        // TC05: a deadline that isn't positive
+        assertThrows(IllegalArgumentException.class, () -> camera.renderImageAsync(Duration.ZERO, false),
+                "a zero deadline should fail");
+    }
+}
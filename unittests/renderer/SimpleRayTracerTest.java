@@ -0,0 +1,204 @@
+package renderer;
+
+import geometries.Plane;
+import geometries.Sphere;
+import lighting.PointLight;
+import org.junit.jupiter.api.Test;
+import primitives.*;
+import scene.Scene;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing the options of SimpleRayTracer class
+ *
+ * @author Shneor and Emanuel
+ */
+class SimpleRayTracerTest {
+    /**
+     * A scene of two facing mirrors with a light between them, every primary ray starts a long chain of reflections
+     */
+    private final Scene scene = new Scene("Mirrors");
+
+    /**
+     * A ray between the mirrors
+     */
+    private final Ray ray = new Ray(Point.ZERO, new Vector(0.1, 0.05, -1));
+
+    /**
+     * Constructs the scene of the tests
+     */
+    SimpleRayTracerTest() {
+        scene.geometries.add(
+                new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setEmission(new Color(10, 20, 30))
+                        .setMaterial(new Material().setKD(0.2).setKR(0.6)),
+                new Plane(new Point(0, 0, 100), new Vector(0, 0, -1)).setEmission(new Color(30, 20, 10))
+                        .setMaterial(new Material().setKD(0.2).setKR(0.6)));
+        scene.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 50, 0)));
+    }
+
+    /**
+     * Test method for {@link SimpleRayTracer#setRussianRoulette(double)}.
+     */
+    @Test
+    void testSetRussianRoulette() {
+        Color exact = new SimpleRayTracer(scene).traceRay(ray, 1);
+        RenderStatistics statistics = new RenderStatistics();
+        SimpleRayTracer roulette = new SimpleRayTracer(scene).setRussianRoulette(0.5).setRandom(new Random(42));
+        roulette.setStatistics(statistics);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the expected color stays the same, with fewer reflected rays than the 9 of the full chain
+        // (the generator is seeded, so the averages are reproducible)
+        final int traces = 20000;
+        double r = 0, g = 0, b = 0;
+        for (int i = 0; i < traces; i++) {
+            Double3 rgb = roulette.traceRay(ray, 1).getRgb();
+            r += rgb.getD1();
+            g += rgb.getD2();
+            b += rgb.getD3();
+        }
+        assertEquals(exact.getRgb().getD1(), r / traces, 0.01 * exact.getRgb().getD1(), "wrong average red");
+        assertEquals(exact.getRgb().getD2(), g / traces, 0.01 * exact.getRgb().getD2(), "wrong average green");
+        assertEquals(exact.getRgb().getD3(), b / traces, 0.01 * exact.getRgb().getD3(), "wrong average blue");
+        assertTrue(statistics.getReflectedRays() < 9L * traces / 2, "the roulette should terminate rays");
+
+        // TC02: the iterative tracer terminates rays in the same way
+        IterativeRayTracer iterative = new IterativeRayTracer(scene);
+        iterative.setRussianRoulette(0.5).setRandom(new Random(42));
+        r = 0;
+        for (int i = 0; i < traces; i++)
+            r += iterative.traceRay(ray, 1).getRgb().getD1();
+        assertEquals(exact.getRgb().getD1(), r / traces, 0.01 * exact.getRgb().getD1(), "wrong iterative average");
+
+        // TC03: the same seed terminates the same rays
+        SimpleRayTracer first = new SimpleRayTracer(scene).setRussianRoulette(0.5).setRandom(new Random(7));
+        SimpleRayTracer second = new SimpleRayTracer(scene).setRussianRoulette(0.5).setRandom(new Random(7));
+        for (int i = 0; i < 100; i++)
+            assertEquals(first.traceRay(ray, 1).getRgb(), second.traceRay(ray, 1).getRgb(),
+                    "the same seed should give the same colors");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: thresholds out of range
+        SimpleRayTracer rayTracer = new SimpleRayTracer(scene);
+        assertThrows(IllegalArgumentException.class, () -> rayTracer.setRussianRoulette(-0.5),
+                "a negative threshold should fail");
+        assertThrows(IllegalArgumentException.class, () -> rayTracer.setRussianRoulette(0.0001),
+                "a threshold below the fixed cut should fail");
+        assertThrows(IllegalArgumentException.class, () -> rayTracer.setRussianRoulette(1.5),
+                "a threshold above 1 should fail");
+    }
+
+    /**
+     * Test method for {@link SimpleRayTracer#setRayBudget(int)}.
+     */
+    @Test
+    void testSetRayBudget() {
+        Color exact = new SimpleRayTracer(scene).traceRay(ray, 1);
+        RenderStatistics statistics = new RenderStatistics();
+        SimpleRayTracer budget = new SimpleRayTracer(scene).setRayBudget(3).setRandom(new Random(42));
+        budget.setStatistics(statistics);
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the expected color stays the same, with fewer reflected rays than the 9 of the full chain
+        final int traces = 20000;
+        double r = 0, g = 0, b = 0;
+        for (int i = 0; i < traces; i++) {
+            budget.pixelStarted();
+            Double3 rgb = budget.traceRay(ray, 1).getRgb();
+            r += rgb.getD1();
+            g += rgb.getD2();
+            b += rgb.getD3();
+        }
+        assertEquals(exact.getRgb().getD1(), r / traces, 0.01 * exact.getRgb().getD1(), "wrong average red");
+        assertEquals(exact.getRgb().getD2(), g / traces, 0.01 * exact.getRgb().getD2(), "wrong average green");
+        assertEquals(exact.getRgb().getD3(), b / traces, 0.01 * exact.getRgb().getD3(), "wrong average blue");
+        assertTrue(statistics.getReflectedRays() < 9L * traces / 2, "the budget should terminate rays");
+
+        // TC02: all the primary rays of a pixel share its budget, and the next pixel gets a new one
+        RenderStatistics pixels = new RenderStatistics();
+        SimpleRayTracer cut = new SimpleRayTracer(scene).setRayBudget(3).setRandom(new Random() {
+            @Override
+            public double nextDouble() {
+                return 0.999; // every ray beyond the budget is terminated
+            }
+        });
+        cut.setStatistics(pixels);
+        cut.pixelStarted();
+        Color color = cut.traceRay(ray, 1);
+        assertEquals(3, pixels.getReflectedRays(), "wrong amount of reflected rays");
+        cut.traceRay(ray, 1);
+        assertEquals(3, pixels.getReflectedRays(), "the second sample of the pixel should have no budget left");
+        cut.pixelStarted();
+        cut.traceRay(ray, 1);
+        assertEquals(6, pixels.getReflectedRays(), "the budget should be renewed for every pixel");
+        assertTrue(color.getRgb().lowerThan(exact.getRgb()), "the cut chain should be darker");
+
+        // TC03: the iterative tracer spends the budget in the same order
+        SimpleRayTracer first = new SimpleRayTracer(scene).setRayBudget(3).setRandom(new Random(7));
+        IterativeRayTracer iterative = new IterativeRayTracer(scene);
+        iterative.setRayBudget(3).setRandom(new Random(7));
+        for (int i = 0; i < 100; i++) {
+            first.pixelStarted();
+            Color expected = first.traceRay(ray, 1);
+            iterative.pixelStarted();
+            assertEquals(expected.getRgb(), iterative.traceRay(ray, 1).getRgb(), "wrong iterative color");
+        }
+
+        // =============== Boundary Values Tests ==================
+        // TC04: a negative budget
+        assertThrows(IllegalArgumentException.class, () -> budget.setRayBudget(-1), "a negative budget should fail");
+    }
+
+    /**
+     * Test method for {@link SimpleRayTracer#setAdaptiveSoftShadows(int)}.
+     */
+    @Test
+    void testSetAdaptiveSoftShadows() {
+        Scene shadows = new Scene("Soft shadow");
+        shadows.geometries.add(
+                new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setMaterial(new Material().setKD(0.5)),
+                new Sphere(10d, new Point(0, 0, -50)).setMaterial(new Material().setKD(0.5)));
+        shadows.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 100)).setRadius(10));
+        RenderStatistics statistics = new RenderStatistics();
+        SimpleRayTracer adaptive = new SimpleRayTracer(shadows).setAdaptiveSoftShadows(8);
+        adaptive.setStatistics(statistics);
+        SimpleRayTracer full = new SimpleRayTracer(shadows);
+        // rays from under the sphere toward the floor
+        Ray lit = new Ray(new Point(100, 0, -80), new Vector(0, 0, -1));
+        Ray umbra = new Ray(new Point(0, 0, -80), new Vector(0, 0, -1));
+        Ray penumbra = new Ray(new Point(13, 0, -80), new Vector(0, 0, -1));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: a fully lit point needs only the ring and the center, and gets the same color as the full grid
+        Color color = adaptive.traceRay(lit, 9);
+        assertEquals(9, statistics.getShadowRays(), "a lit point should not trace the grid");
+        assertEquals(full.traceRay(lit, 9).getRgb(), color.getRgb(), "wrong color of a lit point");
+
+        // TC02: a fully shadowed point needs only the ring and the center
+        statistics.reset();
+        adaptive.traceRay(umbra, 9);
+        assertEquals(9, statistics.getShadowRays(), "a shadowed point should not trace the grid");
+
+        // TC03: a point in the penumbra traces the full grid
+        statistics.reset();
+        adaptive.traceRay(penumbra, 9);
+        assertTrue(statistics.getShadowRays() > 9 + 40, "a point in the penumbra should trace the grid");
+
+        // =============== Boundary Values Tests ==================
+        // TC04: a light without a radius needs a single shadow ray
+        Scene point = new Scene("Hard shadow");
+        point.geometries.add(new Plane(new Point(0, 0, -100), new Vector(0, 0, 1)).setMaterial(new Material().setKD(0.5)));
+        point.lights.add(new PointLight(new Color(100, 100, 100), new Point(0, 0, 100)));
+        statistics.reset();
+        new SimpleRayTracer(point).setAdaptiveSoftShadows(8).setStatistics(statistics).traceRay(lit, 9);
+        assertEquals(1, statistics.getShadowRays(), "a point light should need one shadow ray");
+
+        // TC05: a ring that does not surround the light
+        assertThrows(IllegalArgumentException.class, () -> full.setAdaptiveSoftShadows(2), "a ring of 2 should fail");
+        assertThrows(IllegalArgumentException.class, () -> full.setAdaptiveSoftShadows(-1),
+                "a negative ring should fail");
+    }
+}
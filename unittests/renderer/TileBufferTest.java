@@ -0,0 +1,87 @@
+package renderer;
+
+import geometries.Sphere;
+import org.junit.jupiter.api.Test;
+import primitives.Color;
+import primitives.Point;
+import primitives.Vector;
+import scene.Scene;
+
+import java.awt.image.BufferedImage;
+import java.io.*;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing TileBuffer class and rendering of image regions
+ *
+ * @author Shneor and Emanuel
+ */
+class TileBufferTest {
+
+    /**
+     * Test method for {@link TileBuffer#write(DataOutput)} and {@link TileBuffer#read(DataInput)}.
+     */
+    @Test
+    void testWriteRead() throws IOException {
+        TileBuffer tile = new TileBuffer(3, 4, 2, 2);
+        tile.writePixel(3, 4, new Color(255, 0, 0));
+        tile.writePixel(4, 5, new Color(0, 0, 255));
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        tile.write(new DataOutputStream(bytes));
+        TileBuffer copy = TileBuffer.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: the region and the pixels survive the round trip
+        assertEquals(3, copy.getFromCol(), "wrong first column");
+        assertEquals(4, copy.getFromRow(), "wrong first row");
+        assertEquals(2, copy.getWidth(), "wrong width");
+        assertEquals(2, copy.getHeight(), "wrong height");
+        for (int row = 4; row < 6; row++)
+            for (int column = 3; column < 5; column++)
+                assertEquals(tile.getRGB(column, row), copy.getRGB(column, row), "wrong pixel");
+
+        // TC02: a stream without a tile
+        assertThrows(IOException.class,
+                () -> TileBuffer.read(new DataInputStream(new ByteArrayInputStream(new byte[20]))),
+                "reading garbage should fail");
+    }
+
+    /**
+     * Test method for {@link Camera#renderRegion(int, int, int, int)} and
+     * {@link ImageWriter#mergeTiles(String, int, int, Iterable)}.
+     */
+    @Test
+    void testRenderRegion() {
+        Scene scene = new Scene("Test scene");
+        scene.geometries.add(new Sphere(50d, new Point(0, 0, -100)).setEmission(new Color(0, 100, 200)));
+        ImageWriter full = new ImageWriter("tileTest", 40, 30);
+        Camera camera = Camera.getBuilder()
+                .setLocation(Point.ZERO)
+                .setDirection(new Vector(0, 0, -1), Vector.Y)
+                .setVpDistance(100).setVpSize(200, 150)
+                .setRayTracer(new SimpleRayTracer(scene))
+                .setImageWriter(full)
+                .setMultithreading(2)
+                .build();
+
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: tiles of a frame merge into the same image as a render of the full frame
+        camera.renderImage();
+        BufferedImage expected = full.getSnapshot();
+        BufferedImage merged = ImageWriter.mergeTiles("tileTestMerged", 40, 30, List.of(
+                camera.renderRegion(0, 0, 25, 30),
+                camera.renderRegion(25, 0, 15, 12),
+                camera.renderRegion(25, 12, 15, 18))).getSnapshot();
+        for (int row = 0; row < 30; row++)
+            for (int column = 0; column < 40; column++)
+                assertEquals(expected.getRGB(column, row), merged.getRGB(column, row), "merged image differs");
+
+        // =============== Boundary Values Tests ==================
+        // TC02: a region outside the image
+        assertThrows(IllegalArgumentException.class, () -> camera.renderRegion(30, 0, 11, 10),
+                "a region outside the image should fail");
+    }
+}
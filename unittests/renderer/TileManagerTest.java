@@ -0,0 +1,79 @@
+package renderer;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Testing TileManager class
+ *
+ * @author Shneor and Emanuel
+ */
+class TileManagerTest {
+
+    /**
+     * Test method for {@link TileManager#nextTile(int)}.
+     */
+    @Test
+    void testNextTile() {
+        // ============ Equivalence Partitions Tests ==============
+        // TC01: every pixel is handed out exactly once across the workers, the last tiles are clipped to the image
+        TileManager tiles = new TileManager(50, 70, 16, 3);
+        assertEquals(4 * 5, tiles.getTilesCount(), "wrong amount of tiles");
+        int[][] covered = new int[50][70];
+        int handed = 0;
+        boolean done = false;
+        while (!done) {
+            done = true;
+            for (int worker = 0; worker < 3; worker++) {
+                TileManager.Tile tile = tiles.nextTile(worker);
+                if (tile == null) continue;
+                done = false;
+                handed++;
+                for (int row = tile.fromRow(); row < tile.toRow(); row++)
+                    for (int column = tile.fromCol(); column < tile.toCol(); column++)
+                        covered[row][column]++;
+            }
+        }
+        assertEquals(20, handed, "every tile should be handed out once");
+        for (int[] row : covered)
+            for (int count : row)
+                assertEquals(1, count, "every pixel should be in exactly one tile");
+
+        // TC02: an idle worker steals from the tail of a busy worker, which keeps its own head
+        TileManager stealing = new TileManager(32, 64, 16, 2);
+        List<TileManager.Tile> own = new ArrayList<>();
+        own.add(stealing.nextTile(0));
+        own.add(stealing.nextTile(0));
+        own.add(stealing.nextTile(0));
+        own.add(stealing.nextTile(0));
+        assertEquals(new TileManager.Tile(0, 0, 16, 16), own.getFirst(), "wrong first tile of the first worker");
+        // the first worker drained its band, so it steals the last tile of the second worker
+        assertEquals(new TileManager.Tile(48, 16, 64, 32), stealing.nextTile(0), "wrong stolen tile");
+        assertEquals(new TileManager.Tile(0, 16, 16, 32), stealing.nextTile(1), "wrong own tile");
+        Set<TileManager.Tile> rest = new HashSet<>(own);
+        TileManager.Tile tile;
+        while ((tile = stealing.nextTile(0)) != null)
+            assertTrue(rest.add(tile), "a tile was handed out twice");
+        assertEquals(4 + 2, rest.size(), "wrong amount of the rest of the tiles");
+        assertNull(stealing.nextTile(1), "no tiles should be left");
+
+        // =============== Boundary Values Tests ==================
+        // TC03: more workers than tiles
+        TileManager few = new TileManager(16, 16, 16, 4);
+        int count = 0;
+        for (int worker = 0; worker < 4; worker++)
+            if (few.nextTile(worker) != null) count++;
+        assertEquals(1, count, "a single tile should be handed out once");
+
+        // TC04: bad parameters
+        assertThrows(IllegalArgumentException.class, () -> new TileManager(10, 10, 0, 1), "a tile of 0 should fail");
+        assertThrows(IllegalArgumentException.class, () -> new TileManager(10, 10, 16, 0),
+                "no workers should fail");
+    }
+}